@@ -0,0 +1,77 @@
+package grid;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken by {@link Map#update()} to step each {@link Workload} with each kind
+ *  of {@link Engine}.
+ * Unlike {@link SimulationBenchmark}, this includes the Engine's own bookkeeping (such as its
+ *  statistics and skipping of settled regions), so it is the number to compare when changing an
+ *  Engine.
+ * Each invocation advances the Map, so the workload is recreated before every iteration; the
+ *  soups thin out as they are stepped, so their results depend on the length of the iterations.
+ * By default only the Engines which can hold {@link Workload#SOUP_16384} are measured; the
+ *  others may be included with {@code -p engine=LIST,HASHED} and smaller workloads.
+ * Other {@link Rule}s may be compared with Life with, for example, {@code -p rule=B3/S23,B36/S23}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx8g" })
+public class EngineBenchmark
+{
+    @Param({ "R_PENTOMINO", "ACORN", "SOUP_256", "SOUP_2048", "SOUP_16384", "GOSPER_GUN" })
+    public Workload workload;
+
+    @Param({ "TILED", "TILED_TABLE", "TILED_OFF_HEAP", "HASHLIFE" })
+    public EngineType engine;
+
+    @Param({ "B3/S23" })
+    public String rule;
+
+    private Map map;
+
+    /**
+     * Recreates the workload in a new Engine.
+     */
+    @Setup(Level.Iteration)
+    public void setUp()
+    {
+        map = workload.create(engine.create());
+        map.setRule(Rule.parse(rule));
+    }
+
+    /**
+     * Closes the Map, shutting down the Engine's threads.
+     */
+    @TearDown(Level.Iteration)
+    public void tearDown()
+    {
+        map.close();
+    }
+
+    /**
+     * Steps the Map by one generation.
+     */
+    @Benchmark
+    public void update()
+    {
+        map.update();
+    }
+}
@@ -0,0 +1,95 @@
+package grid;
+
+import graphics.DisplayMonitor;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken by {@link Grid#draw(Graphics2D)} to draw a frame of a
+ *  {@link Workload} into an offscreen image the size of the screen, at several zooms.
+ * The view is centered on the workload, so the whole screen is covered by a soup of 2048 cells
+ *  or more when zoomed in.
+ * Each frame is drawn both rasterized and with a drawing operation per cell; see
+ *  {@link Grid#setRasterized(boolean)}.
+ * Below a zoom of 1 both are drawn as a density map, so the two results should be the same.
+ * The board does not change between frames, so rasterized frames at zooms of 1 to 8 are copied
+ *  from the Grid's cached Tile images after the first, as when moving around a still board.
+ * The Grid loads its images and registers with the input listener when it is created, so this
+ *  benchmark must be run on a machine with a display (unlike the other benchmarks).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridBenchmark
+{
+    @Param({ "GOSPER_GUN", "SOUP_2048" })
+    public Workload workload;
+
+    @Param({ "0.05", "1", "4", "20", "40" })
+    public double zoom;
+
+    @Param({ "true", "false" })
+    public boolean rasterized;
+
+    private Grid grid;
+    private BufferedImage image;
+    private Graphics2D g;
+
+    /**
+     * Creates a Grid displaying the workload, centered on the screen at the chosen zoom, and the
+     *  image into which it is drawn.
+     */
+    @Setup
+    public void setUp()
+    {
+        grid = new Grid();
+        Map cells = workload.create(new TiledEngine());
+        grid.getMap().setAlive(cells.getAlive(), true);
+        cells.close();
+        grid.setRasterized(rasterized);
+        grid.zoom = zoom;
+        grid.x = -DisplayMonitor.screen.width/zoom/2;
+        grid.y = -DisplayMonitor.screen.height/zoom/2;
+
+        image = new BufferedImage(DisplayMonitor.screen.width, DisplayMonitor.screen.height,
+                BufferedImage.TYPE_INT_RGB);
+        g = image.createGraphics();
+    }
+
+    /**
+     * Releases the graphics context of the image and closes the Grid's Map.
+     */
+    @TearDown
+    public void tearDown()
+    {
+        g.dispose();
+        grid.getMap().close();
+    }
+
+    /**
+     * Draws a single frame of the Grid.
+     */
+    @Benchmark
+    public void draw()
+    {
+        grid.draw(g);
+    }
+}
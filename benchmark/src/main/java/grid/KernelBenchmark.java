@@ -0,0 +1,124 @@
+package grid;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken to simulate the next generation of a single dense {@link Tile}, with
+ *  each {@link TileKernel} and, for comparison, with each {@link Simulation.Algorithm}.
+ * The Tile and its eight neighbors are filled at random with the given density; the kernels
+ *  step the center Tile from the whole neighborhood, while the Simulation algorithms simulate
+ *  the living cells of the center Tile alone (and so also produce the cells just outside it).
+ * Nothing is modified, so every invocation simulates the same generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KernelBenchmark
+{
+    /**
+     * The kernel ({@code SCALAR}, {@code SWAR} or {@code TABLE}) or Simulation algorithm
+     *  ({@code SORTED_LIST} or {@code HASHED}) which simulates the Tile.
+     */
+    @Param({ "SCALAR", "SWAR", "TABLE", "SORTED_LIST", "HASHED" })
+    public String stepper;
+
+    /**
+     * The probability that each cell is alive.
+     * The {@link TableKernel} only uses its table above {@link TableKernel#DENSE_POPULATION}, so
+     *  it steps the sparser Tile as a SwarKernel does.
+     */
+    @Param({ "0.1", "0.5" })
+    public double density;
+
+    private TileKernel kernel;
+    private long[][] neighborhood;
+    private long[] next;
+    private LongList alive;
+
+    /**
+     * Fills the neighborhood at random and creates the kernel, whose table (if it has one) is
+     *  generated here rather than measured.
+     */
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random(0);
+        neighborhood = new long[9][Tile.SIZE];
+        for (int i = 0; i < 9; i++)
+        {
+            for (int r = 0; r < Tile.SIZE; r++)
+            {
+                for (int c = 0; c < Tile.SIZE; c++)
+                {
+                    if (random.nextDouble() < density)
+                    {
+                        neighborhood[i][r] |= 1L << c;
+                    }
+                }
+            }
+        }
+        next = new long[Tile.SIZE];
+
+        // the cells of the center Tile, sorted as PackedCells are (by column, then row)
+        alive = new LongList();
+        for (int c = 0; c < Tile.SIZE; c++)
+        {
+            for (int r = 0; r < Tile.SIZE; r++)
+            {
+                if ((neighborhood[TileKernel.CENTER][r] & (1L << c)) != 0)
+                {
+                    alive.add(PackedCell.pack(c, r));
+                }
+            }
+        }
+
+        if (stepper.equals("SCALAR"))
+        {
+            kernel = new ScalarKernel();
+        }
+        else if (stepper.equals("SWAR"))
+        {
+            kernel = new SwarKernel();
+        }
+        else if (stepper.equals("TABLE"))
+        {
+            kernel = new TableKernel(Rule.LIFE);
+        }
+    }
+
+    /**
+     * Simulates the next generation of the Tile.
+     *
+     * @return the next generation, so that it is not optimized away
+     */
+    @Benchmark
+    public Object step()
+    {
+        if (kernel != null)
+        {
+            kernel.step(neighborhood, Rule.LIFE, next);
+            return next;
+        }
+        else if (stepper.equals("HASHED"))
+        {
+            return Simulation.simulateHashed(alive);
+        }
+        return Simulation.simulate(alive);
+    }
+}
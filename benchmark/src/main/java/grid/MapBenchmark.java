@@ -0,0 +1,159 @@
+package grid;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the editing operations of a {@link Map} on a random soup, with each kind of
+ *  {@link Engine}.
+ * The edits are chosen so that the Map stays (nearly) the same between invocations: cells are
+ *  toggled, cleared areas are restored, and a square area returns to its original state after
+ *  every four rotations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark
+{
+    @Param({ "SOUP_256", "SOUP_2048" })
+    public Workload workload;
+
+    @Param({ "LIST", "HASHED", "TILED", "HASHLIFE" })
+    public EngineType engine;
+
+    @Param({ "64" })
+    public int areaSize;
+
+    private Map map;
+
+    /**
+     * The coordinates of the cells which are read and toggled, within the soup.
+     */
+    private int[] xs;
+    private int[] ys;
+    private int next;
+
+    /**
+     * The area which is cleared and rotated, at the center of the soup.
+     */
+    private Bounds area;
+    /**
+     * The original contents of {@link #area}, used to restore it after it is cleared.
+     */
+    private boolean[][] contents;
+
+    /**
+     * The number of random coordinates, a power of 2.
+     */
+    private static final int COORDINATES = 1 << 16;
+
+    /**
+     * Creates the soup and chooses the cells and area to edit.
+     */
+    @Setup
+    public void setUp()
+    {
+        map = workload.create(engine.create());
+
+        // the smallest and largest coordinates of the living cells
+        final int[] extent = { Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Integer.MIN_VALUE };
+        map.visitAlive(new CellVisitor()
+        {
+            public void visit(int x, int y)
+            {
+                extent[0] = Math.min(extent[0], x);
+                extent[1] = Math.min(extent[1], y);
+                extent[2] = Math.max(extent[2], x);
+                extent[3] = Math.max(extent[3], y);
+            }
+        });
+        Random random = new Random(0);
+        xs = new int[COORDINATES];
+        ys = new int[COORDINATES];
+        for (int i = 0; i < COORDINATES; i++)
+        {
+            xs[i] = extent[0] + random.nextInt(extent[2] - extent[0] + 1);
+            ys[i] = extent[1] + random.nextInt(extent[3] - extent[1] + 1);
+        }
+        next = 0;
+
+        area = new Bounds(-areaSize/2, -areaSize/2, areaSize, areaSize);
+        contents = new boolean[areaSize][areaSize];
+        for (int x = 0; x < areaSize; x++)
+        {
+            for (int y = 0; y < areaSize; y++)
+            {
+                contents[x][y] = map.isAlive(area.x + x, area.y + y);
+            }
+        }
+    }
+
+    /**
+     * Closes the Map, shutting down the Engine's threads.
+     */
+    @TearDown
+    public void tearDown()
+    {
+        map.close();
+    }
+
+    /**
+     * Reads the state of a random cell.
+     *
+     * @return the state of the cell, so that it is not optimized away
+     */
+    @Benchmark
+    public boolean isAlive()
+    {
+        next = (next + 1) & (COORDINATES - 1);
+        return map.isAlive(xs[next], ys[next]);
+    }
+
+    /**
+     * Sets a random cell to alive or dead, alternately.
+     */
+    @Benchmark
+    public void setAlive()
+    {
+        next = (next + 1) & (COORDINATES - 1);
+        map.setAlive(xs[next], ys[next], (next & 1) == 0);
+    }
+
+    /**
+     * Clears the area and then restores its contents.
+     */
+    @Benchmark
+    public void clearArea()
+    {
+        map.clear(area);
+        map.setAlive(area.x, area.y, contents);
+    }
+
+    /**
+     * Rotates the square area clockwise.
+     *
+     * @return the rotated area, so that it is not optimized away
+     */
+    @Benchmark
+    public Bounds rotateCW()
+    {
+        return map.rotateCW(area);
+    }
+}
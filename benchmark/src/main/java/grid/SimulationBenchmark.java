@@ -0,0 +1,62 @@
+package grid;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken by {@link Simulation} to simulate a single generation of each
+ *  {@link Workload}, with each {@link Simulation.Algorithm}.
+ * The living cells are only read by the simulation, so every invocation simulates the same
+ *  generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx8g" })
+public class SimulationBenchmark
+{
+    @Param({ "R_PENTOMINO", "ACORN", "SOUP_256", "SOUP_2048", "SOUP_16384", "GOSPER_GUN" })
+    public Workload workload;
+
+    @Param({ "SORTED_LIST", "HASHED" })
+    public Simulation.Algorithm algorithm;
+
+    private LongList alive;
+
+    /**
+     * Creates the generation to simulate.
+     */
+    @Setup
+    public void setUp()
+    {
+        alive = workload.pack();
+    }
+
+    /**
+     * Simulates the next generation of the workload.
+     *
+     * @return the next generation, so that it is not optimized away
+     */
+    @Benchmark
+    public LongList simulate()
+    {
+        if (algorithm == Simulation.Algorithm.HASHED)
+        {
+            return Simulation.simulateHashed(alive);
+        }
+        return Simulation.simulate(alive);
+    }
+}
@@ -0,0 +1,164 @@
+package grid;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import pattern.Pattern;
+import pattern.PatternReader;
+
+/**
+ * The standard patterns on which the benchmarks are run.
+ * Small methuselahs are advanced to a busy generation before they are measured, since their
+ *  first generations only have a handful of cells; random soups are measured as generated.
+ * Each workload is centered on the origin and is deterministic, so that results can be compared
+ *  between runs and between engines.
+ */
+public enum Workload
+{
+    /**
+     * The R-pentomino after 1000 generations.
+     */
+    R_PENTOMINO("R-pentomino", 0, 1000),
+    /**
+     * The acorn after 1000 generations.
+     */
+    ACORN("Acorn", 0, 1000),
+    /**
+     * A 256 by 256 soup in which each cell is alive with probability 1/2.
+     */
+    SOUP_256(null, 256, 0),
+    /**
+     * A 2048 by 2048 soup in which each cell is alive with probability 1/2.
+     */
+    SOUP_2048(null, 2048, 0),
+    /**
+     * A 16384 by 16384 soup in which each cell is alive with probability 1/2; this has about
+     *  134 million living cells and needs several gigabytes of heap with most engines.
+     */
+    SOUP_16384(null, 16384, 0),
+    /**
+     * The Gosper glider gun after 10000 generations, with over 300 gliders in flight.
+     */
+    GOSPER_GUN("Gosper Glider Gun", 0, 10000);
+
+    /**
+     * The name of the built-in pattern, or null for a random soup.
+     */
+    private final String pattern;
+    /**
+     * The width and height of a random soup.
+     */
+    private final int size;
+    /**
+     * The number of generations to advance the pattern before it is measured.
+     */
+    private final long generations;
+
+    /**
+     * The number of columns of a soup which are added to a Map at once.
+     */
+    private static final int SOUP_BLOCK = 256;
+
+    private Workload(String pattern, int size, long generations)
+    {
+        this.pattern = pattern;
+        this.size = size;
+        this.generations = generations;
+    }
+
+    /**
+     * Creates a Map holding this workload, stored in the given Engine.
+     * The workload is advanced in a {@link TiledEngine}, which is fast for every pattern, and then
+     *  copied into the given Engine.
+     *
+     * @param engine - the empty Engine in which to store the workload
+     * @return a new Map holding the workload
+     */
+    public Map create(Engine engine)
+    {
+        Map map = new Map(generations == 0 ? engine : new TiledEngine());
+        if (pattern == null)
+        {
+            Random random = new Random(0);
+            for (int x = 0; x < size; x += SOUP_BLOCK)
+            {
+                boolean[][] cells = new boolean[Math.min(SOUP_BLOCK, size - x)][size];
+                for (int i = 0; i < cells.length; i++)
+                {
+                    for (int j = 0; j < size; j++)
+                    {
+                        cells[i][j] = random.nextBoolean();
+                    }
+                }
+                map.setAlive(x - size/2, -size/2, cells);
+            }
+        }
+        else
+        {
+            Pattern pattern = load(this.pattern);
+            map.setAlive(-pattern.getWidth()/2, -pattern.getHeight()/2, pattern.pattern);
+        }
+
+        while (map.getGeneration() < generations)
+        {
+            map.update();
+        }
+        if (map.getEngine() != engine)
+        {
+            map.setEngine(engine);
+        }
+        return map;
+    }
+
+    /**
+     * Gets the living cells of this workload as a sorted list of {@link PackedCell}s, as used by
+     *  {@link Simulation}.
+     *
+     * @return a new sorted list of the living cells of the workload
+     */
+    public LongList pack()
+    {
+        final LongList alive = new LongList();
+        Map map = create(new TiledEngine());
+        map.visitAlive(new CellVisitor()
+        {
+            public void visit(int x, int y)
+            {
+                alive.add(PackedCell.pack(x, y));
+            }
+        });
+        map.close();
+        alive.sort();
+        return alive;
+    }
+
+    /**
+     * Loads the built-in pattern with the given full name.
+     *
+     * @param name - the full name of the pattern
+     * @return the pattern
+     * @throws IllegalStateException if the pattern could not be loaded
+     */
+    private static Pattern load(String name)
+    {
+        try
+        {
+            PatternReader in = PatternReader.builtIn();
+            ArrayList<Pattern> patterns = in.readAll();
+            in.close();
+            for (int i = 0; i < patterns.size(); i++)
+            {
+                if (patterns.get(i).fullName.equals(name))
+                {
+                    return patterns.get(i);
+                }
+            }
+        }
+        catch (IOException ex)
+        {
+            throw new IllegalStateException("Could not read the built-in patterns", ex);
+        }
+        throw new IllegalStateException("No built-in pattern named " + name);
+    }
+}
@@ -0,0 +1,198 @@
+package grid;
+
+/**
+ * A {@link Tile} whose rows and bookkeeping are stored in blocks of a {@link TileArena} rather
+ *  than on the heap, one block per phase, so that the Tile object itself holds only its
+ *  coordinates and the indices of its blocks.
+ * The block of a phase may be shared with a {@link Snapshot}, in which case its rows are written
+ *  into a fresh block the next time they are modified, and the shared block is left to the
+ *  Snapshot.
+ */
+class ArenaTile extends Tile
+{
+    private final TileArena arena;
+    /**
+     * The blocks holding phase 0 and phase 1 of this Tile.
+     */
+    private int block0;
+    private int block1;
+
+    /**
+     * Creates a new ArenaTile at the given coordinates which is empty in both phases.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     * @param arena - the arena in which the Tile is stored
+     */
+    ArenaTile(int x, int y, TileArena arena)
+    {
+        this(x, y, arena, arena.allocate(), arena.allocate());
+        touch(0);
+        touch(1);
+    }
+
+    /**
+     * Creates a new ArenaTile at the given coordinates whose phases are held by the given blocks.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     * @param arena - the arena in which the Tile is stored
+     * @param block0 - the block holding phase 0
+     * @param block1 - the block holding phase 1
+     */
+    ArenaTile(int x, int y, TileArena arena, int block0, int block1)
+    {
+        super(x, y);
+        this.arena = arena;
+        this.block0 = block0;
+        this.block1 = block1;
+    }
+
+    public int getPopulation(int phase)
+    {
+        return (int) arena.getField(block(phase), TileArena.POPULATION);
+    }
+
+    void addPopulation(int phase, int delta)
+    {
+        arena.setField(block(phase), TileArena.POPULATION, getPopulation(phase) + delta);
+    }
+
+    int getDifferences(int phase)
+    {
+        return (int) arena.getField(block(phase), TileArena.DIFFERENCES);
+    }
+
+    void addDifferences(int phase, int delta)
+    {
+        arena.setField(block(phase), TileArena.DIFFERENCES, getDifferences(phase) + delta);
+    }
+
+    public long getVersion(int phase)
+    {
+        return arena.getField(block(phase), TileArena.VERSION);
+    }
+
+    void setVersion(int phase, long version)
+    {
+        arena.setField(block(phase), TileArena.VERSION, version);
+    }
+
+    long row(int phase, int r)
+    {
+        return arena.get(block(phase), r);
+    }
+
+    /**
+     * Reads the rows of the given phase into the given array, unless the phase is empty.
+     * A phase is only empty between edits, when its population is up to date.
+     */
+    long[] rows(int phase, long[] scratch)
+    {
+        if (getPopulation(phase) == 0)
+        {
+            return EMPTY_ROWS;
+        }
+        arena.read(block(phase), scratch);
+        return scratch;
+    }
+
+    void setRow(int phase, int r, long row)
+    {
+        arena.set(writable(phase), r, row);
+    }
+
+    void set(int phase, long[] rows, int population)
+    {
+        int block = writable(phase);
+        arena.write(block, rows);
+        arena.setField(block, TileArena.POPULATION, population);
+    }
+
+    /**
+     * Shares the block of the given phase with the returned Tile, which holds it until it is
+     *  garbage collected; this Tile writes into a copy of the block the next time the phase is
+     *  modified.
+     * Only the rows of the block remain the same, so the Tile keeps its own copy of the
+     *  population and version of the phase.
+     */
+    Tile freeze(int phase)
+    {
+        Tile frozen = new FrozenTile(x, y, arena, block(phase), getPopulation(phase),
+                getVersion(phase));
+        arena.share(block(phase), frozen);
+        return frozen;
+    }
+
+    void free()
+    {
+        arena.release(block0);
+        arena.release(block1);
+    }
+
+    /**
+     * Gets the block holding the given phase.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @return the index of the phase's block
+     */
+    private int block(int phase)
+    {
+        return phase == 0 ? block0 : block1;
+    }
+
+    /**
+     * Gets the block holding the given phase so that its rows may be modified, first replacing it
+     *  with a copy if it is shared with a Snapshot.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @return the index of a block which only this Tile references
+     */
+    private int writable(int phase)
+    {
+        int block = block(phase);
+        if (arena.isShared(block))
+        {
+            int copy = arena.copy(block);
+            arena.release(block);
+            block = copy;
+            if (phase == 0)
+            {
+                block0 = copy;
+            }
+            else
+            {
+                block1 = copy;
+            }
+        }
+        return block;
+    }
+
+    /**
+     * The contents of a phase of an ArenaTile which are shared with a {@link Snapshot}, as phase 0
+     *  of this Tile; its rows are read from the shared block, which is never modified.
+     * Phase 1 is never read.
+     */
+    private static class FrozenTile extends ArenaTile
+    {
+        private final int population;
+        private final long version;
+
+        FrozenTile(int x, int y, TileArena arena, int block, int population, long version)
+        {
+            super(x, y, arena, block, block);
+            this.population = population;
+            this.version = version;
+        }
+
+        public int getPopulation(int phase)
+        {
+            return population;
+        }
+
+        public long getVersion(int phase)
+        {
+            return version;
+        }
+    }
+}
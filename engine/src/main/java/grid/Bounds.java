@@ -0,0 +1,88 @@
+package grid;
+
+/**
+ * An immutable rectangle of cells: the cells from {@code (x, y)} inclusive to
+ *  {@code (x + width, y + height)} exclusive.
+ * Bounds are used by the engine for areas of the universe (to read, clear or draw) and for the
+ *  bounding boxes of generations; the user interface converts them to and from its own
+ *  rectangles at its boundary, so that the engine does not depend on any windowing toolkit.
+ */
+public final class Bounds
+{
+    /**
+     * The x-coordinate of the left-most column of cells.
+     */
+    public final int x;
+    /**
+     * The y-coordinate of the top-most row of cells.
+     */
+    public final int y;
+    /**
+     * The number of columns of cells.
+     */
+    public final int width;
+    /**
+     * The number of rows of cells.
+     */
+    public final int height;
+
+    /**
+     * Creates new Bounds with the given location and size.
+     *
+     * @param x - the x-coordinate of the left-most column of cells
+     * @param y - the y-coordinate of the top-most row of cells
+     * @param width - the number of columns of cells
+     * @param height - the number of rows of cells
+     */
+    public Bounds(int x, int y, int width, int height)
+    {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Determines whether these Bounds equal the given object.
+     * The two are equal if and only if the given Object is also Bounds with the same location
+     *  and size.
+     *
+     * @param o - the object to which to compare
+     * @return true if the given object is equal to these Bounds, false otherwise
+     * @see Object#equals(Object)
+     */
+    public boolean equals(Object o)
+    {
+        if (o instanceof Bounds)
+        {
+            Bounds b = (Bounds) o;
+            return b.x == x && b.y == y && b.width == width && b.height == height;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code for these Bounds, consistent with {@link #equals(Object)}.
+     *
+     * @return a hash of the location and size
+     * @see Object#hashCode()
+     */
+    public int hashCode()
+    {
+        return ((x*31 + y)*31 + width)*31 + height;
+    }
+
+    /**
+     * Returns a String representation of these Bounds with the format:
+     * <pre>
+     * x,y widthxheight
+     * </pre>
+     *
+     * @return a user-friendly String representation of these Bounds
+     * @see Object#toString()
+     */
+    public String toString()
+    {
+        return x + "," + y + " " + width + "x" + height;
+    }
+}
@@ -1,24 +1,27 @@
 package grid;
 
-import java.awt.Point;
-
 /**
  * Represents a single, living cell in the Game of Life simulation.
- * This class is simply an implementation of the {@link java.awt.Point} superclass that allows for
- *  a natural ordering so that sorted lists can be maintained.
+ * This class is simply a pair of integer coordinates with a natural ordering so that sorted
+ *  lists can be maintained.
  */
-public class Cell extends Point implements Comparable<Cell>
+public class Cell implements Comparable<Cell>
 {
-    private static final long serialVersionUID = 1L;
+    /**
+     * The x-coordinate of this Cell.
+     */
+    public int x;
+    /**
+     * The y-coordinate of this Cell.
+     */
+    public int y;
 
     /**
      * Creates a new, empty Cell at (0, 0).
-     *
-     * @see Point#Point()
      */
     public Cell()
     {
-        super();
+        this(0, 0);
     }
 
     /**
@@ -26,22 +29,21 @@ public class Cell extends Point implements Comparable<Cell>
      *
      * @param x - the x-coordinate of the Cell
      * @param y - the y-coordinate of the Cell
-     * @see Point#Point(int, int)
      */
     public Cell(int x, int y)
     {
-        super(x, y);
+        this.x = x;
+        this.y = y;
     }
 
     /**
      * Creates a new Cell at the same location as the given Cell.
      *
      * @param c - the cell to be copied into this cell
-     * @see Point#Point(Point)
      */
     public Cell(Cell c)
     {
-        super(c);
+        this(c.x, c.y);
     }
 
     /**
@@ -96,7 +98,7 @@ public class Cell extends Point implements Comparable<Cell>
      *
      * @param o - the object to which to compare
      * @return true if the given object is equal to this Cell, false otherwise
-     * @see Point#equals(Object)
+     * @see Object#equals(Object)
      */
     public boolean equals(Object o)
     {
@@ -107,12 +109,22 @@ public class Cell extends Point implements Comparable<Cell>
         return false;
     }
 
+    /**
+     * Returns a hash code for this Cell, consistent with {@link #equals(Object)}.
+     *
+     * @return a hash of the coordinates of this Cell
+     * @see Object#hashCode()
+     */
+    public int hashCode()
+    {
+        return x*31 + y;
+    }
+
     /**
      * Returns a clone of this Cell with the same coordinates.
      * This is equivalent to using the {@link #Cell(Cell)} constructor with this as the parameter.
      *
      * @return a cloned version of this Cell
-     * @see java.awt.geom.Point2D#clone()
      * @see Cell#Cell(Cell)
      */
     public Cell clone()
@@ -127,7 +139,7 @@ public class Cell extends Point implements Comparable<Cell>
      * </pre>
      *
      * @return a user-friendly String representation of this Cell
-     * @see Point#toString()
+     * @see Object#toString()
      */
     public String toString()
     {
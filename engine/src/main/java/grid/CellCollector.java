@@ -0,0 +1,37 @@
+package grid;
+
+import java.util.ArrayList;
+
+/**
+ * A {@link CellVisitor} which adds a new {@link Cell} to a list for each cell it visits.
+ * This adapts the visitor methods of Engines and Snapshots to their list-returning counterparts.
+ */
+public class CellCollector implements CellVisitor
+{
+    private final ArrayList<Cell> cells;
+
+    /**
+     * Creates a new CellCollector which adds the cells it visits to the given list.
+     *
+     * @param cells - the list to which visited cells are added
+     */
+    public CellCollector(ArrayList<Cell> cells)
+    {
+        this.cells = cells;
+    }
+
+    /**
+     * Gets the list to which visited cells are added.
+     *
+     * @return the list of collected cells
+     */
+    public ArrayList<Cell> getCells()
+    {
+        return cells;
+    }
+
+    public void visit(int x, int y)
+    {
+        cells.add(new Cell(x, y));
+    }
+}
@@ -0,0 +1,30 @@
+package grid;
+
+/**
+ * A callback which is given the coordinates of living cells one at a time.
+ * Visiting cells does not create a {@link Cell} (or any other object) per cell, so it is the
+ *  preferred way to read large numbers of cells, such as when drawing or simulating a generation:
+ * <pre>
+ * map.visitAlive(area, new CellVisitor()
+ * {
+ *     public void visit(int x, int y)
+ *     {
+ *         ...
+ *     }
+ * });
+ * </pre>
+ *
+ * @see Map#visitAlive(Bounds, CellVisitor)
+ * @see Snapshot#visitAlive(Bounds, CellVisitor)
+ */
+public interface CellVisitor
+{
+    /**
+     * Visits a single living cell.
+     * The visitor must not modify the Map or Engine whose cells it is visiting.
+     *
+     * @param x - the x-coordinate of the living cell
+     * @param y - the y-coordinate of the living cell
+     */
+    public void visit(int x, int y);
+}
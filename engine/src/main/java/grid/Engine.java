@@ -0,0 +1,182 @@
+package grid;
+
+import java.util.ArrayList;
+
+/**
+ * Stores the living cells of a {@link Map} and simulates new generations of them.
+ * A Map delegates all of its cell storage to an Engine, while it keeps track of the generation
+ *  counter and provides higher-level operations (such as rotations) in terms of the Engine's
+ *  methods.
+ * Engines are not required to be thread-safe; the Map synchronizes all access to its Engine.
+ */
+public interface Engine
+{
+    /**
+     * Determines whether the cell at the given coordinates is alive.
+     *
+     * @param x - the x-coordinate of the cell to check
+     * @param y - the y-coordinate of the cell to check
+     * @return true if the cell at (x,y) is alive, false otherwise
+     */
+    public boolean isAlive(int x, int y);
+
+    /**
+     * Sets the cell at the given coordinates to the given state.
+     * If the cell at the given location already has the given state, no action is taken.
+     *
+     * @param x - the x-coordinate of the cell to alter
+     * @param y - the y-coordinate of the cell to alter
+     * @param alive - true if the cell should become alive, false otherwise
+     */
+    public void setAlive(int x, int y, boolean alive);
+
+    /**
+     * Sets the cells of a rectangular area to the given states.
+     * That is, the cell at {@code (x + i, y + j)} is set to {@code cells[i][j]} for each index
+     *  in the (rectangular) array, as if by {@link #setAlive(int, int, boolean)}.
+     *
+     * @param x - the x-coordinate of the left of the area
+     * @param y - the y-coordinate of the top of the area
+     * @param cells - the new states of the cells of the area, indexed by column and then row
+     */
+    public void setAlive(int x, int y, boolean[][] cells);
+
+    /**
+     * Sets all of the given cells to the given state, as if by
+     *  {@link #setAlive(int, int, boolean)}.
+     * The cells may be in any order and may contain duplicates; the list is not modified.
+     *
+     * @param cells - the cells to alter
+     * @param alive - true if the cells should become alive, false otherwise
+     */
+    public void setAlive(ArrayList<Cell> cells, boolean alive);
+
+    /**
+     * Gets a list of all the cells that are currently alive.
+     * The list is a copy, so it may be modified freely.
+     *
+     * @return a list of the cells that are currently alive
+     */
+    public ArrayList<Cell> getAlive();
+
+    /**
+     * Gets a list of the cells that are currently alive within the given area.
+     * The list is a copy, so it may be modified freely.
+     *
+     * @param area - the area of the Map in which to find living cells
+     * @return a list of the cells that are currently alive in the given area
+     */
+    public ArrayList<Cell> getAlive(Bounds area);
+
+    /**
+     * Visits all the cells that are currently alive, without copying them.
+     * The order in which the cells are visited is unspecified.
+     *
+     * @param visitor - the visitor to call with the coordinates of each living cell
+     */
+    public void visitAlive(CellVisitor visitor);
+
+    /**
+     * Visits the cells that are currently alive within the given area, without copying them.
+     * The order in which the cells are visited is unspecified.
+     *
+     * @param area - the area in which to visit living cells
+     * @param visitor - the visitor to call with the coordinates of each living cell
+     */
+    public void visitAlive(Bounds area, CellVisitor visitor);
+
+    /**
+     * Gets the number of cells which are currently alive.
+     *
+     * @return the number of living cells in the current generation
+     */
+    public long getNumberAlive();
+
+    /**
+     * Creates an immutable {@link Snapshot} of the current generation.
+     * The Snapshot must not be affected by any later call to this Engine, but should share as
+     *  much of its storage as possible (for example by copying it lazily when it is next
+     *  modified), since a snapshot is taken after every generation when a {@link Map} is
+     *  double-buffered.
+     *
+     * @return a Snapshot of the living cells of the current generation
+     */
+    public Snapshot snapshot();
+
+    /**
+     * Gets the rule with which new generations are simulated.
+     *
+     * @return the current rule, {@link Rule#LIFE} unless it has been changed
+     */
+    public Rule getRule();
+
+    /**
+     * Sets the rule with which new generations are simulated.
+     * The living cells are kept; only the generations simulated after this call follow the new
+     *  rule.
+     *
+     * @param rule - the new rule
+     */
+    public void setRule(Rule rule);
+
+    /**
+     * Simulates the next generation (or generations) and replaces the contents of this Engine
+     *  with the results of the simulation.
+     *
+     * @return the number of generations which were simulated, at least 1
+     */
+    public long step();
+
+    /**
+     * Gets the number of cells which were born during the last {@link #step()}, counted as a
+     *  by-product of the step.
+     * If the step simulated more than one generation, this is the number of cells which are alive
+     *  after it but were not before; edits since the step are not counted.
+     *
+     * @return the number of births in the last step, 0 if there has been no step since the
+     *  Engine was cleared, or {@link GenerationStatistics#UNKNOWN} if this Engine does not count
+     *  them
+     */
+    public long getBirths();
+
+    /**
+     * Gets the number of cells which died during the last {@link #step()}, counted as a
+     *  by-product of the step.
+     * If the step simulated more than one generation, this is the number of cells which were
+     *  alive before it but are not after; edits since the step are not counted.
+     *
+     * @return the number of deaths in the last step, 0 if there has been no step since the
+     *  Engine was cleared, or {@link GenerationStatistics#UNKNOWN} if this Engine does not count
+     *  them
+     */
+    public long getDeaths();
+
+    /**
+     * Gets the smallest rectangle containing all the cells which were alive at the end of the
+     *  last {@link #step()}.
+     * Edits since the step are not taken into account.
+     *
+     * @return the bounding box of the last generation simulated, or null if it had no living cells
+     *  (or there has been no step since the Engine was cleared)
+     */
+    public Bounds getBounds();
+
+    /**
+     * Removes all the living cells whose coordinates are within the given area.
+     *
+     * @param area - the area to clear
+     */
+    public void clear(Bounds area);
+
+    /**
+     * Removes all the living cells.
+     */
+    public void clear();
+
+    /**
+     * Releases the resources held by this Engine besides its cells, such as threads.
+     * This is called by a {@link Map} when the Engine is replaced or the Map is closed; the Engine
+     *  must not be used afterwards.
+     */
+    public void close();
+}
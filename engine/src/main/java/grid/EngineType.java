@@ -0,0 +1,70 @@
+package grid;
+
+/**
+ * The kinds of {@link Engine} which may store and simulate a {@link Map}, each with its default
+ *  settings.
+ * These are the engines compared by the benchmarks and offered by the user interface.
+ */
+public enum EngineType
+{
+    /**
+     * A {@link ListEngine} simulated with {@link Simulation.Algorithm#SORTED_LIST}.
+     */
+    LIST,
+    /**
+     * A {@link ListEngine} simulated with {@link Simulation.Algorithm#HASHED}.
+     */
+    HASHED,
+    /**
+     * A {@link TiledEngine} with a {@link SwarKernel}, stepped in parallel on every processor.
+     */
+    TILED,
+    /**
+     * A {@link TiledEngine} with a {@link TableKernel}, stepped in parallel on every processor.
+     */
+    TILED_TABLE,
+    /**
+     * A {@link TiledEngine} with a {@link SwarKernel} which stores its Tiles off the heap, in a
+     *  {@link TileArena}.
+     */
+    TILED_OFF_HEAP,
+    /**
+     * A {@link HashLifeEngine} which advances one generation per step.
+     */
+    HASHLIFE;
+
+    /**
+     * Creates a new, empty Engine of this type.
+     *
+     * @return a new Engine
+     */
+    public Engine create()
+    {
+        switch (this)
+        {
+        case LIST:
+            return new ListEngine(Simulation.Algorithm.SORTED_LIST);
+        case HASHED:
+            return new ListEngine(Simulation.Algorithm.HASHED);
+        case TILED:
+            return new TiledEngine();
+        case TILED_TABLE:
+            return new TiledEngine(new TableKernel());
+        case TILED_OFF_HEAP:
+            return new TiledEngine(new SwarKernel(), new TileArena());
+        default:
+            return new HashLifeEngine();
+        }
+    }
+
+    /**
+     * Gets the type which follows this one, wrapping around from the last type to the first, so
+     *  that the types may be cycled through.
+     *
+     * @return the next EngineType
+     */
+    public EngineType next()
+    {
+        return values()[(ordinal() + 1) % values().length];
+    }
+}
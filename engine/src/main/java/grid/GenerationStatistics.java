@@ -0,0 +1,99 @@
+package grid;
+
+/**
+ * The statistics of a single step of a {@link Map}: the number of cells which were born and
+ *  which died during the step, and the population and bounding box of the generation it
+ *  produced.
+ * These are reported by the {@link Engine} as a by-product of {@link Engine#step()}, so keeping
+ *  them does not require another pass over the living cells; the Map keeps a history of them
+ *  (see {@link Map#getHistory()}).
+ * GenerationStatistics are immutable.
+ */
+public class GenerationStatistics
+{
+    /**
+     * The value of {@link #getBirths()} and {@link #getDeaths()} when the Engine does not count
+     *  them.
+     */
+    public static final long UNKNOWN = -1;
+
+    private final long generation;
+    private final long births;
+    private final long deaths;
+    private final long population;
+    private final Bounds bounds;
+
+    /**
+     * Creates new GenerationStatistics with the given values.
+     *
+     * @param generation - the generation produced by the step
+     * @param births - the number of cells born during the step, or {@link #UNKNOWN}
+     * @param deaths - the number of cells which died during the step, or {@link #UNKNOWN}
+     * @param population - the number of living cells after the step
+     * @param bounds - the smallest rectangle containing the living cells after the step, or null
+     *  if there are none
+     */
+    public GenerationStatistics(long generation, long births, long deaths, long population,
+            Bounds bounds)
+    {
+        this.generation = generation;
+        this.births = births;
+        this.deaths = deaths;
+        this.population = population;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Gets the generation produced by the step.
+     *
+     * @return the generation counter of the Map after the step
+     */
+    public long getGeneration()
+    {
+        return generation;
+    }
+
+    /**
+     * Gets the number of cells which were born during the step.
+     * If the step simulated more than one generation, this is the number of cells which are alive
+     *  after it but were not before.
+     *
+     * @return the number of births, or {@link #UNKNOWN} if the Engine does not count them
+     */
+    public long getBirths()
+    {
+        return births;
+    }
+
+    /**
+     * Gets the number of cells which died during the step.
+     * If the step simulated more than one generation, this is the number of cells which were
+     *  alive before it but are not after.
+     *
+     * @return the number of deaths, or {@link #UNKNOWN} if the Engine does not count them
+     */
+    public long getDeaths()
+    {
+        return deaths;
+    }
+
+    /**
+     * Gets the number of living cells after the step.
+     *
+     * @return the population of the generation
+     */
+    public long getPopulation()
+    {
+        return population;
+    }
+
+    /**
+     * Gets the smallest rectangle containing all the living cells after the step.
+     *
+     * @return the bounding box of the generation, or null if no cells are alive
+     */
+    public Bounds getBounds()
+    {
+        return bounds;
+    }
+}
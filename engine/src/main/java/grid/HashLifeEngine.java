@@ -0,0 +1,1151 @@
+package grid;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * An {@link Engine} implementing Bill Gosper's HashLife algorithm.
+ * The universe is stored as a quadtree of {@link Node}s, where each Node is a square of
+ *  {@code 2^level} cells made up of four Nodes of the next lower level.
+ * Nodes are immutable and canonicalized ("hash-consed"): there is at most one Node for any given
+ *  set of four children, so identical regions of the universe (in particular, empty space) are
+ *  shared, and the result of simulating a Node is memoized in the Node itself.
+ * This allows the simulation to advance by {@code 2^k} generations at a time in a step which
+ *  is usually far faster than simulating each generation; the step size is set with
+ *  {@link #setStepExponent(int)}.
+ * The universe is centered on the origin: the root Node of level {@code k} covers the cells with
+ *  coordinates in {@code [-2^(k-1), 2^(k-1))}.
+ * Since the root Node is immutable, a {@link Snapshot} is simply a reference to it.
+ * Snapshots are also {@link TileView}s: each Node of level {@link Tile#SHIFT} is a Tile-sized
+ *  block whose rows and version are computed the first time it is visited and kept in the Node,
+ *  so a renderer may cache images of the blocks just as it does for a {@link TiledEngine}.
+ */
+public class HashLifeEngine implements Engine
+{
+    private Node root;
+    /**
+     * The canonical empty Node of each level, created lazily.
+     */
+    private Node[] empty;
+    /**
+     * The hash table of canonical Nodes, with chaining through {@link Node#next}.
+     */
+    private Node[] table;
+
+    private int nodeCount;
+    private int maxNodes;
+    private int stepExponent;
+    private Rule rule;
+    /**
+     * The bounding box of the root after the last step.
+     */
+    private Bounds bounds;
+
+    /**
+     * The canonical dead leaf Node.
+     */
+    private static final Node OFF = new Node(0, 0);
+    /**
+     * The canonical living leaf Node.
+     */
+    private static final Node ON = new Node(1, 1);
+
+    /**
+     * The smallest level of the root Node.
+     */
+    private static final int MIN_ROOT_LEVEL = 3;
+    /**
+     * The default maximum number of Nodes kept in the cache before unreachable Nodes are evicted.
+     */
+    private static final int DEFAULT_MAX_NODES = 1 << 22;
+    private static final int INITIAL_TABLE_SIZE = 1 << 16;
+
+    /**
+     * Creates a new, empty HashLifeEngine which advances one generation per step and keeps at
+     *  most {@link #DEFAULT_MAX_NODES} Nodes between steps.
+     */
+    public HashLifeEngine()
+    {
+        this(DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Creates a new, empty HashLifeEngine which advances one generation per step.
+     *
+     * @param maxNodes - the number of cached Nodes above which unreachable Nodes and memoized
+     *  results are evicted before a step
+     */
+    public HashLifeEngine(int maxNodes)
+    {
+        this.maxNodes = maxNodes;
+        stepExponent = 0;
+        rule = Rule.LIFE;
+        clear();
+    }
+
+    /**
+     * Gets the base-2 logarithm of the number of generations simulated by each {@link #step()}.
+     *
+     * @return the current step exponent
+     */
+    public int getStepExponent()
+    {
+        return stepExponent;
+    }
+
+    /**
+     * Sets the base-2 logarithm of the number of generations simulated by each {@link #step()}.
+     * That is, each step advances the universe by {@code 2^stepExponent} generations.
+     * Memoized results remain valid for the new step size, so this may be changed freely.
+     *
+     * @param stepExponent - the new step exponent, between 0 and 62
+     */
+    public void setStepExponent(int stepExponent)
+    {
+        this.stepExponent = Math.max(0, Math.min(62, stepExponent));
+    }
+
+    /**
+     * Gets the number of canonical Nodes currently cached.
+     *
+     * @return the size of the Node cache
+     */
+    public int getNodeCount()
+    {
+        return nodeCount;
+    }
+
+    public Rule getRule()
+    {
+        return rule;
+    }
+
+    /**
+     * Sets the rule with which new generations are simulated.
+     * Since the memoized results were computed with the old rule, they are all evicted.
+     *
+     * @param rule - the new rule
+     */
+    public void setRule(Rule rule)
+    {
+        if (!rule.equals(this.rule))
+        {
+            this.rule = rule;
+            evict();
+        }
+    }
+
+    public boolean isAlive(int x, int y)
+    {
+        return isAlive(root, x, y);
+    }
+
+    public void setAlive(int x, int y, boolean alive)
+    {
+        if (isAlive(x, y) == alive)
+        {
+            return;
+        }
+
+        while (x < -(1L << (root.level - 1)) || x >= 1L << (root.level - 1) ||
+                y < -(1L << (root.level - 1)) || y >= 1L << (root.level - 1))
+        {
+            root = expand(root);
+        }
+
+        long half = 1L << (root.level - 1);
+        root = set(root, x + half, y + half, alive);
+    }
+
+    public void setAlive(int x, int y, boolean[][] cells)
+    {
+        for (int i = 0; i < cells.length; i++)
+        {
+            for (int j = 0; j < cells[i].length; j++)
+            {
+                setAlive(x + i, y + j, cells[i][j]);
+            }
+        }
+    }
+
+    public void setAlive(ArrayList<Cell> cells, boolean alive)
+    {
+        for (int i = 0; i < cells.size(); i++)
+        {
+            setAlive(cells.get(i).x, cells.get(i).y, alive);
+        }
+    }
+
+    public ArrayList<Cell> getAlive()
+    {
+        return getAlive(root, null);
+    }
+
+    public ArrayList<Cell> getAlive(Bounds area)
+    {
+        return getAlive(root, area);
+    }
+
+    public void visitAlive(CellVisitor visitor)
+    {
+        visit(root, null, visitor);
+    }
+
+    public void visitAlive(Bounds area, CellVisitor visitor)
+    {
+        visit(root, area, visitor);
+    }
+
+    public long getNumberAlive()
+    {
+        return root.population;
+    }
+
+    public Snapshot snapshot()
+    {
+        return new HashLifeSnapshot(root);
+    }
+
+    /**
+     * Simulates the next {@code 2^stepExponent} generations.
+     * The root is first expanded with empty space until the pattern is far enough from its edges
+     *  that nothing can escape the root's center in that many generations; the root is then
+     *  replaced by its memoized (or newly computed) result, and shrunk again while its border is
+     *  empty.
+     * If the Node cache has grown beyond its maximum size, it is first reduced to the Nodes
+     *  reachable from the root.
+     * The bounding box of the result is then found by descending only into the Nodes which
+     *  extend past the bounds found so far.
+     *
+     * @return {@code 2^stepExponent}, the number of generations simulated
+     */
+    public long step()
+    {
+        if (root.population != 0)
+        {
+            if (nodeCount > maxNodes)
+            {
+                evict();
+            }
+
+            while (root.level < stepExponent + 3 || !isPadded(root))
+            {
+                root = expand(root);
+            }
+            root = successor(expand(root), stepExponent);
+
+            while (root.level > MIN_ROOT_LEVEL && isPadded(root))
+            {
+                root = join(root.nw.se, root.ne.sw, root.sw.ne, root.se.nw);
+            }
+        }
+        bounds = bounds(root);
+
+        return 1L << stepExponent;
+    }
+
+    /**
+     * Births are not counted, since a step may skip over many generations without simulating
+     *  them individually.
+     *
+     * @return {@link GenerationStatistics#UNKNOWN}
+     */
+    public long getBirths()
+    {
+        return GenerationStatistics.UNKNOWN;
+    }
+
+    /**
+     * Deaths are not counted, since a step may skip over many generations without simulating
+     *  them individually.
+     *
+     * @return {@link GenerationStatistics#UNKNOWN}
+     */
+    public long getDeaths()
+    {
+        return GenerationStatistics.UNKNOWN;
+    }
+
+    public Bounds getBounds()
+    {
+        return bounds;
+    }
+
+    public void clear(Bounds area)
+    {
+        ArrayList<Cell> alive = getAlive(area);
+        for (int i = 0; i < alive.size(); i++)
+        {
+            setAlive(alive.get(i).x, alive.get(i).y, false);
+        }
+    }
+
+    /**
+     * Removes all the living cells and empties the Node cache.
+     */
+    public void clear()
+    {
+        table = new Node[INITIAL_TABLE_SIZE];
+        empty = new Node[64];
+        nodeCount = 0;
+        root = empty(MIN_ROOT_LEVEL);
+        bounds = null;
+    }
+
+    /**
+     * A HashLifeEngine holds nothing besides its Nodes, so there is nothing to release.
+     */
+    public void close()
+    {
+    }
+
+    /**
+     * Returns a String representation of this HashLifeEngine, including its step size.
+     *
+     * @return a user-friendly description of this HashLifeEngine
+     * @see Object#toString()
+     */
+    public String toString()
+    {
+        return "HashLife (2^" + stepExponent + " generations/step)";
+    }
+
+    /**
+     * Gets the canonical Node with the given children, creating it if it does not exist.
+     *
+     * @param nw - the north-west (top-left) child
+     * @param ne - the north-east (top-right) child
+     * @param sw - the south-west (bottom-left) child
+     * @param se - the south-east (bottom-right) child
+     * @return the canonical Node with the given children
+     */
+    private Node join(Node nw, Node ne, Node sw, Node se)
+    {
+        int hash = Node.hash(nw, ne, sw, se);
+        int index = hash & (table.length - 1);
+        for (Node node = table[index]; node != null; node = node.next)
+        {
+            if (node.nw == nw && node.ne == ne && node.sw == sw && node.se == se)
+            {
+                return node;
+            }
+        }
+
+        Node node = nw.level + 1 == Tile.SHIFT ? new TileNode(nw, ne, sw, se, hash) :
+                new Node(nw, ne, sw, se, hash);
+        node.next = table[index];
+        table[index] = node;
+        if (++nodeCount > table.length)
+        {
+            rehash(table.length*2);
+        }
+
+        return node;
+    }
+
+    /**
+     * Gets the canonical empty Node of the given level.
+     *
+     * @param level - the level of the Node
+     * @return a Node of the given level with no living cells
+     */
+    private Node empty(int level)
+    {
+        if (level == 0)
+        {
+            return OFF;
+        }
+        if (empty[level] == null)
+        {
+            Node child = empty(level - 1);
+            empty[level] = join(child, child, child, child);
+        }
+        return empty[level];
+    }
+
+    /**
+     * Creates a Node one level higher than the given Node which has the given Node at its center
+     *  and is otherwise empty.
+     *
+     * @param node - the Node to expand
+     * @return a Node with the same contents, centered at the same location, with twice the size
+     */
+    private Node expand(Node node)
+    {
+        Node border = empty(node.level - 1);
+        return join(join(border, border, border, node.nw),
+                join(border, border, node.ne, border),
+                join(border, node.sw, border, border),
+                join(node.se, border, border, border));
+    }
+
+    /**
+     * Determines whether all of the living cells of the given Node are in its center half.
+     *
+     * @param node - the Node to check, of level at least 2
+     * @return true if the border of the given Node (of width {@code 2^(level-2)}) is empty
+     */
+    private static boolean isPadded(Node node)
+    {
+        return node.nw.se.population + node.ne.sw.population + node.sw.ne.population +
+                node.se.nw.population == node.population;
+    }
+
+    /**
+     * Creates a copy of the given Node with the cell at the given coordinates (relative to the
+     *  top-left of the Node) set to the given state.
+     *
+     * @param node - the Node to copy
+     * @param x - the x-coordinate of the cell within the Node
+     * @param y - the y-coordinate of the cell within the Node
+     * @param alive - the new state of the cell
+     * @return the canonical Node with the altered contents
+     */
+    private Node set(Node node, long x, long y, boolean alive)
+    {
+        if (node.level == 0)
+        {
+            return alive ? ON : OFF;
+        }
+
+        long size = 1L << (node.level - 1);
+        if (x < size)
+        {
+            if (y < size)
+            {
+                return join(set(node.nw, x, y, alive), node.ne, node.sw, node.se);
+            }
+            return join(node.nw, node.ne, set(node.sw, x, y - size, alive), node.se);
+        }
+        if (y < size)
+        {
+            return join(node.nw, set(node.ne, x - size, y, alive), node.sw, node.se);
+        }
+        return join(node.nw, node.ne, node.sw, set(node.se, x - size, y - size, alive));
+    }
+
+    /**
+     * Determines whether the cell at the given coordinates is alive in the given root Node.
+     *
+     * @param root - the root Node, centered on the origin
+     * @param x - the x-coordinate of the cell to check
+     * @param y - the y-coordinate of the cell to check
+     * @return true if the cell at (x,y) is alive, false otherwise
+     */
+    private static boolean isAlive(Node root, int x, int y)
+    {
+        long half = 1L << (root.level - 1);
+        if (x < -half || x >= half || y < -half || y >= half)
+        {
+            return false;
+        }
+
+        Node node = root;
+        long nx = x + half;
+        long ny = y + half;
+        while (node.level > 0 && node.population != 0)
+        {
+            long size = 1L << (node.level - 1);
+            boolean east = nx >= size;
+            boolean south = ny >= size;
+            if (east)
+            {
+                nx -= size;
+            }
+            if (south)
+            {
+                ny -= size;
+            }
+
+            if (south)
+            {
+                node = east ? node.se : node.sw;
+            }
+            else
+            {
+                node = east ? node.ne : node.nw;
+            }
+        }
+
+        return node == ON;
+    }
+
+    /**
+     * Gets a list of the living cells of the given root Node within the given area.
+     *
+     * @param root - the root Node, centered on the origin
+     * @param area - the area in which to find living cells, or null to find all living cells
+     * @return a new list of the living cells within the area
+     */
+    private static ArrayList<Cell> getAlive(Node root, Bounds area)
+    {
+        ArrayList<Cell> alive = new ArrayList<Cell>();
+        long half = 1L << (root.level - 1);
+        collect(root, -half, -half, area, alive);
+        return alive;
+    }
+
+    /**
+     * Adds the living cells of the given Node which are within the given area to the given list.
+     *
+     * @param node - the Node whose cells are collected
+     * @param x - the x-coordinate of the top-left of the Node
+     * @param y - the y-coordinate of the top-left of the Node
+     * @param area - the area in which to collect cells, or null to collect all cells
+     * @param alive - the list to which to add the living cells
+     */
+    private static void collect(Node node, long x, long y, Bounds area, ArrayList<Cell> alive)
+    {
+        if (node.population == 0)
+        {
+            return;
+        }
+
+        long size = 1L << node.level;
+        if (area != null && (x >= area.x + area.width || y >= area.y + area.height ||
+                x + size <= area.x || y + size <= area.y))
+        {
+            return;
+        }
+
+        if (node.level == 0)
+        {
+            alive.add(new Cell((int) x, (int) y));
+        }
+        else
+        {
+            long half = size/2;
+            collect(node.nw, x, y, area, alive);
+            collect(node.ne, x + half, y, area, alive);
+            collect(node.sw, x, y + half, area, alive);
+            collect(node.se, x + half, y + half, area, alive);
+        }
+    }
+
+    /**
+     * Finds the smallest rectangle containing the living cells of the given root Node.
+     *
+     * @param root - the root Node, centered on the origin
+     * @return a new bounding box of the living cells, or null if there are none
+     */
+    private static Bounds bounds(Node root)
+    {
+        if (root.population == 0)
+        {
+            return null;
+        }
+
+        long half = 1L << (root.level - 1);
+        long[] bounds = { Long.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE };
+        bound(root, -half, -half, bounds);
+        return new Bounds((int) bounds[0], (int) bounds[1], (int) (bounds[2] - bounds[0] + 1),
+                (int) (bounds[3] - bounds[1] + 1));
+    }
+
+    /**
+     * Extends the given bounds to contain the living cells of the given Node.
+     * Nodes which lie entirely within the bounds are skipped, so only the Nodes along the border
+     *  of the pattern are descended into.
+     *
+     * @param node - the Node whose cells are bounded
+     * @param x - the x-coordinate of the top-left of the Node
+     * @param y - the y-coordinate of the top-left of the Node
+     * @param bounds - the left, top, right and bottom (inclusive) of the bounds found so far
+     */
+    private static void bound(Node node, long x, long y, long[] bounds)
+    {
+        long size = 1L << node.level;
+        if (node.population == 0 || (x >= bounds[0] && y >= bounds[1] &&
+                x + size - 1 <= bounds[2] && y + size - 1 <= bounds[3]))
+        {
+            return;
+        }
+
+        if (node.level == 0)
+        {
+            bounds[0] = Math.min(bounds[0], x);
+            bounds[1] = Math.min(bounds[1], y);
+            bounds[2] = Math.max(bounds[2], x);
+            bounds[3] = Math.max(bounds[3], y);
+        }
+        else
+        {
+            long half = size/2;
+            bound(node.nw, x, y, bounds);
+            bound(node.se, x + half, y + half, bounds);
+            bound(node.ne, x + half, y, bounds);
+            bound(node.sw, x, y + half, bounds);
+        }
+    }
+
+    /**
+     * Visits the living cells of the given root Node within the given area.
+     *
+     * @param root - the root Node, centered on the origin
+     * @param area - the area in which to visit living cells, or null to visit all living cells
+     * @param visitor - the visitor to call with the coordinates of each living cell
+     */
+    private static void visit(Node root, Bounds area, CellVisitor visitor)
+    {
+        long half = 1L << (root.level - 1);
+        visit(root, -half, -half, area, visitor);
+    }
+
+    /**
+     * Visits the living cells of the given Node which are within the given area.
+     *
+     * @param node - the Node whose cells are visited
+     * @param x - the x-coordinate of the top-left of the Node
+     * @param y - the y-coordinate of the top-left of the Node
+     * @param area - the area in which to visit cells, or null to visit all cells
+     * @param visitor - the visitor to call with the coordinates of each living cell
+     */
+    private static void visit(Node node, long x, long y, Bounds area, CellVisitor visitor)
+    {
+        if (node.population == 0)
+        {
+            return;
+        }
+
+        long size = 1L << node.level;
+        if (area != null && (x >= area.x + area.width || y >= area.y + area.height ||
+                x + size <= area.x || y + size <= area.y))
+        {
+            return;
+        }
+
+        if (node.level == 0)
+        {
+            visitor.visit((int) x, (int) y);
+        }
+        else
+        {
+            long half = size/2;
+            visit(node.nw, x, y, area, visitor);
+            visit(node.ne, x + half, y, area, visitor);
+            visit(node.sw, x, y + half, area, visitor);
+            visit(node.se, x + half, y + half, area, visitor);
+        }
+    }
+
+    /**
+     * Adds the population of each non-empty Node of level {@link Tile#SHIFT} within the given
+     *  Node to the given table, keyed by its packed coordinates in Tiles.
+     *
+     * @param node - the Node whose populations are counted, of level at least {@link Tile#SHIFT}
+     * @param x - the x-coordinate of the top-left of the Node
+     * @param y - the y-coordinate of the top-left of the Node
+     * @param populations - the table to which to add the populations
+     */
+    private static void countTiles(Node node, long x, long y, NeighborTable populations)
+    {
+        if (node.population == 0)
+        {
+            return;
+        }
+
+        if (node.level == Tile.SHIFT)
+        {
+            populations.add(PackedCell.pack((int) (x >> Tile.SHIFT), (int) (y >> Tile.SHIFT)),
+                    (int) node.population);
+        }
+        else
+        {
+            long half = 1L << (node.level - 1);
+            countTiles(node.nw, x, y, populations);
+            countTiles(node.ne, x + half, y, populations);
+            countTiles(node.sw, x, y + half, populations);
+            countTiles(node.se, x + half, y + half, populations);
+        }
+    }
+
+    /**
+     * Visits the non-empty Nodes of level {@link Tile#SHIFT} within the given Node which
+     *  intersect the given area, as Tiles.
+     *
+     * @param node - the Node whose blocks are visited, of level at least {@link Tile#SHIFT}
+     * @param x - the x-coordinate of the top-left of the Node
+     * @param y - the y-coordinate of the top-left of the Node
+     * @param area - the area in which to visit blocks
+     * @param visitor - the visitor to call with the coordinates, version and rows of each block
+     */
+    private static void visitTiles(Node node, long x, long y, Bounds area, TileVisitor visitor)
+    {
+        if (node.population == 0)
+        {
+            return;
+        }
+
+        long size = 1L << node.level;
+        if (x >= area.x + area.width || y >= area.y + area.height || x + size <= area.x ||
+                y + size <= area.y)
+        {
+            return;
+        }
+
+        if (node.level == Tile.SHIFT)
+        {
+            TileNode tile = (TileNode) node;
+            visitor.visit((int) (x >> Tile.SHIFT), (int) (y >> Tile.SHIFT), tile.getVersion(),
+                    tile.getRows());
+        }
+        else
+        {
+            long half = size/2;
+            visitTiles(node.nw, x, y, area, visitor);
+            visitTiles(node.ne, x + half, y, area, visitor);
+            visitTiles(node.sw, x, y + half, area, visitor);
+            visitTiles(node.se, x + half, y + half, area, visitor);
+        }
+    }
+
+    /**
+     * Sets the bits of the living cells of the given Node in the given rows.
+     *
+     * @param node - the Node whose cells to set, within a Node of level {@link Tile#SHIFT}
+     * @param x - the column of the top-left of the Node within the rows
+     * @param y - the row of the top-left of the Node within the rows
+     * @param rows - the rows of the enclosing Node of level {@link Tile#SHIFT}
+     */
+    private static void fill(Node node, int x, int y, long[] rows)
+    {
+        if (node.population == 0)
+        {
+            return;
+        }
+
+        if (node.level == 0)
+        {
+            rows[y] |= 1L << x;
+        }
+        else
+        {
+            int half = 1 << (node.level - 1);
+            fill(node.nw, x, y, rows);
+            fill(node.ne, x + half, y, rows);
+            fill(node.sw, x, y + half, rows);
+            fill(node.se, x + half, y + half, rows);
+        }
+    }
+
+    /**
+     * Computes the center of the given Node after {@code 2^exponent} generations.
+     * The exponent is limited to {@code level - 2}, which is the furthest the center half of a
+     *  Node can be simulated using only the cells within the Node.
+     * Results are memoized in the Node for the exponent with which they were computed.
+     *
+     * @param node - the Node to simulate, of level at least 2
+     * @param exponent - the base-2 logarithm of the number of generations to simulate
+     * @return the canonical Node of one level lower than the given Node, which holds its center
+     *  after the given number of generations
+     */
+    private Node successor(Node node, int exponent)
+    {
+        exponent = Math.min(exponent, node.level - 2);
+        if (node.result != null && node.resultExponent == exponent)
+        {
+            return node.result;
+        }
+
+        Node result;
+        if (node.population == 0)
+        {
+            result = empty(node.level - 1);
+        }
+        else if (node.level == 2)
+        {
+            result = simulateBase(node);
+        }
+        else
+        {
+            // the nine overlapping sub-Nodes of one level lower, advanced by 2^exponent
+            //  generations for the slow case or 2^(level-3) generations for the fast case
+            Node c00 = successor(node.nw, exponent);
+            Node c01 = successor(join(node.nw.ne, node.ne.nw, node.nw.se, node.ne.sw), exponent);
+            Node c02 = successor(node.ne, exponent);
+            Node c10 = successor(join(node.nw.sw, node.nw.se, node.sw.nw, node.sw.ne), exponent);
+            Node c11 = successor(join(node.nw.se, node.ne.sw, node.sw.ne, node.se.nw), exponent);
+            Node c12 = successor(join(node.ne.sw, node.ne.se, node.se.nw, node.se.ne), exponent);
+            Node c20 = successor(node.sw, exponent);
+            Node c21 = successor(join(node.sw.ne, node.se.nw, node.sw.se, node.se.sw), exponent);
+            Node c22 = successor(node.se, exponent);
+
+            if (exponent < node.level - 2)
+            {
+                // the sub-Nodes have already been advanced far enough; take their centers
+                result = join(join(c00.se, c01.sw, c10.ne, c11.nw),
+                        join(c01.se, c02.sw, c11.ne, c12.nw),
+                        join(c10.se, c11.sw, c20.ne, c21.nw),
+                        join(c11.se, c12.sw, c21.ne, c22.nw));
+            }
+            else
+            {
+                // advance the four overlapping combinations of sub-Nodes by another
+                //  2^(level-3) generations
+                result = join(successor(join(c00, c01, c10, c11), exponent),
+                        successor(join(c01, c02, c11, c12), exponent),
+                        successor(join(c10, c11, c20, c21), exponent),
+                        successor(join(c11, c12, c21, c22), exponent));
+            }
+        }
+
+        node.result = result;
+        node.resultExponent = exponent;
+        return result;
+    }
+
+    /**
+     * Simulates a single generation of the center of the given 4x4 Node under the current rule.
+     *
+     * @param node - a Node of level 2
+     * @return the canonical level 1 Node holding the center of the given Node after one
+     *  generation
+     */
+    private Node simulateBase(Node node)
+    {
+        // bit (4*y + x) holds the cell at (x,y) within the Node
+        int bits = 0;
+        Node[] quadrants = { node.nw, node.ne, node.sw, node.se };
+        for (int q = 0; q < 4; q++)
+        {
+            int qx = (q % 2)*2;
+            int qy = (q / 2)*2;
+            Node[] cells = { quadrants[q].nw, quadrants[q].ne, quadrants[q].sw, quadrants[q].se };
+            for (int c = 0; c < 4; c++)
+            {
+                if (cells[c] == ON)
+                {
+                    bits |= 1 << (4*(qy + c / 2) + qx + c % 2);
+                }
+            }
+        }
+
+        Node[] next = new Node[4];
+        for (int c = 0; c < 4; c++)
+        {
+            // gather the 3x3 neighborhood of the cell, with bit (3*dy + dx) for the cell at
+            //  (x + dx - 1, y + dy - 1)
+            int x = 1 + c % 2;
+            int y = 1 + c / 2;
+            int neighborhood = 0;
+            for (int dy = 0; dy < 3; dy++)
+            {
+                neighborhood |= ((bits >>> (4*(y + dy - 1) + x - 1)) & 7) << (3*dy);
+            }
+            next[c] = rule.nextCenter(neighborhood) ? ON : OFF;
+        }
+
+        return join(next[0], next[1], next[2], next[3]);
+    }
+
+    /**
+     * Evicts all cached Nodes which are not reachable from the root, along with all memoized
+     *  results.
+     */
+    private void evict()
+    {
+        table = new Node[INITIAL_TABLE_SIZE];
+        empty = new Node[64];
+        nodeCount = 0;
+        reinsert(root);
+    }
+
+    /**
+     * Inserts the given Node and all of its descendants into the Node table, clearing their
+     *  memoized results.
+     *
+     * @param node - the Node to insert
+     */
+    private void reinsert(Node node)
+    {
+        if (node.level == 0)
+        {
+            return;
+        }
+
+        int index = node.hash & (table.length - 1);
+        for (Node other = table[index]; other != null; other = other.next)
+        {
+            if (other == node)
+            {
+                return;
+            }
+        }
+
+        reinsert(node.nw);
+        reinsert(node.ne);
+        reinsert(node.sw);
+        reinsert(node.se);
+
+        node.result = null;
+        index = node.hash & (table.length - 1);
+        node.next = table[index];
+        table[index] = node;
+        if (++nodeCount > table.length)
+        {
+            rehash(table.length*2);
+        }
+    }
+
+    /**
+     * Resizes the Node table to the given number of buckets.
+     *
+     * @param size - the new number of buckets; must be a power of 2
+     */
+    private void rehash(int size)
+    {
+        Node[] old = table;
+        table = new Node[size];
+        for (int i = 0; i < old.length; i++)
+        {
+            Node node = old[i];
+            while (node != null)
+            {
+                Node next = node.next;
+                int index = node.hash & (size - 1);
+                node.next = table[index];
+                table[index] = node;
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * A Snapshot of the universe held by a root Node.
+     */
+    private static class HashLifeSnapshot implements TileView, TileCensus
+    {
+        private final Node root;
+
+        HashLifeSnapshot(Node root)
+        {
+            this.root = root;
+        }
+
+        public boolean isAlive(int x, int y)
+        {
+            return HashLifeEngine.isAlive(root, x, y);
+        }
+
+        public ArrayList<Cell> getAlive()
+        {
+            return HashLifeEngine.getAlive(root, null);
+        }
+
+        public ArrayList<Cell> getAlive(Bounds area)
+        {
+            return HashLifeEngine.getAlive(root, area);
+        }
+
+        public void visitAlive(CellVisitor visitor)
+        {
+            visit(root, null, visitor);
+        }
+
+        public void visitAlive(Bounds area, CellVisitor visitor)
+        {
+            visit(root, area, visitor);
+        }
+
+        public long getNumberAlive()
+        {
+            return root.population;
+        }
+
+        /**
+         * Visits the Nodes of level {@link Tile#SHIFT}, which are aligned to the Tiles once the
+         *  root is larger than a single Tile.
+         * A smaller root is split into Tiles for every call, with new versions.
+         */
+        public void visitTiles(Bounds area, TileVisitor visitor)
+        {
+            if (root.level > Tile.SHIFT)
+            {
+                long half = 1L << (root.level - 1);
+                HashLifeEngine.visitTiles(root, -half, -half, area, visitor);
+                return;
+            }
+
+            final HashMap<Long, long[]> tiles = new HashMap<Long, long[]>();
+            visit(root, area, new CellVisitor()
+            {
+                public void visit(int x, int y)
+                {
+                    Long key = PackedCell.pack(x >> Tile.SHIFT, y >> Tile.SHIFT);
+                    long[] rows = tiles.get(key);
+                    if (rows == null)
+                    {
+                        rows = new long[Tile.SIZE];
+                        tiles.put(key, rows);
+                    }
+                    rows[y & (Tile.SIZE - 1)] |= 1L << (x & (Tile.SIZE - 1));
+                }
+            });
+            for (long key : tiles.keySet())
+            {
+                visitor.visit(PackedCell.x(key), PackedCell.y(key), Tile.newVersion(),
+                        tiles.get(key));
+            }
+        }
+
+        /**
+         * Counts the population of each Tile-sized block from the population of the Nodes of
+         *  level {@link Tile#SHIFT}, which are aligned to the blocks once the root is larger than
+         *  a single block.
+         *
+         * @param populations - the table to which to add the population of each block
+         */
+        public void countTiles(NeighborTable populations)
+        {
+            if (root.level <= Tile.SHIFT)
+            {
+                PopulationPyramid.countCells(this, populations);
+            }
+            else
+            {
+                long half = 1L << (root.level - 1);
+                HashLifeEngine.countTiles(root, -half, -half, populations);
+            }
+        }
+    }
+
+    /**
+     * A square region of {@code 2^level} by {@code 2^level} cells.
+     * Leaves (of level 0) are single cells; all other Nodes are made of four children of one level
+     *  lower.
+     */
+    private static class Node
+    {
+        final Node nw;
+        final Node ne;
+        final Node sw;
+        final Node se;
+        final int level;
+        final int hash;
+        final long population;
+
+        /**
+         * The next Node in the same bucket of the Node table.
+         */
+        Node next;
+        /**
+         * The memoized center of this Node after {@code 2^resultExponent} generations.
+         */
+        Node result;
+        int resultExponent;
+
+        /**
+         * Creates a new leaf Node.
+         *
+         * @param population - 1 for a living cell, 0 for a dead cell
+         * @param hash - the hash code of the leaf
+         */
+        Node(long population, int hash)
+        {
+            nw = ne = sw = se = null;
+            level = 0;
+            this.population = population;
+            this.hash = hash;
+        }
+
+        /**
+         * Creates a new Node with the given children; should only be called from
+         *  {@link HashLifeEngine#join(Node, Node, Node, Node)}.
+         */
+        Node(Node nw, Node ne, Node sw, Node se, int hash)
+        {
+            this.nw = nw;
+            this.ne = ne;
+            this.sw = sw;
+            this.se = se;
+            this.hash = hash;
+            level = nw.level + 1;
+            population = nw.population + ne.population + sw.population + se.population;
+        }
+
+        /**
+         * Computes the hash code of the Node with the given children.
+         */
+        static int hash(Node nw, Node ne, Node sw, Node se)
+        {
+            int h = nw.hash + 31*(ne.hash + 31*(sw.hash + 31*(se.hash + 31*nw.level)));
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            return h;
+        }
+    }
+
+    /**
+     * A Node of level {@link Tile#SHIFT}, which also holds its cells as the rows of a Tile once
+     *  it has been visited as one.
+     * The rows are computed at most once per Node (or a few times, if several threads visit it at
+     *  once), since the Node never changes.
+     */
+    private static class TileNode extends Node
+    {
+        /**
+         * The rows and version of this Node, or null if it has not been visited as a Tile.
+         */
+        private TileContents contents;
+
+        TileNode(Node nw, Node ne, Node sw, Node se, int hash)
+        {
+            super(nw, ne, sw, se, hash);
+        }
+
+        /**
+         * Gets the version of this Node's contents as a Tile.
+         *
+         * @return the version, which no other Node has
+         */
+        long getVersion()
+        {
+            return contents().version;
+        }
+
+        /**
+         * Gets the cells of this Node as the rows of a Tile.
+         *
+         * @return the rows, which must not be modified
+         */
+        long[] getRows()
+        {
+            return contents().rows;
+        }
+
+        /**
+         * Gets the rows and version of this Node, computing them the first time.
+         *
+         * @return the contents of this Node as a Tile
+         */
+        private TileContents contents()
+        {
+            TileContents contents = this.contents;
+            if (contents == null)
+            {
+                long[] rows = new long[Tile.SIZE];
+                fill(this, 0, 0, rows);
+                contents = new TileContents(Tile.newVersion(), rows);
+                this.contents = contents;
+            }
+            return contents;
+        }
+    }
+
+    /**
+     * The rows and version of a {@link TileNode}; its fields are final, so it may be shared
+     *  between threads without synchronization.
+     */
+    private static class TileContents
+    {
+        final long version;
+        final long[] rows;
+
+        TileContents(long version, long[] rows)
+        {
+            this.version = version;
+            this.rows = rows;
+        }
+    }
+}
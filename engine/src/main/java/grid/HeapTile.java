@@ -0,0 +1,139 @@
+package grid;
+
+/**
+ * A {@link Tile} whose rows and bookkeeping are stored in arrays on the heap.
+ * A phase without living cells holds {@link Tile#EMPTY_ROWS} rather than an array of its own,
+ *  and the rows of a phase may be shared with a {@link Snapshot} until they are next modified.
+ */
+class HeapTile extends Tile
+{
+    /**
+     * The rows of this Tile in the last two generations, indexed by the parity of the generation;
+     *  see {@link Tile}.
+     * Rows which are empty may be {@link #EMPTY_ROWS}, which must be replaced before they are
+     *  modified.
+     */
+    private final long[][] phases;
+    /**
+     * The number of living cells in each phase.
+     */
+    private final int[] populations;
+    /**
+     * The number of living cells in each phase whose cell is dead in the other phase.
+     */
+    private final int[] differences;
+    /**
+     * Whether each of the {@link #phases} is shared with a {@link Snapshot}, in which case it must
+     *  be copied before it is modified.
+     */
+    private final boolean[] shared;
+    /**
+     * The version of the contents of each phase.
+     */
+    private final long[] versions;
+
+    /**
+     * Creates a new HeapTile at the given coordinates which is empty in both phases.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     */
+    HeapTile(int x, int y)
+    {
+        super(x, y);
+        phases = new long[][] { EMPTY_ROWS, EMPTY_ROWS };
+        populations = new int[2];
+        differences = new int[2];
+        shared = new boolean[2];
+        versions = new long[2];
+        touch(0);
+        touch(1);
+    }
+
+    /**
+     * Creates a new HeapTile at the given coordinates whose phase 0 holds the given rows, and
+     *  which is empty in phase 1.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     * @param rows - the rows of phase 0, which are shared and must not be modified
+     * @param population - the number of living cells in the rows
+     * @param version - the version of the rows
+     */
+    private HeapTile(int x, int y, long[] rows, int population, long version)
+    {
+        super(x, y);
+        phases = new long[][] { rows, EMPTY_ROWS };
+        populations = new int[] { population, 0 };
+        differences = new int[2];
+        shared = new boolean[] { true, false };
+        versions = new long[] { version, 0 };
+    }
+
+    public int getPopulation(int phase)
+    {
+        return populations[phase];
+    }
+
+    void addPopulation(int phase, int delta)
+    {
+        populations[phase] += delta;
+    }
+
+    int getDifferences(int phase)
+    {
+        return differences[phase];
+    }
+
+    void addDifferences(int phase, int delta)
+    {
+        differences[phase] += delta;
+    }
+
+    public long getVersion(int phase)
+    {
+        return versions[phase];
+    }
+
+    void setVersion(int phase, long version)
+    {
+        versions[phase] = version;
+    }
+
+    long row(int phase, int r)
+    {
+        return phases[phase][r];
+    }
+
+    long[] rows(int phase, long[] scratch)
+    {
+        return phases[phase];
+    }
+
+    void setRow(int phase, int r, long row)
+    {
+        if (phases[phase] == EMPTY_ROWS)
+        {
+            phases[phase] = new long[SIZE];
+        }
+        else if (shared[phase])
+        {
+            phases[phase] = phases[phase].clone();
+        }
+        shared[phase] = false;
+        phases[phase][r] = row;
+    }
+
+    void set(int phase, long[] rows, int population)
+    {
+        phases[phase] = rows;
+        populations[phase] = population;
+        shared[phase] = false;
+    }
+
+    Tile freeze(int phase)
+    {
+        shared[phase] = true;
+        return new HeapTile(x, y, phases[phase], populations[phase], versions[phase]);
+    }
+}
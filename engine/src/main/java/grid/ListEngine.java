@@ -0,0 +1,479 @@
+package grid;
+
+import java.util.ArrayList;
+
+/**
+ * An {@link Engine} which keeps a sorted list of the cells which are currently alive, which
+ *  allows it to easily add cells without expanding the size of the container, as with a
+ *  two-dimensional array.
+ * Due to the nature of the simulation, the Map is prone to sustained changes in the bounding box
+ *  (gliders, etc.) and so such a list tends to be more efficient.
+ * The cells are stored as {@link PackedCell} keys in a {@link LongList}, which are ordered in the
+ *  same way as {@link Cell}s; Cells are only created when they are requested with
+ *  {@link #getAlive()}.
+ * New generations are simulated by {@link Simulation}, using the chosen
+ *  {@link Simulation.Algorithm}, which also counts the births, deaths and bounding box of each
+ *  generation as it produces the cells.
+ * A {@link Snapshot} shares the list with the engine, which copies it before the next edit.
+ * Since the list is sorted by x and then y, the cells within a rectangle are found with a binary
+ *  search per column of the rectangle rather than by checking every cell.
+ */
+public class ListEngine implements Engine
+{
+    private LongList living;
+    /**
+     * Whether {@link #living} is shared with a {@link Snapshot}, in which case it must be copied
+     *  before it is modified.
+     */
+    private boolean shared;
+
+    private Simulation.Algorithm algorithm;
+    private Rule rule;
+
+    /**
+     * The statistics of the last step, counted by {@link Simulation} while it was simulated.
+     */
+    private long births;
+    private long deaths;
+    private Bounds bounds;
+
+    /**
+     * Creates a new, empty ListEngine which is simulated with
+     *  {@link Simulation.Algorithm#SORTED_LIST}.
+     */
+    public ListEngine()
+    {
+        this(Simulation.Algorithm.SORTED_LIST);
+    }
+
+    /**
+     * Creates a new, empty ListEngine which is simulated with the given algorithm.
+     *
+     * @param algorithm - the algorithm used to simulate new generations
+     */
+    public ListEngine(Simulation.Algorithm algorithm)
+    {
+        this.algorithm = algorithm;
+        rule = Rule.LIFE;
+        clear();
+    }
+
+    /**
+     * Gets the algorithm used to simulate new generations.
+     *
+     * @return the current simulation algorithm
+     */
+    public Simulation.Algorithm getAlgorithm()
+    {
+        return algorithm;
+    }
+
+    /**
+     * Sets the algorithm used to simulate new generations.
+     * The algorithm only affects the speed of {@link #step()}; every algorithm produces the same
+     *  generations.
+     *
+     * @param algorithm - the new simulation algorithm
+     */
+    public void setAlgorithm(Simulation.Algorithm algorithm)
+    {
+        this.algorithm = algorithm;
+    }
+
+    public Rule getRule()
+    {
+        return rule;
+    }
+
+    public void setRule(Rule rule)
+    {
+        this.rule = rule;
+    }
+
+    public boolean isAlive(int x, int y)
+    {
+        return living.contains(PackedCell.pack(x, y));
+    }
+
+    public void setAlive(int x, int y, boolean alive)
+    {
+        long key = PackedCell.pack(x, y);
+        int index = living.search(key, 0, living.size());
+        boolean found = index < living.size() && living.get(index) == key;
+        if (alive && !found)
+        {
+            modify().insert(index, key);
+        }
+        else if (!alive && found)
+        {
+            modify().remove(index);
+        }
+    }
+
+    /**
+     * Sets the cells of a rectangular area to the given states.
+     * The area is cleared and the living cells of the area, which are already in order, are then
+     *  merged into the list in a single pass.
+     *
+     * @param x - the x-coordinate of the left of the area
+     * @param y - the y-coordinate of the top of the area
+     * @param cells - the new states of the cells of the area, indexed by column and then row
+     */
+    public void setAlive(int x, int y, boolean[][] cells)
+    {
+        if (cells.length == 0)
+        {
+            return;
+        }
+        clear(new Bounds(x, y, cells.length, cells[0].length));
+
+        LongList batch = new LongList();
+        for (int i = 0; i < cells.length; i++)
+        {
+            for (int j = 0; j < cells[i].length; j++)
+            {
+                if (cells[i][j])
+                {
+                    batch.add(PackedCell.pack(x + i, y + j));
+                }
+            }
+        }
+        merge(batch);
+    }
+
+    /**
+     * Sets all of the given cells to the given state.
+     * The cells are sorted and then merged into (or removed from) the list in a single pass,
+     *  rather than being inserted one at a time.
+     *
+     * @param cells - the cells to alter
+     * @param alive - true if the cells should become alive, false otherwise
+     */
+    public void setAlive(ArrayList<Cell> cells, boolean alive)
+    {
+        LongList batch = new LongList(cells.size());
+        for (int i = 0; i < cells.size(); i++)
+        {
+            batch.add(PackedCell.pack(cells.get(i).x, cells.get(i).y));
+        }
+        batch.sort();
+
+        if (alive)
+        {
+            merge(batch);
+        }
+        else
+        {
+            LongList living = modify();
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < living.size(); i++)
+            {
+                long key = living.get(i);
+                while (j < batch.size() && batch.get(j) < key)
+                {
+                    j++;
+                }
+                if (j == batch.size() || batch.get(j) != key)
+                {
+                    living.set(kept++, key);
+                }
+            }
+            living.removeRange(kept, living.size());
+        }
+    }
+
+    public ArrayList<Cell> getAlive()
+    {
+        return copy(living, null);
+    }
+
+    public ArrayList<Cell> getAlive(Bounds area)
+    {
+        return copy(living, area);
+    }
+
+    public void visitAlive(CellVisitor visitor)
+    {
+        visit(living, null, visitor);
+    }
+
+    public void visitAlive(Bounds area, CellVisitor visitor)
+    {
+        visit(living, area, visitor);
+    }
+
+    public long getNumberAlive()
+    {
+        return living.size();
+    }
+
+    /**
+     * Creates a Snapshot which shares the current list of living cells; the list is copied
+     *  before this engine next modifies it.
+     *
+     * @return a Snapshot of the current generation
+     */
+    public Snapshot snapshot()
+    {
+        shared = true;
+        return new ListSnapshot(living);
+    }
+
+    public long step()
+    {
+        StepCounter counter = new StepCounter();
+        long previous = living.size();
+        if (algorithm == Simulation.Algorithm.HASHED)
+        {
+            living = Simulation.simulateHashed(living, rule, counter);
+        }
+        else
+        {
+            living = Simulation.simulate(living, rule, counter);
+        }
+        shared = false;
+
+        births = counter.getBirths();
+        deaths = counter.getDeaths(previous);
+        bounds = counter.getBounds();
+        return 1;
+    }
+
+    public long getBirths()
+    {
+        return births;
+    }
+
+    public long getDeaths()
+    {
+        return deaths;
+    }
+
+    public Bounds getBounds()
+    {
+        return bounds;
+    }
+
+    public void clear(Bounds area)
+    {
+        LongList living = modify();
+        int from = living.search(PackedCell.pack(area.x, area.y), 0, living.size());
+        int to = column(living, (long) area.x + area.width, from, living.size());
+
+        // keep the cells in the columns of the area which are above or below it, in order
+        int kept = from;
+        for (int i = from; i < to; i++)
+        {
+            long key = living.get(i);
+            int y = PackedCell.y(key);
+            if (y < area.y || y >= (long) area.y + area.height)
+            {
+                living.set(kept++, key);
+            }
+        }
+        living.removeRange(kept, to);
+    }
+
+    public void clear()
+    {
+        living = new LongList();
+        shared = false;
+        births = 0;
+        deaths = 0;
+        bounds = null;
+    }
+
+    /**
+     * A ListEngine holds nothing besides its cells, so there is nothing to release.
+     */
+    public void close()
+    {
+    }
+
+    /**
+     * Returns a String representation of this ListEngine, naming its algorithm.
+     *
+     * @return a user-friendly description of this ListEngine
+     * @see Object#toString()
+     */
+    public String toString()
+    {
+        return "List (" + algorithm + ")";
+    }
+
+    /**
+     * Gets the list of living cells so that it may be modified, first replacing it with a copy if
+     *  it is shared with a {@link Snapshot}.
+     *
+     * @return the modifiable list of living cells
+     */
+    private LongList modify()
+    {
+        if (shared)
+        {
+            living = new LongList(living);
+            shared = false;
+        }
+        return living;
+    }
+
+    /**
+     * Merges the given sorted cells into the list of living cells, skipping cells which are
+     *  already alive (or repeated in the batch).
+     *
+     * @param batch - a sorted list of packed cells
+     */
+    private void merge(LongList batch)
+    {
+        if (batch.isEmpty())
+        {
+            return;
+        }
+
+        LongList merged = new LongList(living.size() + batch.size());
+        int i = 0;
+        int j = 0;
+        while (i < living.size() || j < batch.size())
+        {
+            long next;
+            if (j == batch.size() || (i < living.size() && living.get(i) <= batch.get(j)))
+            {
+                next = living.get(i++);
+            }
+            else
+            {
+                next = batch.get(j++);
+            }
+
+            if (merged.isEmpty() || merged.last() != next)
+            {
+                merged.add(next);
+            }
+        }
+
+        living = merged;
+        shared = false;
+    }
+
+    /**
+     * Copies the cells of the given list which are within the given area.
+     *
+     * @param living - a sorted list of packed living cells
+     * @param area - the area in which to copy cells, or null to copy all cells
+     * @return a new list of the cells within the area
+     */
+    private static ArrayList<Cell> copy(LongList living, Bounds area)
+    {
+        ArrayList<Cell> alive = new ArrayList<Cell>(area == null ? living.size() : 10);
+        visit(living, area, new CellCollector(alive));
+        return alive;
+    }
+
+    /**
+     * Visits the cells of the given list which are within the given area.
+     *
+     * @param living - a sorted list of packed living cells
+     * @param area - the area in which to visit cells, or null to visit all cells
+     * @param visitor - the visitor to call with the coordinates of each cell
+     */
+    private static void visit(LongList living, Bounds area, CellVisitor visitor)
+    {
+        if (area == null)
+        {
+            for (int i = 0; i < living.size(); i++)
+            {
+                visitor.visit(PackedCell.x(living.get(i)), PackedCell.y(living.get(i)));
+            }
+            return;
+        }
+
+        long bottom = (long) area.y + area.height;
+        int i = living.search(PackedCell.pack(area.x, area.y), 0, living.size());
+        int end = column(living, (long) area.x + area.width, i, living.size());
+        while (i < end)
+        {
+            long key = living.get(i);
+            int x = PackedCell.x(key);
+            int y = PackedCell.y(key);
+            if (y < area.y)
+            {
+                // skip to the top of the area in this column
+                i = living.search(PackedCell.pack(x, area.y), i, end);
+            }
+            else if (y >= bottom)
+            {
+                // skip to the next column
+                i = column(living, (long) x + 1, i, end);
+            }
+            else
+            {
+                visitor.visit(x, y);
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Finds the index of the first cell of the given sorted list (within the given range) which is
+     *  in the given column or any column to its right; the column is a long so that it may be
+     *  just past the range of cell coordinates.
+     *
+     * @param living - a sorted list of packed living cells
+     * @param x - the x-coordinate of the column
+     * @param from - the first index to search, inclusive
+     * @param to - the last index to search, exclusive
+     * @return the index of the first cell at or after the column, or {@code to} if there is none
+     */
+    private static int column(LongList living, long x, int from, int to)
+    {
+        if (x > Integer.MAX_VALUE)
+        {
+            return to;
+        }
+        return living.search(PackedCell.pack((int) x, Integer.MIN_VALUE), from, to);
+    }
+
+    /**
+     * A Snapshot of a sorted list of living cells which is no longer modified.
+     */
+    private static class ListSnapshot implements Snapshot
+    {
+        private final LongList living;
+
+        ListSnapshot(LongList living)
+        {
+            this.living = living;
+        }
+
+        public boolean isAlive(int x, int y)
+        {
+            return living.contains(PackedCell.pack(x, y));
+        }
+
+        public ArrayList<Cell> getAlive()
+        {
+            return copy(living, null);
+        }
+
+        public ArrayList<Cell> getAlive(Bounds area)
+        {
+            return copy(living, area);
+        }
+
+        public void visitAlive(CellVisitor visitor)
+        {
+            visit(living, null, visitor);
+        }
+
+        public void visitAlive(Bounds area, CellVisitor visitor)
+        {
+            visit(living, area, visitor);
+        }
+
+        public long getNumberAlive()
+        {
+            return living.size();
+        }
+    }
+}
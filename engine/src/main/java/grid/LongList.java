@@ -0,0 +1,224 @@
+package grid;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive {@code long}s, typically cells packed by {@link PackedCell}.
+ * Unlike an {@link java.util.ArrayList} of {@link Cell}s, the elements are stored in a single
+ *  array, so a list of n cells takes 8n bytes and iterating over it does not follow any
+ *  references.
+ * The list does not keep itself sorted, but {@link #search(long, int, int)} and
+ *  {@link #contains(long)} assume that it has been sorted, for example with {@link #sort()}.
+ */
+public class LongList
+{
+    private long[] elements;
+    private int size;
+
+    /**
+     * The capacity of a LongList created without an expected size.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Creates a new, empty LongList.
+     */
+    public LongList()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new, empty LongList with enough room for the given number of elements before it
+     *  has to grow.
+     *
+     * @param capacity - the expected number of elements
+     */
+    public LongList(int capacity)
+    {
+        elements = new long[Math.max(capacity, 1)];
+        size = 0;
+    }
+
+    /**
+     * Creates a new LongList with the same elements as the given one.
+     *
+     * @param list - the list to copy
+     */
+    public LongList(LongList list)
+    {
+        elements = Arrays.copyOf(list.elements, Math.max(list.size, 1));
+        size = list.size;
+    }
+
+    /**
+     * Gets the number of elements in the list.
+     *
+     * @return the size of the list
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Determines whether the list has no elements.
+     *
+     * @return true if the list is empty, false otherwise
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Gets the element at the given index.
+     *
+     * @param index - the index of the element, less than {@link #size()}
+     * @return the element at the index
+     */
+    public long get(int index)
+    {
+        return elements[index];
+    }
+
+    /**
+     * Replaces the element at the given index.
+     *
+     * @param index - the index of the element, less than {@link #size()}
+     * @param value - the new element
+     */
+    public void set(int index, long value)
+    {
+        elements[index] = value;
+    }
+
+    /**
+     * Gets the last element of the list.
+     *
+     * @return the last element, which must exist
+     */
+    public long last()
+    {
+        return elements[size - 1];
+    }
+
+    /**
+     * Adds an element to the end of the list.
+     *
+     * @param value - the element to add
+     */
+    public void add(long value)
+    {
+        if (size == elements.length)
+        {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Inserts an element at the given index, shifting the following elements up.
+     *
+     * @param index - the index at which to insert, at most {@link #size()}
+     * @param value - the element to insert
+     */
+    public void insert(int index, long value)
+    {
+        if (size == elements.length)
+        {
+            grow(size + 1);
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+    }
+
+    /**
+     * Removes the element at the given index, shifting the following elements down.
+     *
+     * @param index - the index of the element to remove
+     */
+    public void remove(int index)
+    {
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+    }
+
+    /**
+     * Removes the elements between the given indices, shifting the following elements down.
+     *
+     * @param from - the index of the first element to remove, inclusive
+     * @param to - the index of the last element to remove, exclusive
+     */
+    public void removeRange(int from, int to)
+    {
+        System.arraycopy(elements, to, elements, from, size - to);
+        size -= to - from;
+    }
+
+    /**
+     * Removes all of the elements from the list, keeping its capacity.
+     */
+    public void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * Sorts the elements of the list into ascending order.
+     */
+    public void sort()
+    {
+        Arrays.sort(elements, 0, size);
+    }
+
+    /**
+     * Finds the index of the first element within the given range of a sorted list which is not
+     *  less than the given value.
+     *
+     * @param value - the value to search for
+     * @param from - the first index to search, inclusive
+     * @param to - the last index to search, exclusive
+     * @return the index of the first element at or after the value, or {@code to} if there is none
+     */
+    public int search(long value, int from, int to)
+    {
+        while (from < to)
+        {
+            int middle = (from + to) >>> 1;
+            if (elements[middle] < value)
+            {
+                from = middle + 1;
+            }
+            else
+            {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Determines whether a sorted list contains the given value.
+     *
+     * @param value - the value to search for
+     * @return true if the value is in the list, false otherwise
+     */
+    public boolean contains(long value)
+    {
+        int index = search(value, 0, size);
+        return index < size && elements[index] == value;
+    }
+
+    /**
+     * Ensures that the list can hold at least the given number of elements without growing.
+     *
+     * @param capacity - the number of elements needed
+     */
+    private void grow(int capacity)
+    {
+        int grown = elements.length + (elements.length >> 1) + 1;
+        elements = Arrays.copyOf(elements, Math.max(grown, capacity));
+    }
+}
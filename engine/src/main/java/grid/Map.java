@@ -0,0 +1,645 @@
+package grid;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * Holds the contents of a state of the simulation.
+ * That is, a Map contains data regarding the state of a specific configuration, and is able to
+ *  determine whether a specific cell is living or dead.
+ * The living cells are stored and simulated by an {@link Engine}, which may be swapped for
+ *  another with {@link #setEngine(Engine)}; by default a {@link ListEngine} is used.
+ * The Map keeps track of the generation counter and synchronizes all access to its Engine, so it
+ *  may be shared between the simulation and rendering threads.
+ * A Map may also be double-buffered (see {@link #setDoubleBuffered(boolean)}), in which case it
+ *  publishes an immutable {@link Snapshot} after every change; readers such as the renderer can
+ *  then use {@link #getSnapshot()} without ever waiting for a generation to be simulated.
+ * After each generation the Map also records the {@link GenerationStatistics} reported by its
+ *  Engine as a by-product of the step, keeping the most recent {@link #HISTORY_LENGTH} of them.
+ * For drawing universes too large to draw cell by cell, the Map also maintains a
+ *  {@link PopulationPyramid} of its latest Snapshot, see {@link #getPopulationPyramid()}; while
+ *  it is being drawn, the pyramid is built along with each published Snapshot.
+ */
+public class Map
+{
+    private volatile Engine engine;
+
+    private volatile long generation;
+
+    /**
+     * Whether a Snapshot is published after every change to this Map.
+     */
+    private boolean doubleBuffered;
+    /**
+     * The last published Snapshot, or null if this Map is not double-buffered.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * The statistics of the most recent generation, or null if none has been simulated since the
+     *  Map was cleared.
+     */
+    private volatile GenerationStatistics statistics;
+    /**
+     * The statistics of the most recent generations, oldest first; it is locked separately so
+     *  that it may be read while a generation is being simulated.
+     */
+    private final ArrayDeque<GenerationStatistics> history;
+    /**
+     * The PopulationPyramid of the most recently published or requested Snapshot, or null if none
+     *  has been built.
+     */
+    private volatile PopulationPyramid pyramid;
+    /**
+     * The time at which {@link #getPopulationPyramid()} was last called, from
+     *  {@link System#nanoTime()}.
+     */
+    private volatile long pyramidRequested;
+
+    /**
+     * The maximum number of generations whose statistics are kept in the history.
+     */
+    public static final int HISTORY_LENGTH = 1000;
+    /**
+     * How long after the last call to {@link #getPopulationPyramid()} a pyramid is still built
+     *  along with each published Snapshot, in nanoseconds.
+     */
+    private static final long PYRAMID_TIMEOUT = 1000000000L;
+
+    /**
+     * Creates a new, empty Map which is stored in a {@link ListEngine}.
+     */
+    public Map()
+    {
+        this(new ListEngine());
+    }
+
+    /**
+     * Creates a new Map which is stored in the given Engine.
+     * Any cells already alive in the Engine are kept as the Map's initial generation.
+     *
+     * @param engine - the Engine which stores and simulates the cells of this Map
+     */
+    public Map(Engine engine)
+    {
+        this.engine = engine;
+        generation = 0;
+        doubleBuffered = false;
+        snapshot = null;
+        statistics = null;
+        history = new ArrayDeque<GenerationStatistics>();
+        pyramid = null;
+        pyramidRequested = System.nanoTime() - PYRAMID_TIMEOUT;
+    }
+
+    /**
+     * Gets the current generation of this Map.
+     * The generation is a counter which is incremented each time the Map is updated (a new
+     *  generation is simulated) and reset to 0 whether the Map is cleared.
+     *
+     * @return the generation of this Map
+     */
+    public long getGeneration()
+    {
+        return generation;
+    }
+
+    /**
+     * Gets the statistics of the most recent generation: its births, deaths, population and
+     *  bounding box.
+     * These are counted by the Engine while the generation is simulated, so this does not read
+     *  the living cells, and it does not wait for a generation in progress.
+     * Edits made since the generation was simulated are not taken into account.
+     *
+     * @return the statistics of the last generation, or null if no generation has been simulated
+     *  since the Map was cleared
+     */
+    public GenerationStatistics getStatistics()
+    {
+        return statistics;
+    }
+
+    /**
+     * Gets the statistics of the most recent generations (at most {@link #HISTORY_LENGTH} of
+     *  them), in the order in which they were simulated.
+     * This does not wait for a generation in progress.
+     *
+     * @return a new list of the statistics of the recent generations, oldest first
+     */
+    public ArrayList<GenerationStatistics> getHistory()
+    {
+        synchronized (history)
+        {
+            return new ArrayList<GenerationStatistics>(history);
+        }
+    }
+
+    /**
+     * Determines whether this Map is double-buffered.
+     *
+     * @return true if a Snapshot is published after every change, false otherwise
+     * @see #setDoubleBuffered(boolean)
+     */
+    public synchronized boolean isDoubleBuffered()
+    {
+        return doubleBuffered;
+    }
+
+    /**
+     * Sets whether this Map is double-buffered.
+     * A double-buffered Map takes a {@link Snapshot} of its Engine after every change (each
+     *  generation and each edit) and publishes it for {@link #getSnapshot()}, which then never
+     *  blocks; the Engine itself works on the next generation as a back buffer.
+     * Taking a snapshot is cheap, but not free, so this should only be enabled when the Map is
+     *  read concurrently with its simulation.
+     *
+     * @param doubleBuffered - true to publish a Snapshot after every change, false otherwise
+     */
+    public synchronized void setDoubleBuffered(boolean doubleBuffered)
+    {
+        this.doubleBuffered = doubleBuffered;
+        snapshot = null;
+        publish();
+    }
+
+    /**
+     * Gets an immutable Snapshot of the current generation of this Map, which may be read
+     *  without synchronization.
+     * If this Map is double-buffered, the last published Snapshot is returned immediately, even
+     *  while the next generation is being simulated; otherwise a new Snapshot is taken, which
+     *  waits for any simulation in progress.
+     *
+     * @return a Snapshot of the living cells of this Map
+     */
+    public Snapshot getSnapshot()
+    {
+        Snapshot published = snapshot;
+        if (published != null)
+        {
+            return published;
+        }
+
+        synchronized (this)
+        {
+            return engine.snapshot();
+        }
+    }
+
+    /**
+     * Gets the {@link PopulationPyramid} of the current Snapshot (see {@link #getSnapshot()}).
+     * If this Map is double-buffered, then for as long as this is called regularly (at least once
+     *  every {@link #PYRAMID_TIMEOUT}), a pyramid is built with every Snapshot as it is published,
+     *  by the thread which changed the Map, so this may be called for every frame without
+     *  building anything; only the first call, or a call for a Snapshot published without a
+     *  pyramid, builds one on the calling thread.
+     * If this Map is not double-buffered, every call takes a new Snapshot and so builds a new
+     *  pyramid.
+     *
+     * @return the population pyramid of the current generation
+     */
+    public PopulationPyramid getPopulationPyramid()
+    {
+        pyramidRequested = System.nanoTime();
+        Snapshot current = getSnapshot();
+        PopulationPyramid cached = pyramid;
+        if (cached == null || cached.getSnapshot() != current)
+        {
+            cached = new PopulationPyramid(current);
+            pyramid = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Gets the Engine which stores and simulates the cells of this Map.
+     * This does not wait for a generation in progress, so it may be used to show information
+     *  about the Engine while it is being stepped.
+     *
+     * @return the current Engine
+     */
+    public Engine getEngine()
+    {
+        return engine;
+    }
+
+    /**
+     * Replaces the Engine which stores and simulates the cells of this Map.
+     * The living cells of the current Engine are copied into the given Engine, which is emptied
+     *  first and takes over the current rule; the generation counter is unchanged.
+     * The current Engine is then closed (see {@link Engine#close()}), releasing its threads.
+     *
+     * @param engine - the new Engine
+     */
+    public synchronized void setEngine(Engine engine)
+    {
+        Engine replaced = this.engine;
+        ArrayList<Cell> alive = replaced.getAlive();
+        engine.clear();
+        engine.setRule(replaced.getRule());
+        for (int i = 0; i < alive.size(); i++)
+        {
+            engine.setAlive(alive.get(i).x, alive.get(i).y, true);
+        }
+        this.engine = engine;
+        publish();
+
+        if (replaced != engine)
+        {
+            replaced.close();
+        }
+    }
+
+    /**
+     * Closes the Engine of this Map, releasing any threads it holds (see {@link Engine#close()}).
+     * The Map must not be used afterwards.
+     */
+    public synchronized void close()
+    {
+        engine.close();
+    }
+
+    /**
+     * Gets the rule with which new generations of this Map are simulated.
+     *
+     * @return the current rule
+     */
+    public Rule getRule()
+    {
+        return engine.getRule();
+    }
+
+    /**
+     * Sets the rule with which new generations of this Map are simulated.
+     * The living cells and the generation counter are unchanged.
+     *
+     * @param rule - the new rule
+     */
+    public synchronized void setRule(Rule rule)
+    {
+        engine.setRule(rule);
+    }
+
+    /**
+     * Sets the cell at the given coordinates to the given state.
+     * If the cell at the given location already has the given state, no action is taken.
+     *
+     * @param x - the x-coordinate of the cell to alter
+     * @param y - the y-coordinate of the cell to alter
+     * @param alive - true if the cell should become alive, false otherwise
+     */
+    public synchronized void setAlive(int x, int y, boolean alive)
+    {
+        engine.setAlive(x, y, alive);
+        publish();
+    }
+
+    /**
+     * Sets the cells of a rectangular area to the given states.
+     * That is, the cell at {@code (x + i, y + j)} is set to {@code cells[i][j]} for each index
+     *  in the (rectangular) array.
+     * This is equivalent to calling {@link #setAlive(int, int, boolean)} for each cell, but the
+     *  Map is only locked once and the Engine may apply the whole area at once, which is much
+     *  faster for large areas (such as pasting a pattern).
+     *
+     * @param x - the x-coordinate of the left of the area
+     * @param y - the y-coordinate of the top of the area
+     * @param cells - the new states of the cells of the area, indexed by column and then row
+     */
+    public synchronized void setAlive(int x, int y, boolean[][] cells)
+    {
+        engine.setAlive(x, y, cells);
+        publish();
+    }
+
+    /**
+     * Sets all of the given cells to the given state.
+     * This is equivalent to calling {@link #setAlive(int, int, boolean)} for each cell, but the
+     *  Map is only locked once and the Engine may apply the whole batch at once.
+     *
+     * @param cells - the cells to alter, in any order
+     * @param alive - true if the cells should become alive, false otherwise
+     */
+    public synchronized void setAlive(ArrayList<Cell> cells, boolean alive)
+    {
+        engine.setAlive(cells, alive);
+        publish();
+    }
+
+    /**
+     * Clears the given area of the Map.
+     * That is, this method removes all the living cells whose coordinates are within the given
+     *  area or on its border.
+     * This method is typically faster than calling {@link #setAlive(int, int, boolean)} with false
+     *  for each cell within the given area.
+     *
+     * @param area - the area of the Map to clear
+     */
+    public synchronized void clear(Bounds area)
+    {
+        engine.clear(area);
+        publish();
+    }
+
+    /**
+     * Creates a rectangular area from the border of the given area.
+     * That is, this method sets all the cells with a coordinate equal to one of the sides of the
+     *  given area to alive.
+     * In particular, the cells within the rectangle are not changed.
+     * This method is equivalent to traversing the sides of the area and calling
+     *  {@link #setAlive(int, int, boolean)} with true for each cell on the border.
+     *
+     * @param area - the area of the map for which to make a rectangular border
+     */
+    public synchronized void square(Bounds area)
+    {
+        ArrayList<Cell> border = new ArrayList<Cell>();
+        for (int x = area.x; x < area.x + area.width; x++)
+        {
+            border.add(new Cell(x, area.y));
+            border.add(new Cell(x, area.y + area.height - 1));
+        }
+
+        for (int y = area.y + 1; y < area.y + area.height - 1; y++)
+        {
+            border.add(new Cell(area.x, y));
+            border.add(new Cell(area.x + area.width - 1, y));
+        }
+        setAlive(border, true);
+    }
+
+    /**
+     * Creates an ellipse within the given area.
+     * That is, this method sets all cells on the border of the largest ellipse contained in the
+     *  given area to true.
+     * In particular, the cells within the ellipse and outside of it are not changed.
+     * This method is equivalent to traversing the border of the ellipse within the area and
+     *  calling {@link #setAlive(int, int, boolean)} with true for each cell on the border.
+     *
+     * @param area - the area of the map in which to make an ellipse
+     */
+    public synchronized void oval(Bounds area)
+    {
+        ArrayList<Cell> border = new ArrayList<Cell>();
+        double delta = Math.max(1.0/(area.width*area.height), 0.0001);
+        for (double theta = 0; theta < 2*Math.PI; theta += delta)
+        {
+            border.add(new Cell((int)Math.round(area.x + (area.width - 1)/2.0 +
+                            (area.width - 1)*Math.cos(theta)/2),
+                    (int)Math.round(area.y + (area.height - 1)/2.0 +
+                            (area.height - 1)*Math.sin(theta)/2)));
+        }
+        setAlive(border, true);
+    }
+
+    /**
+     * Rotates the given area of the map clockwise by 90 degrees.
+     * Note that cells outside of the given area will be affected if it is not square.
+     *
+     * @param area - the area of the Map to rotate clockwise
+     * @return the given area transformed in a 90 degree rotation
+     */
+    public synchronized Bounds rotateCW(Bounds area)
+    {
+        boolean[][] map = read(area);
+        engine.clear(area);
+
+        // the cell at (x,y) in the area moves to (area.x - y + (w+h)/2 + xShift,
+        //  area.y + x + (h-w)/2)
+        int xShift = area.width < area.height && (area.width + area.height) % 2 != 0 ? 0 : -1;
+        boolean[][] rotated = new boolean[area.height][area.width];
+        for (int x = 0; x < area.width; x++)
+        {
+            for (int y = 0; y < area.height; y++)
+            {
+                rotated[area.height - 1 - y][x] = map[x][y];
+            }
+        }
+        engine.setAlive(area.x - (area.height - 1) + (area.width + area.height)/2 + xShift,
+                area.y + (area.height - area.width)/2, rotated);
+        publish();
+
+        return new Bounds(area.x - (area.height - area.width)/2,
+                area.y - (area.width - area.height)/2,
+                area.height, area.width);
+    }
+
+    /**
+     * Rotates the given area of the map counterclockwise by 90 degrees.
+     * Note that cells outside of the given area will be affected if it is not square.
+     *
+     * @param area - the area of the Map to rotate counterclockwise
+     * @return the given area transformed in a 90 degree rotation
+     */
+    public synchronized Bounds rotateCCW(Bounds area)
+    {
+        boolean[][] map = read(area);
+        engine.clear(area);
+
+        // the cell at (x,y) in the area moves to (area.x + y + (w-h)/2,
+        //  area.y - x + (h+w)/2 + yShift)
+        int yShift = area.width < area.height && (area.width + area.height) % 2 != 0 ? 0 : -1;
+        boolean[][] rotated = new boolean[area.height][area.width];
+        for (int x = 0; x < area.width; x++)
+        {
+            for (int y = 0; y < area.height; y++)
+            {
+                rotated[y][area.width - 1 - x] = map[x][y];
+            }
+        }
+        engine.setAlive(area.x + (area.width - area.height)/2,
+                area.y - (area.width - 1) + (area.height + area.width)/2 + yShift, rotated);
+        publish();
+
+        return new Bounds(area.x - (area.height - area.width)/2,
+                area.y - (area.width - area.height)/2,
+                area.height, area.width);
+    }
+
+    /**
+     * Determines whether the cell at the given coordinates is alive.
+     *
+     * @param x - the x-coordinate of the cell to check
+     * @param y - the y-coordinate of the cell to check
+     * @return true if the cell at (x,y) is alive, false otherwise
+     */
+    public synchronized boolean isAlive(int x, int y)
+    {
+        return engine.isAlive(x, y);
+    }
+
+    /**
+     * Gets a copied list of the cells that are currently alive.
+     *
+     * @return a list of cells that are currently alive
+     */
+    public synchronized ArrayList<Cell> getAlive()
+    {
+        return engine.getAlive();
+    }
+
+    /**
+     * Gets a copied list of the cells that are currently alive within the given area.
+     * Only the cells within the area are copied, so this is much faster than filtering the result
+     *  of {@link #getAlive()} when the area is small compared to the Map (as with the visible
+     *  area of the {@link Grid}).
+     *
+     * @param area - the area of the Map in which to find living cells
+     * @return a list of cells that are currently alive in the given area
+     */
+    public synchronized ArrayList<Cell> getAlive(Bounds area)
+    {
+        return engine.getAlive(area);
+    }
+
+    /**
+     * Visits all the cells which are currently alive, without copying them.
+     * This does not create any objects per cell, unlike {@link #getAlive()}.
+     * The visitor is called while this Map is locked, so it must not modify the Map; a visitor
+     *  which does not need the latest generation should visit a {@link #getSnapshot()} instead.
+     *
+     * @param visitor - the visitor to call with the coordinates of each living cell
+     */
+    public synchronized void visitAlive(CellVisitor visitor)
+    {
+        engine.visitAlive(visitor);
+    }
+
+    /**
+     * Visits the cells which are currently alive within the given area, without copying them.
+     *
+     * @param area - the area of the Map in which to visit living cells
+     * @param visitor - the visitor to call with the coordinates of each living cell
+     * @see #visitAlive(CellVisitor)
+     */
+    public synchronized void visitAlive(Bounds area, CellVisitor visitor)
+    {
+        engine.visitAlive(area, visitor);
+    }
+
+    /**
+     * Gets the number of cells which are currently alive.
+     * That is, this is the size of the list returned by {@link #getAlive()}, but is faster than
+     *  the statement:
+     * <pre>
+     * getAlive().size();
+     * </pre>
+     *
+     * @return the number of living cells in the current generation
+     */
+    public synchronized long getNumberAlive()
+    {
+        return engine.getNumberAlive();
+    }
+
+    /**
+     * Updates the Map by simulating the next generation and setting the contents of the Map to the
+     *  results of the simulation.
+     * The generation counter is also incremented; some Engines (such as a {@link HashLifeEngine})
+     *  may simulate many generations at once, in which case the generation counter is increased
+     *  by the number of generations simulated.
+     * The statistics of the new generation are then recorded (see {@link #getStatistics()}).
+     *
+     * @see Engine#step()
+     */
+    public void update()
+    {
+        update(1);
+    }
+
+    /**
+     * Updates the Map by simulating at least the given number of generations, publishing only the
+     *  last of them.
+     * Each generation is simulated as by {@link #update()} and its statistics are recorded, but if
+     *  this Map is double-buffered a Snapshot is taken only once all of them have been simulated,
+     *  so that generations which would never be displayed are not published.
+     * The Map is locked for one step of its Engine at a time, so that edits made while the
+     *  generations are simulated wait for a single step rather than for all of them; they are
+     *  simulated along with the remaining generations.
+     *
+     * @param generations - the number of generations to simulate, at least 1
+     */
+    public void update(int generations)
+    {
+        long simulated = 0;
+        while (simulated < generations)
+        {
+            synchronized (this)
+            {
+                long stepped = engine.step();
+                generation += stepped;
+                simulated += stepped;
+
+                statistics = new GenerationStatistics(generation, engine.getBirths(),
+                        engine.getDeaths(), engine.getNumberAlive(), engine.getBounds());
+                synchronized (history)
+                {
+                    if (history.size() == HISTORY_LENGTH)
+                    {
+                        history.removeFirst();
+                    }
+                    history.addLast(statistics);
+                }
+            }
+        }
+        synchronized (this)
+        {
+            publish();
+        }
+    }
+
+    /**
+     * Clears the Map by removing all the living cells, resetting the generation counter to 0 and
+     *  discarding the statistics of past generations.
+     */
+    public synchronized void clear()
+    {
+        engine.clear();
+        generation = 0;
+        publish();
+
+        statistics = null;
+        synchronized (history)
+        {
+            history.clear();
+        }
+    }
+
+    /**
+     * Reads the states of the cells of the given area.
+     *
+     * @param area - the area to read
+     * @return the states of the cells of the area, indexed by column and then row
+     */
+    private boolean[][] read(final Bounds area)
+    {
+        final boolean[][] cells = new boolean[area.width][area.height];
+        engine.visitAlive(area, new CellVisitor()
+        {
+            public void visit(int x, int y)
+            {
+                cells[x - area.x][y - area.y] = true;
+            }
+        });
+        return cells;
+    }
+
+    /**
+     * Publishes a Snapshot of the current generation if this Map is double-buffered, along with
+     *  its PopulationPyramid if one was requested recently.
+     * The pyramid is published first, so that a reader which sees the new Snapshot also sees its
+     *  pyramid.
+     * This must be called (while synchronized) after every change to the Engine.
+     */
+    private void publish()
+    {
+        if (doubleBuffered)
+        {
+            Snapshot published = engine.snapshot();
+            if (System.nanoTime() - pyramidRequested < PYRAMID_TIMEOUT)
+            {
+                pyramid = new PopulationPyramid(published);
+            }
+            snapshot = published;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package grid;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A {@link TileArena} whose chunks are memory-mapped regions of a file.
+ * The rows and bookkeeping of the Tiles then live in the operating system's page cache rather
+ *  than in the process's memory: blocks are paged in as the simulation touches them and written
+ *  back and evicted by the operating system under memory pressure, so a {@link TiledEngine}
+ *  using this arena can simulate universes whose cells do not fit in RAM.
+ * Only the small Tile objects and their table remain on the heap (roughly 50 bytes per 4096
+ *  cells), so the heap must still be large enough for those.
+ * Since Tiles near each other in the universe tend to be created near each other in time, they
+ *  also tend to be stored near each other in the file, which keeps paging mostly sequential.
+ * The file is a scratch file: its contents are only meaningful to this arena, and it may be
+ *  deleted once the arena is closed.
+ */
+public class MappedTileArena extends TileArena
+{
+    private final File file;
+    private final RandomAccessFile access;
+    private final FileChannel channel;
+
+    /**
+     * Creates a new, empty MappedTileArena backed by the given file, which is created or
+     *  truncated.
+     *
+     * @param file - the file in which to store the rows of the Tiles
+     * @throws IOException if the file cannot be opened for reading and writing
+     */
+    public MappedTileArena(File file) throws IOException
+    {
+        this.file = file;
+        access = new RandomAccessFile(file, "rw");
+        access.setLength(0);
+        channel = access.getChannel();
+    }
+
+    /**
+     * Creates a new, empty MappedTileArena backed by a temporary file, which is deleted when the
+     *  virtual machine exits.
+     *
+     * @return a new MappedTileArena
+     * @throws IOException if the temporary file cannot be created
+     */
+    public static MappedTileArena createTemporary() throws IOException
+    {
+        File file = File.createTempFile("universe", ".tiles");
+        file.deleteOnExit();
+        return new MappedTileArena(file);
+    }
+
+    /**
+     * Gets the file in which the rows of the Tiles are stored.
+     *
+     * @return the backing file
+     */
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * Closes the backing file.
+     * Mapped chunks remain readable until they are garbage collected, but the arena must not be
+     *  used afterwards.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    public void close() throws IOException
+    {
+        access.close();
+    }
+
+    /**
+     * Maps the region of the file for the given chunk, extending the file as needed.
+     *
+     * @param index - the index of the chunk, starting from 0
+     * @return a buffer mapped onto the chunk's region of the file
+     * @throws UncheckedIOException if the region cannot be mapped, for example because the disk
+     *  is full
+     */
+    protected ByteBuffer createChunk(int index)
+    {
+        try
+        {
+            return channel.map(FileChannel.MapMode.READ_WRITE, (long) index*CHUNK_BYTES,
+                    CHUNK_BYTES);
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException("Could not map chunk " + index + " of " + file, ex);
+        }
+    }
+}
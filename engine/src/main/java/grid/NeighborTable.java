@@ -0,0 +1,209 @@
+package grid;
+
+import java.util.Arrays;
+
+/**
+ * A primitive hash table from packed cell coordinates (see {@link PackedCell}) to integer
+ *  counters.
+ * The table uses open addressing with linear probing over parallel {@code long} and {@code int}
+ *  arrays, so adding to a counter never allocates a {@link Cell} or boxes an {@link Integer}.
+ * A slot whose value is 0 is considered empty; values are only ever increased, so a key which has
+ *  been added to always has a positive value.
+ * The table is traversed by slot index:
+ * <pre>
+ * for (int i = 0; i < table.capacity(); i++)
+ * {
+ *     if (table.value(i) != 0)
+ *     {
+ *         int x = PackedCell.x(table.key(i));
+ *         int y = PackedCell.y(table.key(i));
+ *     }
+ * }
+ * </pre>
+ */
+public class NeighborTable
+{
+    private long[] keys;
+    private int[] values;
+
+    private int size;
+    private int mask;
+
+    /**
+     * The smallest capacity of a NeighborTable; must be a power of 2.
+     */
+    private static final int MIN_CAPACITY = 16;
+    /**
+     * The largest capacity of a NeighborTable, beyond which the size of its arrays would overflow.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Creates a new, empty NeighborTable with enough room for the given number of keys before it
+     *  has to grow.
+     *
+     * @param expected - the expected number of distinct keys
+     */
+    public NeighborTable(int expected)
+    {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2*expected && capacity < MAX_CAPACITY)
+        {
+            capacity <<= 1;
+        }
+
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    /**
+     * Adds the given amount to the counter for the given key, inserting the key if it is not
+     *  already in the table.
+     *
+     * @param key - the packed key of the cell
+     * @param amount - the amount to add to the counter; must be positive
+     * @throws IllegalStateException if the key is new and the table has reached its maximum
+     *  capacity
+     */
+    public void add(long key, int amount)
+    {
+        int i = slot(key);
+        while (values[i] != 0)
+        {
+            if (keys[i] == key)
+            {
+                values[i] += amount;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        // at the maximum capacity, one slot is always left empty to end the probe sequences
+        if (size == keys.length - 1)
+        {
+            throw new IllegalStateException("NeighborTable is full: " + size + " keys");
+        }
+        keys[i] = key;
+        values[i] = amount;
+        if (++size > keys.length/2 && keys.length < MAX_CAPACITY)
+        {
+            grow();
+        }
+    }
+
+    /**
+     * Gets the value of the counter for the given key.
+     *
+     * @param key - the packed key of the cell
+     * @return the value of the counter, or 0 if the key is not in the table
+     */
+    public int get(long key)
+    {
+        int i = slot(key);
+        while (values[i] != 0)
+        {
+            if (keys[i] == key)
+            {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the number of distinct keys in the table.
+     *
+     * @return the number of keys that have been added to
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Gets the number of slots in the table, which is the upper bound for slot indices.
+     *
+     * @return the current capacity of the table
+     */
+    public int capacity()
+    {
+        return keys.length;
+    }
+
+    /**
+     * Gets the key in the given slot; only meaningful if {@link #value(int)} is not 0.
+     *
+     * @param slot - the index of the slot
+     * @return the packed key in the slot
+     */
+    public long key(int slot)
+    {
+        return keys[slot];
+    }
+
+    /**
+     * Gets the counter in the given slot.
+     *
+     * @param slot - the index of the slot
+     * @return the counter in the slot, or 0 if the slot is empty
+     */
+    public int value(int slot)
+    {
+        return values[slot];
+    }
+
+    /**
+     * Removes all the keys from the table, keeping its current capacity.
+     */
+    public void clear()
+    {
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    /**
+     * Gets the home slot of the given key.
+     * The key is mixed with a 64-bit finalizer so that neighboring cells, whose keys differ only
+     *  in their low bits, are spread across the table.
+     *
+     * @param key - the packed key
+     * @return the first slot to probe for the key
+     */
+    private int slot(long key)
+    {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    /**
+     * Doubles the capacity of the table, rehashing all of its keys.
+     */
+    private void grow()
+    {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+
+        keys = new long[oldKeys.length*2];
+        values = new int[oldValues.length*2];
+        mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldValues[i] != 0)
+            {
+                int j = slot(oldKeys[i]);
+                while (values[j] != 0)
+                {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package grid;
+
+/**
+ * Encodes the coordinates of a cell as a single {@code long}, for use in primitive collections
+ *  such as {@link LongList} and {@link NeighborTable}.
+ * The x-coordinate is stored in the high 32 bits and the y-coordinate (with its sign bit
+ *  flipped) in the low 32 bits, so packed cells are ordered in the same way as
+ *  {@link Cell#compareTo(Cell)}: primarily by x-coordinate and secondarily by y-coordinate.
+ * A sorted array of packed cells therefore corresponds to a sorted list of Cells, and the cells
+ *  of a column are contiguous in it.
+ * {@link Cell} remains the representation used outside of the engines, such as by the user
+ *  interface; this class only has static methods.
+ */
+public class PackedCell
+{
+    /**
+     * Packs the given coordinates into a single key.
+     *
+     * @param x - the x-coordinate of the cell
+     * @param y - the y-coordinate of the cell
+     * @return the key of the cell at (x,y)
+     */
+    public static long pack(int x, int y)
+    {
+        return ((long) x << 32) | ((y ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the x-coordinate of the given packed key.
+     *
+     * @param key - a key created by {@link #pack(int, int)}
+     * @return the x-coordinate of the cell
+     */
+    public static int x(long key)
+    {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Gets the y-coordinate of the given packed key.
+     *
+     * @param key - a key created by {@link #pack(int, int)}
+     * @return the y-coordinate of the cell
+     */
+    public static int y(long key)
+    {
+        return (int) key ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * Creates a Cell at the coordinates of the given packed key.
+     *
+     * @param key - a key created by {@link #pack(int, int)}
+     * @return a new Cell at the key's coordinates
+     */
+    public static Cell toCell(long key)
+    {
+        return new Cell(x(key), y(key));
+    }
+}
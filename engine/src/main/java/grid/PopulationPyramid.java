@@ -0,0 +1,299 @@
+package grid;
+
+import java.util.ArrayList;
+
+/**
+ * The populations of a {@link Snapshot}, aggregated over square blocks of cells at successively
+ *  coarser levels, for drawing a universe which is too large to draw cell by cell.
+ * Level 0 holds the number of living cells in each {@link Tile}-sized block of
+ *  {@link Tile#SIZE} by {@link Tile#SIZE} cells, and each higher level holds blocks twice as wide
+ *  and high as the level below, so that level {@code k} covers blocks of
+ *  {@link #getBlockSize(int) Tile.SIZE << k} cells.
+ * The value of a block is its density: the mean number of living cells per Tile-sized area within
+ *  it, between 0 and {@link #MAX_DENSITY}; a block with any living cells has a density of at
+ *  least 1, so that sparse patterns do not disappear at coarse levels.
+ * Only non-empty blocks are stored, each level in a {@link NeighborTable} keyed by the packed
+ *  coordinates of the blocks (in blocks), so building a pyramid takes time proportional to the
+ *  number of non-empty Tiles when the Snapshot can count them directly (see {@link TileCensus}),
+ *  and to the number of living cells otherwise.
+ *
+ * @see Map#getPopulationPyramid()
+ */
+public class PopulationPyramid
+{
+    /**
+     * The Snapshot whose populations are counted.
+     */
+    private final Snapshot snapshot;
+    /**
+     * The densities of the non-empty blocks of each level, from the finest level up.
+     */
+    private final NeighborTable[] levels;
+
+    /**
+     * The greatest density of a block: the density of a block in which every cell is alive.
+     */
+    public static final int MAX_DENSITY = Tile.SIZE*Tile.SIZE;
+    /**
+     * The greatest number of levels, so that the width of the coarsest blocks fits in an int.
+     */
+    private static final int MAX_LEVELS = 31 - Tile.SHIFT;
+
+    /**
+     * A callback which is given the coordinates and density of non-empty blocks one at a time.
+     */
+    public interface BlockVisitor
+    {
+        /**
+         * Visits a single non-empty block.
+         *
+         * @param x - the x-coordinate of the block, in blocks of its level
+         * @param y - the y-coordinate of the block, in blocks of its level
+         * @param density - the mean number of living cells per Tile-sized area of the block, at
+         *  least 1
+         */
+        public void visit(int x, int y, int density);
+    }
+
+    /**
+     * Builds the PopulationPyramid of the given Snapshot.
+     * Levels are added until the non-empty blocks of a level fit within two blocks in each
+     *  direction (or the blocks would become too wide).
+     *
+     * @param snapshot - the Snapshot whose populations to count
+     */
+    public PopulationPyramid(Snapshot snapshot)
+    {
+        this.snapshot = snapshot;
+
+        NeighborTable base = new NeighborTable((int) Math.min(snapshot.getNumberAlive(),
+                1 << 16));
+        if (snapshot instanceof TileCensus)
+        {
+            ((TileCensus) snapshot).countTiles(base);
+        }
+        else
+        {
+            countCells(snapshot, base);
+        }
+
+        ArrayList<NeighborTable> levels = new ArrayList<NeighborTable>();
+        levels.add(base);
+        while (!isCoarsest(levels.get(levels.size() - 1)) && levels.size() < MAX_LEVELS)
+        {
+            levels.add(reduce(levels.get(levels.size() - 1)));
+        }
+        this.levels = levels.toArray(new NeighborTable[levels.size()]);
+    }
+
+    /**
+     * Gets the number of levels in this pyramid, at least 1.
+     *
+     * @return the number of levels
+     */
+    public int getLevels()
+    {
+        return levels.length;
+    }
+
+    /**
+     * Gets the width and height of the blocks of the given level, in cells.
+     *
+     * @param level - the level, starting at 0 for Tile-sized blocks
+     * @return {@code Tile.SIZE << level}
+     */
+    public static int getBlockSize(int level)
+    {
+        return Tile.SIZE << level;
+    }
+
+    /**
+     * Gets the number of living cells counted by this pyramid.
+     *
+     * @return the population of the Snapshot
+     */
+    public long getNumberAlive()
+    {
+        return snapshot.getNumberAlive();
+    }
+
+    /**
+     * Gets the density of the block at the given coordinates of the given level.
+     *
+     * @param level - the level of the block, between 0 and {@link #getLevels()} - 1
+     * @param x - the x-coordinate of the block, in blocks of its level
+     * @param y - the y-coordinate of the block, in blocks of its level
+     * @return the mean number of living cells per Tile-sized area of the block, 0 if it is empty
+     */
+    public int getDensity(int level, int x, int y)
+    {
+        return levels[level].get(PackedCell.pack(x, y));
+    }
+
+    /**
+     * Visits the non-empty blocks of the given level which intersect the given area.
+     * The blocks of the area are looked up one at a time if there are fewer of them than there are
+     *  non-empty blocks in the level; otherwise every non-empty block is checked against the area.
+     * The order in which the blocks are visited is unspecified.
+     *
+     * @param level - the level whose blocks to visit, between 0 and {@link #getLevels()} - 1
+     * @param area - the area in which to visit blocks, in cell coordinates
+     * @param visitor - the visitor to call with the coordinates and density of each block
+     */
+    public void visitBlocks(int level, Bounds area, BlockVisitor visitor)
+    {
+        NeighborTable blocks = levels[level];
+        int shift = Tile.SHIFT + level;
+        int left = area.x >> shift;
+        int top = area.y >> shift;
+        int right = (int) (((long) area.x + area.width - 1) >> shift);
+        int bottom = (int) (((long) area.y + area.height - 1) >> shift);
+
+        if (((long) right - left + 1)*((long) bottom - top + 1) < blocks.size())
+        {
+            for (int x = left; x <= right; x++)
+            {
+                for (int y = top; y <= bottom; y++)
+                {
+                    int density = blocks.get(PackedCell.pack(x, y));
+                    if (density != 0)
+                    {
+                        visitor.visit(x, y, density);
+                    }
+                }
+            }
+        }
+        else
+        {
+            for (int i = 0; i < blocks.capacity(); i++)
+            {
+                if (blocks.value(i) != 0)
+                {
+                    int x = PackedCell.x(blocks.key(i));
+                    int y = PackedCell.y(blocks.key(i));
+                    if (x >= left && x <= right && y >= top && y <= bottom)
+                    {
+                        visitor.visit(x, y, blocks.value(i));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates the number of living cells in the given area from the blocks of the coarsest
+     *  level at which the area is at least a few blocks wide and high.
+     * Blocks which are only partly inside the area are counted in full, so the estimate is
+     *  usually too high, but never too low except for the rounding of densities.
+     *
+     * @param area - the area in which to estimate the population, in cell coordinates
+     * @return the estimated number of living cells in the area
+     */
+    public long estimateNumberAlive(Bounds area)
+    {
+        int level = 0;
+        while (level + 1 < levels.length &&
+                getBlockSize(level + 1) <= Math.max(area.width, area.height)/4)
+        {
+            level++;
+        }
+
+        final long[] total = new long[1];
+        visitBlocks(level, area, new BlockVisitor()
+        {
+            public void visit(int x, int y, int density)
+            {
+                total[0] += density;
+            }
+        });
+        return total[0] << (2*level);
+    }
+
+    /**
+     * Gets the Snapshot whose populations are counted.
+     *
+     * @return the Snapshot from which this pyramid was built
+     */
+    Snapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
+    /**
+     * Counts the living cells of each Tile-sized block of the given Snapshot by visiting each
+     *  living cell.
+     *
+     * @param snapshot - the Snapshot whose cells to count
+     * @param populations - the table to which to add the population of each block, as for
+     *  {@link TileCensus#countTiles(NeighborTable)}
+     */
+    static void countCells(Snapshot snapshot, final NeighborTable populations)
+    {
+        snapshot.visitAlive(new CellVisitor()
+        {
+            public void visit(int x, int y)
+            {
+                populations.add(PackedCell.pack(x >> Tile.SHIFT, y >> Tile.SHIFT), 1);
+            }
+        });
+    }
+
+    /**
+     * Determines whether the given level is coarse enough to be the last: whether its non-empty
+     *  blocks fit within a square of two by two blocks.
+     * A single block is not required, since blocks on either side of the origin (or of any other
+     *  multiple of a large power of 2) are only merged at a much coarser level.
+     *
+     * @param blocks - the densities of the non-empty blocks of a level
+     * @return true if no coarser level is needed, false otherwise
+     */
+    private static boolean isCoarsest(NeighborTable blocks)
+    {
+        int left = Integer.MAX_VALUE;
+        int right = Integer.MIN_VALUE;
+        int top = Integer.MAX_VALUE;
+        int bottom = Integer.MIN_VALUE;
+        for (int i = 0; i < blocks.capacity(); i++)
+        {
+            if (blocks.value(i) != 0)
+            {
+                left = Math.min(left, PackedCell.x(blocks.key(i)));
+                right = Math.max(right, PackedCell.x(blocks.key(i)));
+                top = Math.min(top, PackedCell.y(blocks.key(i)));
+                bottom = Math.max(bottom, PackedCell.y(blocks.key(i)));
+            }
+        }
+        return (long) right - left <= 1 && (long) bottom - top <= 1;
+    }
+
+    /**
+     * Builds the next coarser level from the given level: each block of the new level is the
+     *  mean of the four blocks of the given level which it covers, rounded up.
+     *
+     * @param blocks - the densities of the non-empty blocks of a level
+     * @return the densities of the non-empty blocks of the next level
+     */
+    private static NeighborTable reduce(NeighborTable blocks)
+    {
+        NeighborTable sums = new NeighborTable(blocks.size()/2);
+        for (int i = 0; i < blocks.capacity(); i++)
+        {
+            if (blocks.value(i) != 0)
+            {
+                long key = blocks.key(i);
+                sums.add(PackedCell.pack(PackedCell.x(key) >> 1, PackedCell.y(key) >> 1),
+                        blocks.value(i));
+            }
+        }
+
+        NeighborTable means = new NeighborTable(sums.size());
+        for (int i = 0; i < sums.capacity(); i++)
+        {
+            if (sums.value(i) != 0)
+            {
+                means.add(sums.key(i), (sums.value(i) + 3)/4);
+            }
+        }
+        return means;
+    }
+}
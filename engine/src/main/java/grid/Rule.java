@@ -0,0 +1,309 @@
+package grid;
+
+/**
+ * An outer-totalistic rule for a two-state cellular automaton on the Moore neighborhood, such as
+ *  Conway's Game of Life.
+ * The next state of a cell depends only on whether it is alive and on the number of its eight
+ *  neighbors which are alive: a dead cell is born if that number is one of the rule's birth
+ *  counts, and a living cell survives if it is one of the rule's survival counts.
+ * Rules are written in B/S notation, for example {@code B3/S23} for Life or {@code B36/S23} for
+ *  HighLife, and are compiled into lookup tables when they are parsed so that simulating any rule
+ *  is as fast as simulating Life.
+ * Rules are immutable.
+ */
+public final class Rule
+{
+    /**
+     * The bit mask of the neighbor counts for which a dead cell is born: bit {@code n} is set if a
+     *  dead cell with {@code n} living neighbors becomes alive.
+     */
+    private final int birth;
+    /**
+     * The bit mask of the neighbor counts for which a living cell survives: bit {@code n} is set
+     *  if a living cell with {@code n} living neighbors stays alive.
+     */
+    private final int survival;
+
+    /**
+     * The next state of a cell, indexed by {@code 2*neighbors + (alive ? 1 : 0)}; this is the same
+     *  value that is counted for each cell by {@link Simulation#simulateHashed(LongList)}.
+     */
+    private final boolean[] counters;
+    /**
+     * The next state of the center cell of each 3x3 neighborhood, indexed by a 9-bit mask in which
+     *  bit {@code 3*row + column} is set if the cell at that row and column is alive (so that the
+     *  center cell is bit 4).
+     */
+    private final boolean[] neighborhoods;
+    /**
+     * The neighbor counts in {@link #birth} and {@link #survival}, in increasing order.
+     */
+    private final int[] birthCounts;
+    private final int[] survivalCounts;
+
+    /**
+     * The rule of Conway's Game of Life, {@code B3/S23}.
+     */
+    public static final Rule LIFE = new Rule(1 << 3, (1 << 2) | (1 << 3));
+
+    /**
+     * The mask of all the valid neighbor counts, 0 through 8.
+     */
+    private static final int COUNTS = (1 << 9) - 1;
+
+    /**
+     * Creates a new Rule with the given birth and survival counts.
+     *
+     * @param birth - the bit mask of the neighbor counts for which a dead cell is born, which may
+     *  not include 0
+     * @param survival - the bit mask of the neighbor counts for which a living cell survives
+     */
+    public Rule(int birth, int survival)
+    {
+        if ((birth & ~COUNTS) != 0 || (survival & ~COUNTS) != 0)
+        {
+            throw new IllegalArgumentException("Neighbor counts must be between 0 and 8.");
+        }
+        if ((birth & 1) != 0)
+        {
+            // every dead cell of the (infinite) universe would be born in the first generation
+            throw new IllegalArgumentException("Rules with B0 are not supported.");
+        }
+        this.birth = birth;
+        this.survival = survival;
+
+        counters = new boolean[18];
+        for (int n = 0; n <= 8; n++)
+        {
+            counters[2*n] = (birth & (1 << n)) != 0;
+            counters[2*n + 1] = (survival & (1 << n)) != 0;
+        }
+
+        neighborhoods = new boolean[512];
+        for (int bits = 0; bits < 512; bits++)
+        {
+            int neighbors = Integer.bitCount(bits & ~(1 << 4));
+            neighborhoods[bits] = counters[2*neighbors + ((bits >>> 4) & 1)];
+        }
+
+        birthCounts = counts(birth);
+        survivalCounts = counts(survival);
+    }
+
+    /**
+     * Parses a Rule from its B/S notation.
+     * The birth counts are given after a {@code B} and the survival counts after an {@code S},
+     *  separated by a slash, in either order and in either case (for example {@code B3/S23} or
+     *  {@code s23/b3}).
+     * The older notation without letters, which gives the survival counts first (for example
+     *  {@code 23/3}), is also accepted.
+     *
+     * @param notation - the rule in B/S notation
+     * @return the Rule with the given birth and survival counts
+     * @throws IllegalArgumentException if the notation is not a valid rule, or is a rule with B0
+     */
+    public static Rule parse(String notation)
+    {
+        String[] parts = notation.trim().split("/", -1);
+        if (parts.length != 2)
+        {
+            throw new IllegalArgumentException("Invalid rule: " + notation);
+        }
+
+        int birth = -1;
+        int survival = -1;
+        for (int i = 0; i < 2; i++)
+        {
+            String part = parts[i].trim();
+            char prefix = part.isEmpty() ? ' ' : Character.toUpperCase(part.charAt(0));
+            if (prefix == 'B' && birth == -1)
+            {
+                birth = parseCounts(part.substring(1), notation);
+            }
+            else if (prefix == 'S' && survival == -1)
+            {
+                survival = parseCounts(part.substring(1), notation);
+            }
+            else if (i == 0 && (prefix == ' ' || Character.isDigit(prefix)))
+            {
+                // the older S/B notation: survival counts, then birth counts
+                survival = parseCounts(part, notation);
+                birth = parseCounts(parts[1].trim(), notation);
+                break;
+            }
+            else
+            {
+                throw new IllegalArgumentException("Invalid rule: " + notation);
+            }
+        }
+
+        return new Rule(birth, survival);
+    }
+
+    /**
+     * Gets the bit mask of the neighbor counts for which a dead cell is born.
+     *
+     * @return a mask in which bit {@code n} is set if a dead cell with {@code n} neighbors is born
+     */
+    public int getBirth()
+    {
+        return birth;
+    }
+
+    /**
+     * Gets the bit mask of the neighbor counts for which a living cell survives.
+     *
+     * @return a mask in which bit {@code n} is set if a living cell with {@code n} neighbors
+     *  survives
+     */
+    public int getSurvival()
+    {
+        return survival;
+    }
+
+    /**
+     * Determines whether a cell is alive in the next generation.
+     *
+     * @param alive - true if the cell is alive in the current generation
+     * @param neighbors - the number of living neighbors of the cell, between 0 and 8
+     * @return true if the cell is alive in the next generation, false otherwise
+     */
+    public boolean next(boolean alive, int neighbors)
+    {
+        return counters[2*neighbors + (alive ? 1 : 0)];
+    }
+
+    /**
+     * Determines whether a cell is alive in the next generation from its combined counter.
+     *
+     * @param counter - {@code 2*neighbors + 1} if the cell is alive, {@code 2*neighbors}
+     *  otherwise
+     * @return true if the cell is alive in the next generation, false otherwise
+     */
+    boolean next(int counter)
+    {
+        return counters[counter];
+    }
+
+    /**
+     * Determines whether the center cell of a 3x3 neighborhood is alive in the next generation.
+     *
+     * @param neighborhood - a 9-bit mask in which bit {@code 3*row + column} is set if the cell
+     *  at that row and column of the neighborhood is alive
+     * @return true if the center cell is alive in the next generation, false otherwise
+     */
+    boolean nextCenter(int neighborhood)
+    {
+        return neighborhoods[neighborhood];
+    }
+
+    /**
+     * Gets the neighbor counts for which a dead cell is born.
+     * The array is shared and must not be modified.
+     *
+     * @return the birth counts in increasing order
+     */
+    int[] getBirthCounts()
+    {
+        return birthCounts;
+    }
+
+    /**
+     * Gets the neighbor counts for which a living cell survives.
+     * The array is shared and must not be modified.
+     *
+     * @return the survival counts in increasing order
+     */
+    int[] getSurvivalCounts()
+    {
+        return survivalCounts;
+    }
+
+    /**
+     * Determines whether this Rule equals the given object.
+     * The two are equal if and only if the given Object is a Rule with the same birth and
+     *  survival counts.
+     *
+     * @param o - the object to which to compare
+     * @return true if the given object is equal to this Rule, false otherwise
+     */
+    public boolean equals(Object o)
+    {
+        if (o instanceof Rule)
+        {
+            return ((Rule) o).birth == birth && ((Rule) o).survival == survival;
+        }
+        return false;
+    }
+
+    public int hashCode()
+    {
+        return (birth << 9) | survival;
+    }
+
+    /**
+     * Returns a String representation of this Rule in B/S notation, for example:
+     * <pre>
+     * B3/S23
+     * </pre>
+     *
+     * @return the B/S notation of this Rule
+     */
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder("B");
+        for (int i = 0; i < birthCounts.length; i++)
+        {
+            builder.append(birthCounts[i]);
+        }
+        builder.append("/S");
+        for (int i = 0; i < survivalCounts.length; i++)
+        {
+            builder.append(survivalCounts[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Parses a list of neighbor counts, such as {@code 23}, into a bit mask.
+     *
+     * @param digits - the neighbor counts, each a single digit between 0 and 8
+     * @param notation - the whole rule, for the error message
+     * @return the bit mask of the given counts
+     * @throws IllegalArgumentException if any character is not a digit between 0 and 8
+     */
+    private static int parseCounts(String digits, String notation)
+    {
+        int mask = 0;
+        for (int i = 0; i < digits.length(); i++)
+        {
+            char digit = digits.charAt(i);
+            if (digit < '0' || digit > '8')
+            {
+                throw new IllegalArgumentException("Invalid rule: " + notation);
+            }
+            mask |= 1 << (digit - '0');
+        }
+        return mask;
+    }
+
+    /**
+     * Lists the neighbor counts in the given bit mask.
+     *
+     * @param mask - a bit mask of neighbor counts
+     * @return the counts whose bits are set, in increasing order
+     */
+    private static int[] counts(int mask)
+    {
+        int[] counts = new int[Integer.bitCount(mask)];
+        int i = 0;
+        for (int n = 0; n <= 8; n++)
+        {
+            if ((mask & (1 << n)) != 0)
+            {
+                counts[i++] = n;
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,54 @@
+package grid;
+
+/**
+ * A {@link TileKernel} which counts the neighbors of each cell one at a time.
+ * This is the most straightforward kernel, and is mainly useful as a reference for the others.
+ */
+public class ScalarKernel implements TileKernel
+{
+    public void step(long[][] neighborhood, Rule rule, long[] next)
+    {
+        for (int r = 0; r < Tile.SIZE; r++)
+        {
+            long row = 0;
+            for (int c = 0; c < Tile.SIZE; c++)
+            {
+                int neighbors = 0;
+                for (int dr = -1; dr <= 1; dr++)
+                {
+                    for (int dc = -1; dc <= 1; dc++)
+                    {
+                        if (!(dr == 0 && dc == 0) && get(neighborhood, r + dr, c + dc))
+                        {
+                            neighbors++;
+                        }
+                    }
+                }
+
+                boolean alive = (neighborhood[CENTER][r] & (1L << c)) != 0;
+                if (rule.next(alive, neighbors))
+                {
+                    row |= 1L << c;
+                }
+            }
+            next[r] = row;
+        }
+    }
+
+    /**
+     * Determines whether the cell at the given row and column relative to the center Tile of the
+     *  given neighborhood is alive.
+     *
+     * @param neighborhood - the rows of a Tile and its neighbors
+     * @param r - the row of the cell, between -1 and {@link Tile#SIZE}
+     * @param c - the column of the cell, between -1 and {@link Tile#SIZE}
+     * @return true if the cell is alive, false otherwise
+     */
+    private static boolean get(long[][] neighborhood, int r, int c)
+    {
+        int tileRow = r < 0 ? 0 : (r < Tile.SIZE ? 1 : 2);
+        int tileColumn = c < 0 ? 0 : (c < Tile.SIZE ? 1 : 2);
+        long[] rows = neighborhood[3*tileRow + tileColumn];
+        return (rows[r & (Tile.SIZE - 1)] & (1L << (c & (Tile.SIZE - 1)))) != 0;
+    }
+}
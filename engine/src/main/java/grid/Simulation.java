@@ -0,0 +1,428 @@
+package grid;
+
+import java.util.ArrayList;
+
+/**
+ * Handles the simulation of {@link Map}s.
+ * Two algorithms are available, selected per {@link ListEngine} with
+ *  {@link ListEngine#setAlgorithm(Algorithm)}:
+ * <ul>
+ * <li>{@link Algorithm#SORTED_LIST}: {@link #simulate(Map)}, which walks the sorted living cells
+ *  column by column, counting each cell's neighbors in the columns on either side</li>
+ * <li>{@link Algorithm#HASHED}: {@link #simulateHashed(Map)}, which counts neighbors in a
+ *  primitive {@link NeighborTable}, so the living cells need not be sorted</li>
+ * </ul>
+ * Both algorithms work on cells packed into {@code long}s by {@link PackedCell}; the overloads
+ *  which take and return {@link Cell}s convert at the boundary.
+ * Each algorithm may simulate any {@link Rule}; the overloads without one simulate
+ *  {@link Rule#LIFE}, except those which take a Map, which simulate the Map's rule.
+ */
+public class Simulation
+{
+    /**
+     * The algorithms that can be used to simulate the next generation of a Map.
+     */
+    public enum Algorithm
+    {
+        /**
+         * Neighbors are counted by walking the sorted living cells; see
+         *  {@link Simulation#simulate(Map)}.
+         */
+        SORTED_LIST,
+        /**
+         * Neighbors are counted in a primitive hash table; see
+         *  {@link Simulation#simulateHashed(Map)}.
+         */
+        HASHED;
+    }
+
+    /**
+     * Simulates the next generation for the given Map, following its rule.
+     *
+     * @param map - the Map for which to simulate the next generation
+     * @return a (sorted) list of the cells in the next generation of the given Map
+     */
+    public static ArrayList<Cell> simulate(Map map)
+    {
+        // only a ListEngine keeps its cells sorted
+        PackedCollector collector = new PackedCollector(map.getNumberAlive());
+        map.visitAlive(collector);
+        collector.cells.sort();
+        return unpack(simulate(collector.cells, map.getRule(), new StepCounter()));
+    }
+
+    /**
+     * Simulates the next generation for the given living cells.
+     *
+     * @param alive - a sorted list of the cells that were alive in the last generation; it is not
+     *  modified
+     * @return a (sorted) list of the cells in the next generation
+     */
+    public static ArrayList<Cell> simulate(ArrayList<Cell> alive)
+    {
+        return unpack(simulate(pack(alive)));
+    }
+
+    /**
+     * Simulates the next generation for the given packed living cells.
+     * Since the living cells are sorted by x and then y, the cells of each column and of the
+     *  columns on either side are adjacent runs of the list; the neighbors of each candidate cell
+     *  are counted by sliding a small window down each of the three runs, so the generation is
+     *  simulated in a single pass, and no memory is needed besides the list of the next
+     *  generation.
+     *
+     * @param alive - a sorted list of the {@link PackedCell}s that were alive in the last
+     *  generation; it is not modified
+     * @return a sorted list of the packed cells in the next generation
+     */
+    public static LongList simulate(LongList alive)
+    {
+        return simulate(alive, Rule.LIFE);
+    }
+
+    /**
+     * Simulates the next generation for the given packed living cells under the given rule.
+     *
+     * @param alive - a sorted list of the {@link PackedCell}s that were alive in the last
+     *  generation; it is not modified
+     * @param rule - the rule which determines the next state of each cell
+     * @return a sorted list of the packed cells in the next generation
+     * @see #simulate(LongList)
+     */
+    public static LongList simulate(LongList alive, Rule rule)
+    {
+        return simulate(alive, rule, new StepCounter());
+    }
+
+    /**
+     * Simulates the next generation for the given packed living cells under the given rule,
+     *  adding each cell of the next generation to the given counter as it is found.
+     *
+     * @param alive - a sorted list of the {@link PackedCell}s that were alive in the last
+     *  generation; it is not modified
+     * @param rule - the rule which determines the next state of each cell
+     * @param counter - the counter to which the cells of the next generation are added
+     * @return a sorted list of the packed cells in the next generation
+     * @see #simulate(LongList)
+     */
+    static LongList simulate(LongList alive, Rule rule, StepCounter counter)
+    {
+        // The candidates of the next generation are visited column by column, in the order of the
+        //  packed cells; the cells of a column only have neighbors in the columns on either side,
+        //  so each column is simulated from the three runs of "alive" which hold those columns.
+        LongList cells = new LongList(alive.size());
+        int[] from = new int[3];
+        int[] to = new int[3];
+        // the first living cell in a column at or after x - 1
+        int start = 0;
+        long x = alive.isEmpty() ? 0 : PackedCell.x(alive.get(0)) - 1L;
+        while (start < alive.size())
+        {
+            from[0] = start;
+            for (int k = 0; k < 3; k++)
+            {
+                to[k] = columnEnd(alive, from[k], x - 1 + k);
+                if (k < 2)
+                {
+                    from[k + 1] = to[k];
+                }
+            }
+            if (x >= Integer.MIN_VALUE && x <= Integer.MAX_VALUE)
+            {
+                simulateColumn(alive, (int) x, from, to, rule, counter, cells);
+            }
+
+            // skip the columns which have no living cells on either side
+            start = to[0];
+            if (start < alive.size())
+            {
+                x = Math.max(x + 1, PackedCell.x(alive.get(start)) - 1L);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Finds the end of the run of cells in the given column, which starts at the given index of
+     *  a sorted list of packed cells.
+     *
+     * @param alive - a sorted list of packed cells
+     * @param from - the index of the first cell in the given column or after it
+     * @param x - the column
+     * @return the index of the first cell after the given column
+     */
+    private static int columnEnd(LongList alive, int from, long x)
+    {
+        while (from < alive.size() && PackedCell.x(alive.get(from)) <= x)
+        {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Simulates the next generation of a single column of cells, adding its living cells to the
+     *  given list in order.
+     * The living cells of the column and of the columns on either side are the given runs of
+     *  the sorted list, so each is sorted by y; a window of at most three cells of each run is
+     *  slid down the column, and each y which has a living cell within one row of it (in any of
+     *  the three runs) is a candidate whose neighbors are the cells in the windows.
+     * This also visits every living cell of the column, so cells with no neighbors follow the
+     *  rule like any other.
+     *
+     * @param alive - a sorted list of packed living cells
+     * @param x - the column to simulate
+     * @param from - the first index in {@code alive} of the columns {@code x - 1}, {@code x} and
+     *  {@code x + 1}
+     * @param to - the index after the last cell of each of these columns
+     * @param rule - the rule which determines the next state of each cell
+     * @param counter - the counter to which the cells of the next generation are added
+     * @param cells - the list to which the cells of the next generation are added
+     */
+    private static void simulateColumn(LongList alive, int x, int[] from, int[] to, Rule rule,
+            StepCounter counter, LongList cells)
+    {
+        // the windows: the cells of each run within one row of the candidate
+        int[] low = from.clone();
+        int[] high = from.clone();
+        long y = Long.MAX_VALUE;
+        for (int k = 0; k < 3; k++)
+        {
+            if (from[k] < to[k])
+            {
+                y = Math.min(y, PackedCell.y(alive.get(from[k])) - 1L);
+            }
+        }
+
+        while (y != Long.MAX_VALUE)
+        {
+            int count = 0;
+            boolean wasAlive = false;
+            // the lowest living cell at or below the candidate, from which the next is found
+            long lowest = Long.MAX_VALUE;
+            for (int k = 0; k < 3; k++)
+            {
+                while (low[k] < to[k] && PackedCell.y(alive.get(low[k])) < y - 1)
+                {
+                    low[k]++;
+                }
+                while (high[k] < to[k] && PackedCell.y(alive.get(high[k])) <= y + 1)
+                {
+                    high[k]++;
+                }
+                count += high[k] - low[k];
+
+                for (int i = low[k]; i < to[k]; i++)
+                {
+                    int cellY = PackedCell.y(alive.get(i));
+                    if (cellY >= y)
+                    {
+                        lowest = Math.min(lowest, cellY);
+                        if (k == 1 && cellY == y)
+                        {
+                            wasAlive = true;
+                            count--;
+                        }
+                        break;
+                    }
+                }
+            }
+
+            if (y >= Integer.MIN_VALUE && y <= Integer.MAX_VALUE && rule.next(wasAlive, count))
+            {
+                cells.add(PackedCell.pack(x, (int) y));
+                counter.add(x, (int) y, wasAlive);
+            }
+            y = lowest == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(y + 1, lowest - 1);
+        }
+    }
+
+    /**
+     * Simulates the next generation for the given Map by counting neighbors in a
+     *  {@link NeighborTable}.
+     * This produces the same generation as {@link #simulate(Map)}, but each neighbor is counted
+     *  with a single hash table update, so the living cells need not be sorted.
+     *
+     * @param map - the Map for which to simulate the next generation
+     * @return a (sorted) list of the cells in the next generation of the given Map
+     */
+    public static ArrayList<Cell> simulateHashed(Map map)
+    {
+        NeighborCounter counter = new NeighborCounter(map.getNumberAlive());
+        map.visitAlive(counter);
+        return unpack(survivors(counter.table, map.getRule(), new StepCounter()));
+    }
+
+    /**
+     * Simulates the next generation for the given living cells by counting neighbors in a
+     *  {@link NeighborTable}.
+     *
+     * @param alive - a list of the cells that were alive in the last generation; it is not
+     *  modified
+     * @return a (sorted) list of the cells in the next generation
+     * @see #simulateHashed(Map)
+     */
+    public static ArrayList<Cell> simulateHashed(ArrayList<Cell> alive)
+    {
+        return unpack(simulateHashed(pack(alive)));
+    }
+
+    /**
+     * Simulates the next generation for the given packed living cells by counting neighbors in a
+     *  {@link NeighborTable}.
+     *
+     * @param alive - a list of the {@link PackedCell}s that were alive in the last generation; it
+     *  is not modified
+     * @return a sorted list of the packed cells in the next generation
+     * @see #simulateHashed(Map)
+     */
+    public static LongList simulateHashed(LongList alive)
+    {
+        return simulateHashed(alive, Rule.LIFE);
+    }
+
+    /**
+     * Simulates the next generation for the given packed living cells under the given rule by
+     *  counting neighbors in a {@link NeighborTable}.
+     *
+     * @param alive - a list of the {@link PackedCell}s that were alive in the last generation; it
+     *  is not modified
+     * @param rule - the rule which determines the next state of each cell
+     * @return a sorted list of the packed cells in the next generation
+     * @see #simulateHashed(Map)
+     */
+    public static LongList simulateHashed(LongList alive, Rule rule)
+    {
+        return simulateHashed(alive, rule, new StepCounter());
+    }
+
+    /**
+     * Simulates the next generation for the given packed living cells under the given rule by
+     *  counting neighbors in a {@link NeighborTable}, adding each cell of the next generation to
+     *  the given counter as it is found.
+     *
+     * @param alive - a list of the {@link PackedCell}s that were alive in the last generation; it
+     *  is not modified
+     * @param rule - the rule which determines the next state of each cell
+     * @param counter - the counter to which the cells of the next generation are added
+     * @return a sorted list of the packed cells in the next generation
+     * @see #simulateHashed(Map)
+     */
+    static LongList simulateHashed(LongList alive, Rule rule, StepCounter counter)
+    {
+        NeighborCounter neighbors = new NeighborCounter(alive.size());
+        for (int i = 0; i < alive.size(); i++)
+        {
+            neighbors.visit(PackedCell.x(alive.get(i)), PackedCell.y(alive.get(i)));
+        }
+        return survivors(neighbors.table, rule, counter);
+    }
+
+    /**
+     * Finds the cells which are alive in the next generation from the counters of a
+     *  {@link NeighborCounter}.
+     *
+     * @param table - the table of counters filled by a NeighborCounter
+     * @param rule - the rule which determines the next state of each cell
+     * @param counter - the counter to which the cells of the next generation are added
+     * @return a sorted list of the packed cells in the next generation
+     */
+    private static LongList survivors(NeighborTable table, Rule rule, StepCounter counter)
+    {
+        // Pass 2:
+        //  Each counter is twice the number of neighbors, plus one if the cell was alive, which
+        //   indexes the rule's table directly; odd counters are the cells which survived.
+        //  The keys are sorted so that the resulting list is ordered in the same way as Cells.
+        LongList next = new LongList(table.size());
+        for (int i = 0; i < table.capacity(); i++)
+        {
+            int value = table.value(i);
+            if (value != 0 && rule.next(value))
+            {
+                long key = table.key(i);
+                next.add(key);
+                counter.add(PackedCell.x(key), PackedCell.y(key), (value & 1) != 0);
+            }
+        }
+        next.sort();
+
+        return next;
+    }
+
+    /**
+     * Packs the given Cells into a list of keys, in the same order.
+     *
+     * @param cells - a list of Cells
+     * @return a new list of the cells' {@link PackedCell} keys
+     */
+    private static LongList pack(ArrayList<Cell> cells)
+    {
+        LongList packed = new LongList(cells.size());
+        for (int i = 0; i < cells.size(); i++)
+        {
+            packed.add(PackedCell.pack(cells.get(i).x, cells.get(i).y));
+        }
+        return packed;
+    }
+
+    /**
+     * Creates a Cell for each of the given keys, in the same order.
+     *
+     * @param packed - a list of {@link PackedCell} keys
+     * @return a new list of Cells
+     */
+    private static ArrayList<Cell> unpack(LongList packed)
+    {
+        ArrayList<Cell> cells = new ArrayList<Cell>(packed.size());
+        for (int i = 0; i < packed.size(); i++)
+        {
+            cells.add(PackedCell.toCell(packed.get(i)));
+        }
+        return cells;
+    }
+
+    /**
+     * Collects the visited cells of a Map as {@link PackedCell} keys, in the order in which they
+     *  are visited.
+     */
+    private static class PackedCollector implements CellVisitor
+    {
+        private final LongList cells;
+
+        PackedCollector(long alive)
+        {
+            cells = new LongList((int) Math.min(alive, Integer.MAX_VALUE - 8));
+        }
+
+        public void visit(int x, int y)
+        {
+            cells.add(PackedCell.pack(x, y));
+        }
+    }
+
+    /**
+     * Pass I of {@link Simulation#simulateHashed(Map)}: each visited (living) cell adds 2 to the
+     *  counter of each of its neighbors and 1 to its own counter, so that each counter holds
+     *  twice the number of neighbors plus 1 if the cell is alive.
+     */
+    private static class NeighborCounter implements CellVisitor
+    {
+        private final NeighborTable table;
+
+        NeighborCounter(long alive)
+        {
+            table = new NeighborTable((int) Math.min(alive*4, 1 << 29));
+        }
+
+        public void visit(int x, int y)
+        {
+            for (int dx = -1; dx <= 1; dx++)
+            {
+                for (int dy = -1; dy <= 1; dy++)
+                {
+                    table.add(PackedCell.pack(x + dx, y + dy), dx == 0 && dy == 0 ? 1 : 2);
+                }
+            }
+        }
+    }
+}
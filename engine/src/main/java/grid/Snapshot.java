@@ -0,0 +1,65 @@
+package grid;
+
+import java.util.ArrayList;
+
+/**
+ * An immutable view of a single generation of the living cells of an {@link Engine}.
+ * A Snapshot is unaffected by any later change to its Engine (new generations or edits), so it
+ *  may be read from any thread without synchronization, even while the Engine is being stepped.
+ * Snapshots share their storage with the Engine where possible, so creating one is cheap.
+ *
+ * @see Engine#snapshot()
+ * @see Map#getSnapshot()
+ */
+public interface Snapshot
+{
+    /**
+     * Determines whether the cell at the given coordinates is alive in this generation.
+     *
+     * @param x - the x-coordinate of the cell to check
+     * @param y - the y-coordinate of the cell to check
+     * @return true if the cell at (x,y) is alive, false otherwise
+     */
+    public boolean isAlive(int x, int y);
+
+    /**
+     * Gets a list of all the cells that are alive in this generation.
+     * The list is a copy, so it may be modified freely.
+     *
+     * @return a list of the cells that are alive
+     */
+    public ArrayList<Cell> getAlive();
+
+    /**
+     * Gets a list of the cells that are alive in this generation within the given area.
+     * The list is a copy, so it may be modified freely.
+     *
+     * @param area - the area in which to find living cells
+     * @return a list of the cells that are alive in the given area
+     */
+    public ArrayList<Cell> getAlive(Bounds area);
+
+    /**
+     * Visits all the cells that are in this generation alive, without copying them.
+     * The order in which the cells are visited is unspecified.
+     *
+     * @param visitor - the visitor to call with the coordinates of each living cell
+     */
+    public void visitAlive(CellVisitor visitor);
+
+    /**
+     * Visits the cells that are in this generation alive within the given area, without copying them.
+     * The order in which the cells are visited is unspecified.
+     *
+     * @param area - the area in which to visit living cells
+     * @param visitor - the visitor to call with the coordinates of each living cell
+     */
+    public void visitAlive(Bounds area, CellVisitor visitor);
+
+    /**
+     * Gets the number of cells which are alive in this generation.
+     *
+     * @return the number of living cells
+     */
+    public long getNumberAlive();
+}
@@ -0,0 +1,100 @@
+package grid;
+
+/**
+ * Counts the statistics of a generation as {@link Simulation} produces its cells, so that an
+ *  Engine can report them (see {@link Engine#getBirths()}) without another pass over the cells.
+ * Each cell of the new generation is added once, along with whether it was alive in the previous
+ *  generation; the number of births and deaths follow from the number of survivors.
+ */
+class StepCounter
+{
+    private long survivors;
+    private long population;
+
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+
+    /**
+     * Creates a new StepCounter for a generation with no cells yet.
+     */
+    StepCounter()
+    {
+        survivors = 0;
+        population = 0;
+        minX = Integer.MAX_VALUE;
+        minY = Integer.MAX_VALUE;
+        maxX = Integer.MIN_VALUE;
+        maxY = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Adds a living cell of the new generation.
+     *
+     * @param x - the x-coordinate of the cell
+     * @param y - the y-coordinate of the cell
+     * @param survived - true if the cell was also alive in the previous generation, false if it
+     *  was born
+     */
+    void add(int x, int y, boolean survived)
+    {
+        population++;
+        if (survived)
+        {
+            survivors++;
+        }
+
+        if (x < minX)
+        {
+            minX = x;
+        }
+        if (x > maxX)
+        {
+            maxX = x;
+        }
+        if (y < minY)
+        {
+            minY = y;
+        }
+        if (y > maxY)
+        {
+            maxY = y;
+        }
+    }
+
+    /**
+     * Gets the number of cells added which were born in the new generation.
+     *
+     * @return the number of births
+     */
+    long getBirths()
+    {
+        return population - survivors;
+    }
+
+    /**
+     * Gets the number of cells of the previous generation which did not survive.
+     *
+     * @param previous - the population of the previous generation
+     * @return the number of deaths
+     */
+    long getDeaths(long previous)
+    {
+        return previous - survivors;
+    }
+
+    /**
+     * Gets the smallest rectangle containing all the cells added.
+     *
+     * @return a new bounding box of the new generation, or null if no cells were added
+     */
+    Bounds getBounds()
+    {
+        if (population == 0)
+        {
+            return null;
+        }
+        return new Bounds(minX, minY, maxX - minX + 1, maxY - minY + 1);
+    }
+}
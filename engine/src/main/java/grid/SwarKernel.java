@@ -0,0 +1,120 @@
+package grid;
+
+/**
+ * A {@link TileKernel} which counts neighbors for an entire row of a {@link Tile} at once.
+ * The eight neighbors of each cell in a row are the row above, the row itself and the row below,
+ *  each shifted one column left and right; these eight words are added together bit-by-bit with
+ *  full- and half-adders ("SIMD within a register"), producing the neighbor count of all 64
+ *  cells as four bit-planes.
+ * The bits shifted in at the edges of the Tile come from the neighboring Tiles, so every cell is
+ *  counted correctly without special cases.
+ * The rule is applied to the bit-planes directly: Life is a single expression, while any other
+ *  {@link Rule} is applied by matching the bit-planes against each of its birth and survival
+ *  counts.
+ */
+public class SwarKernel implements TileKernel
+{
+    public void step(long[][] neighborhood, Rule rule, long[] next)
+    {
+        boolean life = rule.equals(Rule.LIFE);
+        int[] births = rule.getBirthCounts();
+        int[] survivals = rule.getSurvivalCounts();
+
+        long[] center = neighborhood[CENTER];
+        long[] west = neighborhood[W];
+        long[] east = neighborhood[E];
+        int last = Tile.SIZE - 1;
+
+        // the row above the current row, and its west and east neighbors, shifted into place
+        long above = neighborhood[N][last];
+        long aboveLeft = (above << 1) | (neighborhood[NW][last] >>> last);
+        long aboveRight = (above >>> 1) | (neighborhood[NE][last] << last);
+
+        long row = center[0];
+        long left = (row << 1) | (west[0] >>> last);
+        long right = (row >>> 1) | (east[0] << last);
+
+        for (int r = 0; r < Tile.SIZE; r++)
+        {
+            long below;
+            long belowLeft;
+            long belowRight;
+            if (r < last)
+            {
+                below = center[r + 1];
+                belowLeft = (below << 1) | (west[r + 1] >>> last);
+                belowRight = (below >>> 1) | (east[r + 1] << last);
+            }
+            else
+            {
+                below = neighborhood[S][0];
+                belowLeft = (below << 1) | (neighborhood[SW][0] >>> last);
+                belowRight = (below >>> 1) | (neighborhood[SE][0] << last);
+            }
+
+            // full adders for the rows above and below, and a half adder for the current row
+            long aboveSum = aboveLeft ^ above ^ aboveRight;
+            long aboveCarry = (aboveLeft & above) | (aboveRight & (aboveLeft ^ above));
+            long belowSum = belowLeft ^ below ^ belowRight;
+            long belowCarry = (belowLeft & below) | (belowRight & (belowLeft ^ below));
+            long rowSum = left ^ right;
+            long rowCarry = left & right;
+
+            // add the three sums (ones) and the three carries (twos)
+            long ones = aboveSum ^ belowSum ^ rowSum;
+            long onesCarry = (aboveSum & belowSum) | (rowSum & (aboveSum ^ belowSum));
+            long twos = aboveCarry ^ belowCarry ^ rowCarry;
+            long twosCarry = (aboveCarry & belowCarry) | (rowCarry & (aboveCarry ^ belowCarry));
+
+            // the bit-planes of the neighbor count, from least to most significant
+            long count0 = ones;
+            long count1 = twos ^ onesCarry;
+            long fours = twos & onesCarry;
+            long count2 = twosCarry ^ fours;
+            long count3 = twosCarry & fours;
+
+            if (life)
+            {
+                // alive with 3 neighbors (0011), or with 2 neighbors (0010) if already alive
+                next[r] = ~count3 & ~count2 & count1 & (count0 | row);
+            }
+            else
+            {
+                long born = 0;
+                for (int i = 0; i < births.length; i++)
+                {
+                    born |= matches(births[i], count0, count1, count2, count3);
+                }
+                long survived = 0;
+                for (int i = 0; i < survivals.length; i++)
+                {
+                    survived |= matches(survivals[i], count0, count1, count2, count3);
+                }
+                next[r] = (born & ~row) | (survived & row);
+            }
+
+            above = row;
+            aboveLeft = left;
+            aboveRight = right;
+            row = below;
+            left = belowLeft;
+            right = belowRight;
+        }
+    }
+
+    /**
+     * Finds the cells of a row whose neighbor count is the given count.
+     *
+     * @param count - the neighbor count to match, between 0 and 8
+     * @param count0 - the least significant bit-plane of the neighbor counts of the row
+     * @param count1 - the second bit-plane of the neighbor counts
+     * @param count2 - the third bit-plane of the neighbor counts
+     * @param count3 - the most significant bit-plane of the neighbor counts
+     * @return a word in which the bits of the cells with the given neighbor count are set
+     */
+    private static long matches(int count, long count0, long count1, long count2, long count3)
+    {
+        return ((count & 1) != 0 ? count0 : ~count0) & ((count & 2) != 0 ? count1 : ~count1) &
+                ((count & 4) != 0 ? count2 : ~count2) & ((count & 8) != 0 ? count3 : ~count3);
+    }
+}
@@ -0,0 +1,204 @@
+package grid;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link TileKernel} which looks up the next generation of each 2x2 block of a {@link Tile} in
+ *  a precomputed table.
+ * The next generation of a 2x2 block depends only on the 4x4 block around it, so a table of
+ *  {@code 2^16} entries, indexed by the 16 cells of the 4x4 block, holds the next generation of
+ *  every possible 2x2 block; a Tile is then stepped with one lookup for every four cells,
+ *  regardless of how many of them are alive, which suits the dense regions that Tiles are
+ *  stepped for.
+ * Tables are immutable, generated once per {@link Rule} the first time a Tile is stepped under
+ *  it, and shared by every TableKernel, so the kernel itself holds no state.
+ * Only dense Tiles are looked up: most lookups for a sparse Tile (see {@link #DENSE_POPULATION})
+ *  would be of empty blocks, so it is stepped by a {@link SwarKernel} instead; within a dense
+ *  Tile, pairs of rows with no living cells around them are skipped.
+ */
+public class TableKernel implements TileKernel
+{
+    /**
+     * The table of each rule under which a Tile has been stepped.
+     */
+    private static final ConcurrentHashMap<Rule, Table> TABLES =
+            new ConcurrentHashMap<Rule, Table>();
+
+    /**
+     * The kernel which steps the Tiles which are not dense.
+     */
+    private static final TileKernel SPARSE = new SwarKernel();
+
+    /**
+     * The number of entries in a table: one for every 4x4 block.
+     */
+    private static final int TABLE_SIZE = 1 << 16;
+    /**
+     * The smallest population of a Tile which is stepped with the table: one cell in eight.
+     */
+    public static final int DENSE_POPULATION = Tile.SIZE*Tile.SIZE/8;
+
+    /**
+     * Creates a new TableKernel; tables are generated as rules are first used.
+     */
+    public TableKernel()
+    {
+    }
+
+    /**
+     * Creates a new TableKernel and generates the table of the given rule now, so that the first
+     *  step under it does not.
+     *
+     * @param rule - the rule for which to generate the table
+     */
+    public TableKernel(Rule rule)
+    {
+        table(rule);
+    }
+
+    public void step(long[][] neighborhood, Rule rule, long[] next)
+    {
+        if (Tile.count(neighborhood[CENTER]) < DENSE_POPULATION)
+        {
+            SPARSE.step(neighborhood, rule, next);
+            return;
+        }
+        byte[] results = table(rule).results;
+        boolean emptyStaysEmpty = results[0] == 0;
+
+        long[] center = neighborhood[CENTER];
+        long[] west = neighborhood[W];
+        long[] east = neighborhood[E];
+        int last = Tile.SIZE - 1;
+
+        for (int r = 0; r < Tile.SIZE; r += 2)
+        {
+            // the four rows of the 4x4 blocks, from the row above the pair to the row below it;
+            //  "low" holds columns -1 through 62 in bits 0 through 63, and "high" holds columns 61
+            //  through 64 in bits 0 through 3
+            long low0;
+            long high0;
+            if (r == 0)
+            {
+                long above = neighborhood[N][last];
+                low0 = (above << 1) | (neighborhood[NW][last] >>> last);
+                high0 = (above >>> (last - 2)) | ((neighborhood[NE][last] & 1) << 3);
+            }
+            else
+            {
+                low0 = (center[r - 1] << 1) | (west[r - 1] >>> last);
+                high0 = (center[r - 1] >>> (last - 2)) | ((east[r - 1] & 1) << 3);
+            }
+            long low1 = (center[r] << 1) | (west[r] >>> last);
+            long high1 = (center[r] >>> (last - 2)) | ((east[r] & 1) << 3);
+            long low2 = (center[r + 1] << 1) | (west[r + 1] >>> last);
+            long high2 = (center[r + 1] >>> (last - 2)) | ((east[r + 1] & 1) << 3);
+            long low3;
+            long high3;
+            if (r + 2 == Tile.SIZE)
+            {
+                long below = neighborhood[S][0];
+                low3 = (below << 1) | (neighborhood[SW][0] >>> last);
+                high3 = (below >>> (last - 2)) | ((neighborhood[SE][0] & 1) << 3);
+            }
+            else
+            {
+                low3 = (center[r + 2] << 1) | (west[r + 2] >>> last);
+                high3 = (center[r + 2] >>> (last - 2)) | ((east[r + 2] & 1) << 3);
+            }
+
+            if (emptyStaysEmpty &&
+                    (low0 | low1 | low2 | low3 | high0 | high1 | high2 | high3) == 0)
+            {
+                next[r] = 0;
+                next[r + 1] = 0;
+                continue;
+            }
+
+            long top = 0;
+            long bottom = 0;
+            for (int c = 0; c < Tile.SIZE - 2; c += 2)
+            {
+                // the 4x4 block of columns c-1 through c+2, with bit (4*y + x) for each cell
+                int block = (int) ((low0 >>> c) & 0xF) | (int) (((low1 >>> c) & 0xF) << 4) |
+                        (int) (((low2 >>> c) & 0xF) << 8) | (int) (((low3 >>> c) & 0xF) << 12);
+                int result = results[block];
+                top |= (long) (result & 3) << c;
+                bottom |= (long) (result >>> 2) << c;
+            }
+            int block = (int) high0 | (int) (high1 << 4) | (int) (high2 << 8) | (int) (high3 << 12);
+            int result = results[block];
+            top |= (long) (result & 3) << (Tile.SIZE - 2);
+            bottom |= (long) (result >>> 2) << (Tile.SIZE - 2);
+
+            next[r] = top;
+            next[r + 1] = bottom;
+        }
+    }
+
+    /**
+     * Gets the table of the given rule, generating it if no Tile has been stepped under the rule
+     *  yet.
+     *
+     * @param rule - the rule which determines the next state of each cell
+     * @return the shared table of the rule
+     */
+    private static Table table(Rule rule)
+    {
+        Table table = TABLES.get(rule);
+        if (table == null)
+        {
+            table = new Table(rule);
+            Table existing = TABLES.putIfAbsent(rule, table);
+            if (existing != null)
+            {
+                table = existing;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * The lookup table of a single {@link Rule}.
+     */
+    private static class Table
+    {
+        /**
+         * The next generation of the center 2x2 block of each 4x4 block, indexed by the 4x4 block
+         *  with bit {@code 4*y + x} for the cell at (x,y); bit {@code 2*y + x} of each entry holds
+         *  the cell at {@code (x+1,y+1)}.
+         */
+        private final byte[] results;
+
+        /**
+         * Generates the table of the given rule.
+         *
+         * @param rule - the rule which determines the next state of each cell
+         */
+        Table(Rule rule)
+        {
+            results = new byte[TABLE_SIZE];
+            for (int block = 0; block < TABLE_SIZE; block++)
+            {
+                int result = 0;
+                for (int c = 0; c < 4; c++)
+                {
+                    // the 3x3 neighborhood of the cell at (x,y), with bit (3*dy + dx) for the
+                    //  cell at (x + dx - 1, y + dy - 1)
+                    int x = 1 + c % 2;
+                    int y = 1 + c / 2;
+                    int neighborhood = 0;
+                    for (int dy = 0; dy < 3; dy++)
+                    {
+                        neighborhood |= ((block >>> (4*(y + dy - 1) + x - 1)) & 7) << (3*dy);
+                    }
+                    if (rule.nextCenter(neighborhood))
+                    {
+                        result |= 1 << c;
+                    }
+                }
+                results[block] = (byte) result;
+            }
+        }
+    }
+}
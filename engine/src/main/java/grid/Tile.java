@@ -0,0 +1,252 @@
+package grid;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A square block of {@link #SIZE} by {@link #SIZE} cells stored as a bitboard.
+ * Each row of the Tile is a single {@code long}: bit {@code c} of {@code rows[r]} holds the
+ *  cell at {@code (SIZE*x + c, SIZE*y + r)}, where {@code (x, y)} are the coordinates of the
+ *  Tile itself.
+ * A Tile holds the two most recent generations of its block (the current and previous ones),
+ *  by parity, so that a block which oscillates with period 2 can be advanced without computing
+ *  anything.
+ * Tiles are used by the {@link TiledEngine}, which keeps only the Tiles with living cells in
+ *  either generation.
+ * Besides its rows, each phase has some bookkeeping (its population, the number of cells which
+ *  differ from the other phase, and the version of its contents); subclasses decide where all of
+ *  these are stored: a {@link HeapTile} in arrays on the heap, an {@link ArenaTile} in a
+ *  {@link TileArena}.
+ */
+public abstract class Tile
+{
+    /**
+     * The width and height of a Tile, in cells; the number of bits in a {@code long}.
+     */
+    public static final int SIZE = 64;
+    /**
+     * The base-2 logarithm of {@link #SIZE}, used to convert cell coordinates to Tile
+     *  coordinates.
+     */
+    public static final int SHIFT = 6;
+    /**
+     * A Tile-sized array of rows with no living cells; it must never be modified.
+     */
+    static final long[] EMPTY_ROWS = new long[SIZE];
+
+    /**
+     * The x-coordinate of this Tile, in Tiles.
+     */
+    final int x;
+    /**
+     * The y-coordinate of this Tile, in Tiles.
+     */
+    final int y;
+    /**
+     * The packed coordinates of this Tile, from {@link PackedCell#pack(int, int)}.
+     */
+    final long key;
+
+    /**
+     * The source of the versions of every Tile of every engine (see {@link #newVersion()}), so
+     *  that no two contents of Tiles at the same coordinates ever have the same version.
+     */
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    /**
+     * Creates a new Tile at the given coordinates.
+     * Subclasses must make the Tile empty in both phases, and give each phase a new version with
+     *  {@link #touch(int)}.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     */
+    Tile(int x, int y)
+    {
+        this.x = x;
+        this.y = y;
+        key = PackedCell.pack(x, y);
+    }
+
+    /**
+     * Gets the x-coordinate of this Tile, in Tiles.
+     *
+     * @return the x-coordinate of this Tile
+     */
+    public int getX()
+    {
+        return x;
+    }
+
+    /**
+     * Gets the y-coordinate of this Tile, in Tiles.
+     *
+     * @return the y-coordinate of this Tile
+     */
+    public int getY()
+    {
+        return y;
+    }
+
+    /**
+     * Gets the number of living cells in this Tile in the given phase.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @return the population of this Tile in the phase
+     */
+    public abstract int getPopulation(int phase);
+
+    /**
+     * Adds the given amount to the population of this Tile in the given phase, after its rows
+     *  have been modified.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @param delta - the change in the number of living cells
+     */
+    abstract void addPopulation(int phase, int delta);
+
+    /**
+     * Gets the number of living cells of this Tile in the given phase whose cell is dead in the
+     *  other phase; these are maintained by the {@link TiledEngine}, which uses them to count
+     *  births and deaths.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @return the number of cells alive only in the phase
+     */
+    abstract int getDifferences(int phase);
+
+    /**
+     * Adds the given amount to the number of living cells of this Tile in the given phase whose
+     *  cell is dead in the other phase; see {@link #getDifferences(int)}.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @param delta - the change in the number of cells alive only in the phase
+     */
+    abstract void addDifferences(int phase, int delta);
+
+    /**
+     * Gets the version of the contents of this Tile in the given phase.
+     * The version changes whenever the phase is modified, and never returns to an earlier value,
+     *  so whatever is derived from the contents of a Tile (such as an image of it) remains valid
+     *  for as long as the version is the same.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @return the version of the phase
+     */
+    public abstract long getVersion(int phase);
+
+    /**
+     * Sets the version of the contents of this Tile in the given phase.
+     * This is either a new version from {@link #touch(int)}, or the version of a Tile whose
+     *  contents were copied into the phase.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @param version - the version of the phase
+     */
+    abstract void setVersion(int phase, long version);
+
+    /**
+     * Gets a single row of this Tile in the given phase.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @param r - the index of the row
+     * @return the row, with bit {@code c} set if the cell in column {@code c} is alive
+     */
+    abstract long row(int phase, int r);
+
+    /**
+     * Gets all the rows of this Tile in the given phase, which must not be modified.
+     * The rows are returned directly if they are stored in an array; otherwise they are read into
+     *  the given array.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @param scratch - an array of {@link #SIZE} rows into which the rows may be read
+     * @return the rows of the phase: either the given array or another
+     */
+    abstract long[] rows(int phase, long[] scratch);
+
+    /**
+     * Sets a single row of this Tile in the given phase.
+     * The population of the phase is not updated.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @param r - the index of the row
+     * @param row - the new row
+     */
+    abstract void setRow(int phase, int r, long row);
+
+    /**
+     * Replaces the rows of this Tile in the given phase.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @param rows - the new rows, which are no longer modified by the caller
+     * @param population - the number of living cells in the rows
+     */
+    abstract void set(int phase, long[] rows, int population);
+
+    /**
+     * Gives the given phase a new version, after its rows have been modified.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     */
+    void touch(int phase)
+    {
+        setVersion(phase, newVersion());
+    }
+
+    /**
+     * Gets a version which no contents of any Tile have had yet.
+     * This is also used by engines which do not store Tiles, but can present Tile-sized blocks
+     *  of immutable contents through a {@link TileView}.
+     *
+     * @return a new version
+     */
+    static long newVersion()
+    {
+        return VERSIONS.incrementAndGet();
+    }
+
+    /**
+     * Freezes the contents of this Tile in the given phase for a {@link Snapshot}.
+     * The rows are shared with the returned Tile (and copied before this Tile next modifies them)
+     *  if possible; otherwise they are copied.
+     *
+     * @param phase - the parity of the generation, 0 or 1
+     * @return a Tile at the same coordinates whose phase 0 holds the contents of the phase, and
+     *  which will never be modified
+     */
+    abstract Tile freeze(int phase);
+
+    /**
+     * Releases any storage held by this Tile outside of the heap, after it has been removed from
+     *  its engine; the Tile must not be used afterwards.
+     */
+    void free()
+    {
+    }
+
+    /**
+     * Determines whether this Tile is empty in both phases, in which case it is not needed.
+     *
+     * @return true if this Tile has no living cells in either phase, false otherwise
+     */
+    boolean isEmpty()
+    {
+        return getPopulation(0) == 0 && getPopulation(1) == 0;
+    }
+
+    /**
+     * Counts the number of living cells in the given rows.
+     *
+     * @param rows - the rows of a Tile
+     * @return the number of bits set in the rows
+     */
+    static int count(long[] rows)
+    {
+        int population = 0;
+        for (int r = 0; r < SIZE; r++)
+        {
+            population += Long.bitCount(rows[r]);
+        }
+        return population;
+    }
+}
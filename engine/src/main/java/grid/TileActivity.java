@@ -0,0 +1,32 @@
+package grid;
+
+/**
+ * Implemented by {@link Engine}s which store their cells in {@link Tile}s and step only the
+ *  Tiles near changes, so that how much of the universe is actually simulated can be shown.
+ *
+ * @see TiledEngine
+ */
+public interface TileActivity
+{
+    /**
+     * Gets the number of Tiles currently allocated.
+     *
+     * @return the number of Tiles with living cells
+     */
+    public int getTileCount();
+
+    /**
+     * Gets the number of Tile positions which were stepped in the last generation.
+     *
+     * @return the number of active Tiles in the last generation
+     */
+    public int getActiveTiles();
+
+    /**
+     * Gets the number of Tiles which were carried forward without being stepped in the last
+     *  generation.
+     *
+     * @return the number of dormant Tiles in the last generation
+     */
+    public int getDormantTiles();
+}
@@ -0,0 +1,383 @@
+package grid;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.HashSet;
+
+/**
+ * Storage for {@link Tile}s outside of the Java heap.
+ * The arena is made of chunks of direct memory, each divided into blocks which hold a single
+ *  phase of a Tile: a header with its bookkeeping (see {@link #POPULATION}, {@link #DIFFERENCES}
+ *  and {@link #VERSION}) followed by its {@link Tile#SIZE} rows (544 bytes in all).
+ * Blocks are identified by an {@code int} index and recycled through a free-list, so the garbage
+ *  collector never sees the cells themselves.
+ * Chunks are allocated as the arena grows and kept until the arena is discarded, so a universe
+ *  which shrinks and grows again reuses the same memory.
+ * Each block counts its references: the Tile which owns it, and any {@link Snapshot}s which share
+ *  its rows (see {@link #share(int, Object)}).
+ * A shared block is never modified; its owner writes into a copy instead, and the block is freed
+ *  once the Snapshots sharing it have been garbage collected.
+ * An arena is not thread-safe, but any number of threads may read from it while it is not
+ *  modified, and shared blocks may be read at any time.
+ *
+ * @see TiledEngine#TiledEngine(TileKernel, TileArena)
+ */
+public class TileArena
+{
+    /**
+     * The index in the header of a block of its population.
+     */
+    static final int POPULATION = 0;
+    /**
+     * The index in the header of a block of the number of its cells which are dead in the other
+     *  phase of its Tile.
+     */
+    static final int DIFFERENCES = 1;
+    /**
+     * The index in the header of a block of the version of its contents.
+     */
+    static final int VERSION = 2;
+    /**
+     * The index in the header of a block of the number of its references.
+     */
+    private static final int REFERENCES = 3;
+    /**
+     * The number of {@code long}s in the header of a block.
+     */
+    private static final int HEADER = 4;
+    /**
+     * The number of {@code long}s in a block: the header and the rows.
+     */
+    private static final int BLOCK_LONGS = HEADER + Tile.SIZE;
+
+    /**
+     * The base-2 logarithm of the number of blocks in a chunk.
+     */
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_BLOCKS = 1 << CHUNK_SHIFT;
+    /**
+     * The size of a chunk in bytes: a little over 2 MB.
+     */
+    protected static final int CHUNK_BYTES = CHUNK_BLOCKS*BLOCK_LONGS*8;
+
+    private LongBuffer[] chunks;
+    private int chunkCount;
+    /**
+     * The index of the first block which has never been allocated.
+     */
+    private int next;
+    /**
+     * The stack of freed blocks, which are allocated before any new block.
+     */
+    private int[] free;
+    private int freeCount;
+
+    /**
+     * The references to the holders of shared blocks which have not yet been garbage collected,
+     *  and the queue to which they are added once they have.
+     */
+    private final HashSet<BlockReference> holders;
+    private final ReferenceQueue<Object> collected;
+
+    /**
+     * Creates a new, empty TileArena; no memory is allocated until the first block is.
+     */
+    public TileArena()
+    {
+        chunks = new LongBuffer[16];
+        chunkCount = 0;
+        next = 0;
+        free = new int[64];
+        freeCount = 0;
+        holders = new HashSet<BlockReference>();
+        collected = new ReferenceQueue<Object>();
+    }
+
+    /**
+     * Gets the number of blocks which are currently allocated.
+     *
+     * @return the number of blocks in use
+     */
+    public int getBlockCount()
+    {
+        return next - freeCount;
+    }
+
+    /**
+     * Gets the amount of memory reserved by this arena.
+     *
+     * @return the total size of the arena's chunks, in bytes
+     */
+    public long getReservedBytes()
+    {
+        return (long) chunkCount*CHUNK_BYTES;
+    }
+
+    /**
+     * Allocates a block with its header and all of its rows cleared, referenced only by its
+     *  caller.
+     * The blocks of garbage collected Snapshots are released first, so that they can be reused.
+     *
+     * @return the index of the new block
+     */
+    public int allocate()
+    {
+        reclaim();
+
+        int block;
+        if (freeCount > 0)
+        {
+            block = free[--freeCount];
+        }
+        else
+        {
+            if (next >> CHUNK_SHIFT == chunkCount)
+            {
+                addChunk();
+            }
+            block = next++;
+        }
+
+        LongBuffer chunk = chunks[block >> CHUNK_SHIFT];
+        int offset = offset(block);
+        for (int i = 0; i < BLOCK_LONGS; i++)
+        {
+            chunk.put(offset + i, 0);
+        }
+        chunk.put(offset + REFERENCES, 1);
+        return block;
+    }
+
+    /**
+     * Allocates a new block holding a copy of the given block, referenced only by its caller.
+     *
+     * @param block - the index of the block to copy
+     * @return the index of the new block
+     */
+    public int copy(int block)
+    {
+        int copy = allocate();
+        LongBuffer from = chunks[block >> CHUNK_SHIFT];
+        LongBuffer to = chunks[copy >> CHUNK_SHIFT];
+        int source = offset(block);
+        int destination = offset(copy);
+        for (int i = 0; i < BLOCK_LONGS; i++)
+        {
+            if (i != REFERENCES)
+            {
+                to.put(destination + i, from.get(source + i));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Adds a reference to the given block on behalf of the given holder, typically an object of a
+     *  {@link Snapshot}.
+     * The reference is released automatically once the holder has been garbage collected, at
+     *  which point the block is freed if it has no other references.
+     *
+     * @param block - the index of the block to share
+     * @param holder - the object which reads the block for as long as it is reachable
+     */
+    public void share(int block, Object holder)
+    {
+        setField(block, REFERENCES, getField(block, REFERENCES) + 1);
+        holders.add(new BlockReference(holder, collected, block));
+    }
+
+    /**
+     * Determines whether the given block has references other than its owner's, in which case it
+     *  must not be modified.
+     *
+     * @param block - the index of the block
+     * @return true if the block is shared, false if only its owner references it
+     */
+    public boolean isShared(int block)
+    {
+        return getField(block, REFERENCES) > 1;
+    }
+
+    /**
+     * Removes a reference to the given block, freeing it if that was its last reference.
+     *
+     * @param block - the index of a block allocated by this arena, which the caller must no
+     *  longer use
+     */
+    public void release(int block)
+    {
+        long references = getField(block, REFERENCES) - 1;
+        setField(block, REFERENCES, references);
+        if (references == 0)
+        {
+            free(block);
+        }
+    }
+
+    /**
+     * Releases the references of the holders which have been garbage collected since this was
+     *  last called.
+     */
+    public void reclaim()
+    {
+        Reference<?> reference;
+        while ((reference = collected.poll()) != null)
+        {
+            holders.remove(reference);
+            release(((BlockReference) reference).block);
+        }
+    }
+
+    /**
+     * Returns the given block to the free-list.
+     *
+     * @param block - the index of a block allocated by this arena, which must no longer be used
+     */
+    private void free(int block)
+    {
+        if (freeCount == free.length)
+        {
+            int[] grown = new int[free.length*2];
+            System.arraycopy(free, 0, grown, 0, freeCount);
+            free = grown;
+        }
+        free[freeCount++] = block;
+    }
+
+    /**
+     * Gets a field of the header of the given block.
+     *
+     * @param block - the index of the block
+     * @param field - the index of the field, such as {@link #POPULATION}
+     * @return the value of the field
+     */
+    long getField(int block, int field)
+    {
+        return chunks[block >> CHUNK_SHIFT].get(offset(block) + field);
+    }
+
+    /**
+     * Sets a field of the header of the given block.
+     *
+     * @param block - the index of the block
+     * @param field - the index of the field, such as {@link #POPULATION}
+     * @param value - the new value of the field
+     */
+    void setField(int block, int field, long value)
+    {
+        chunks[block >> CHUNK_SHIFT].put(offset(block) + field, value);
+    }
+
+    /**
+     * Gets a single row of the given block.
+     *
+     * @param block - the index of the block
+     * @param r - the index of the row
+     * @return the row
+     */
+    public long get(int block, int r)
+    {
+        return chunks[block >> CHUNK_SHIFT].get(offset(block) + HEADER + r);
+    }
+
+    /**
+     * Sets a single row of the given block.
+     *
+     * @param block - the index of the block, which must not be shared
+     * @param r - the index of the row
+     * @param row - the new row
+     */
+    public void set(int block, int r, long row)
+    {
+        chunks[block >> CHUNK_SHIFT].put(offset(block) + HEADER + r, row);
+    }
+
+    /**
+     * Reads all the rows of the given block into the given array.
+     *
+     * @param block - the index of the block
+     * @param rows - an array of {@link Tile#SIZE} rows
+     */
+    public void read(int block, long[] rows)
+    {
+        LongBuffer chunk = chunks[block >> CHUNK_SHIFT];
+        int offset = offset(block) + HEADER;
+        for (int r = 0; r < Tile.SIZE; r++)
+        {
+            rows[r] = chunk.get(offset + r);
+        }
+    }
+
+    /**
+     * Writes all the rows of the given block from the given array.
+     *
+     * @param block - the index of the block, which must not be shared
+     * @param rows - an array of {@link Tile#SIZE} rows
+     */
+    public void write(int block, long[] rows)
+    {
+        LongBuffer chunk = chunks[block >> CHUNK_SHIFT];
+        int offset = offset(block) + HEADER;
+        for (int r = 0; r < Tile.SIZE; r++)
+        {
+            chunk.put(offset + r, rows[r]);
+        }
+    }
+
+    /**
+     * Creates the memory for a new chunk.
+     * By default this is direct memory; subclasses may provide memory from elsewhere.
+     *
+     * @param index - the index of the chunk, starting from 0
+     * @return a buffer of {@link #CHUNK_BYTES} bytes
+     */
+    protected ByteBuffer createChunk(int index)
+    {
+        return ByteBuffer.allocateDirect(CHUNK_BYTES);
+    }
+
+    /**
+     * Adds a new chunk to the end of the arena.
+     */
+    private void addChunk()
+    {
+        if (chunkCount == chunks.length)
+        {
+            LongBuffer[] grown = new LongBuffer[chunks.length*2];
+            System.arraycopy(chunks, 0, grown, 0, chunkCount);
+            chunks = grown;
+        }
+        chunks[chunkCount] = createChunk(chunkCount).order(ByteOrder.nativeOrder()).asLongBuffer();
+        chunkCount++;
+    }
+
+    /**
+     * Gets the position of the given block within its chunk.
+     *
+     * @param block - the index of the block
+     * @return the index of the first {@code long} of the block's header in its chunk
+     */
+    private static int offset(int block)
+    {
+        return (block & (CHUNK_BLOCKS - 1))*BLOCK_LONGS;
+    }
+
+    /**
+     * A reference to the holder of a shared block, which is enqueued once the holder has been
+     *  garbage collected.
+     */
+    private static class BlockReference extends PhantomReference<Object>
+    {
+        private final int block;
+
+        BlockReference(Object holder, ReferenceQueue<Object> queue, int block)
+        {
+            super(holder, queue);
+            this.block = block;
+        }
+    }
+}
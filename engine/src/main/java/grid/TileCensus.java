@@ -0,0 +1,20 @@
+package grid;
+
+/**
+ * Implemented by {@link Snapshot}s which can count the living cells of each {@link Tile}-sized
+ *  block without visiting the cells one at a time, so that a {@link PopulationPyramid} of a very
+ *  large universe can be built quickly.
+ */
+interface TileCensus
+{
+    /**
+     * Adds the number of living cells in each non-empty block of {@link Tile#SIZE} by
+     *  {@link Tile#SIZE} cells to the given table.
+     * The blocks are aligned to multiples of {@link Tile#SIZE} and keyed by their packed
+     *  coordinates in blocks, that is {@code PackedCell.pack(x >> Tile.SHIFT, y >> Tile.SHIFT)}
+     *  for a cell at (x,y).
+     *
+     * @param populations - the table to which to add the population of each block
+     */
+    public void countTiles(NeighborTable populations);
+}
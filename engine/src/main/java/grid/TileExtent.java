@@ -0,0 +1,242 @@
+package grid;
+
+import java.util.TreeMap;
+
+/**
+ * The bounding box of the living cells in one phase of the {@link Tile}s of a
+ *  {@link TiledEngine}, maintained as Tiles change rather than recomputed from all of them.
+ * The number of Tiles with living cells in each column and each row of Tiles is counted, so the
+ *  extreme columns and rows of Tiles are always known; the extreme cells within them are found by
+ *  reading only the Tiles on that border, and remembered until a Tile on the border changes.
+ * The engine must report every Tile whose contents change in the phase, through
+ *  {@link #add(int, int)}, {@link #remove(int, int)} and {@link #change(int, int)}; Tiles which
+ *  are not stepped or edited cost nothing.
+ */
+class TileExtent
+{
+    /**
+     * The number of Tiles with living cells in each column and row of Tiles which has any.
+     */
+    private final TreeMap<Integer, Integer> columns;
+    private final TreeMap<Integer, Integer> rows;
+
+    /**
+     * The extreme cells found on each border, and the column or row of Tiles in which each was
+     *  found; a border is found again when a Tile in it changes, or when it moves to another
+     *  column or row.
+     */
+    private long left;
+    private long right;
+    private long top;
+    private long bottom;
+    private int leftColumn;
+    private int rightColumn;
+    private int topRow;
+    private int bottomRow;
+    private boolean leftValid;
+    private boolean rightValid;
+    private boolean topValid;
+    private boolean bottomValid;
+
+    /**
+     * Creates a new TileExtent of a phase with no living cells.
+     */
+    TileExtent()
+    {
+        columns = new TreeMap<Integer, Integer>();
+        rows = new TreeMap<Integer, Integer>();
+    }
+
+    /**
+     * Records that the Tile at the given coordinates has gained living cells in this phase, where
+     *  it had none.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     */
+    void add(int x, int y)
+    {
+        count(columns, x, 1);
+        count(rows, y, 1);
+        change(x, y);
+    }
+
+    /**
+     * Records that the Tile at the given coordinates has lost all of its living cells in this
+     *  phase.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     */
+    void remove(int x, int y)
+    {
+        count(columns, x, -1);
+        count(rows, y, -1);
+        change(x, y);
+    }
+
+    /**
+     * Records that the living cells of the Tile at the given coordinates have changed in this
+     *  phase; only a Tile on a border of the extent needs to be read again.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     */
+    void change(int x, int y)
+    {
+        leftValid &= x != leftColumn;
+        rightValid &= x != rightColumn;
+        topValid &= y != topRow;
+        bottomValid &= y != bottomRow;
+    }
+
+    /**
+     * Gets the bounding box of the living cells in this phase of the given Tiles, reading only the
+     *  Tiles on the borders which have changed since this was last called.
+     *
+     * @param tiles - the table of Tiles whose changes have all been recorded
+     * @param phase - the phase of the Tiles which this TileExtent follows
+     * @return a new bounding box of the living cells, or null if there are none
+     */
+    Bounds getBounds(TileTable tiles, int phase)
+    {
+        if (columns.isEmpty())
+        {
+            return null;
+        }
+
+        long[] scratch = new long[Tile.SIZE];
+        if (!leftValid || leftColumn != columns.firstKey())
+        {
+            leftColumn = columns.firstKey();
+            left = Long.MAX_VALUE;
+            for (Integer y : rows.keySet())
+            {
+                long alive = columns(tiles.get(leftColumn, y), phase, scratch);
+                if (alive != 0)
+                {
+                    left = Math.min(left, Long.numberOfTrailingZeros(alive));
+                }
+            }
+            left += (long) leftColumn << Tile.SHIFT;
+            leftValid = true;
+        }
+        if (!rightValid || rightColumn != columns.lastKey())
+        {
+            rightColumn = columns.lastKey();
+            right = Long.MIN_VALUE;
+            for (Integer y : rows.keySet())
+            {
+                long alive = columns(tiles.get(rightColumn, y), phase, scratch);
+                if (alive != 0)
+                {
+                    right = Math.max(right, Tile.SIZE - 1 - Long.numberOfLeadingZeros(alive));
+                }
+            }
+            right += (long) rightColumn << Tile.SHIFT;
+            rightValid = true;
+        }
+        if (!topValid || topRow != rows.firstKey())
+        {
+            topRow = rows.firstKey();
+            top = Long.MAX_VALUE;
+            for (Integer x : columns.keySet())
+            {
+                Tile tile = tiles.get(x, topRow);
+                if (tile != null && tile.getPopulation(phase) != 0)
+                {
+                    long[] cells = tile.rows(phase, scratch);
+                    int r = 0;
+                    while (cells[r] == 0)
+                    {
+                        r++;
+                    }
+                    top = Math.min(top, r);
+                }
+            }
+            top += (long) topRow << Tile.SHIFT;
+            topValid = true;
+        }
+        if (!bottomValid || bottomRow != rows.lastKey())
+        {
+            bottomRow = rows.lastKey();
+            bottom = Long.MIN_VALUE;
+            for (Integer x : columns.keySet())
+            {
+                Tile tile = tiles.get(x, bottomRow);
+                if (tile != null && tile.getPopulation(phase) != 0)
+                {
+                    long[] cells = tile.rows(phase, scratch);
+                    int r = Tile.SIZE - 1;
+                    while (cells[r] == 0)
+                    {
+                        r--;
+                    }
+                    bottom = Math.max(bottom, r);
+                }
+            }
+            bottom += (long) bottomRow << Tile.SHIFT;
+            bottomValid = true;
+        }
+
+        return new Bounds((int) left, (int) top, (int) (right - left + 1),
+                (int) (bottom - top + 1));
+    }
+
+    /**
+     * Forgets all Tiles, as when the phase has no living cells.
+     */
+    void clear()
+    {
+        columns.clear();
+        rows.clear();
+        leftValid = false;
+        rightValid = false;
+        topValid = false;
+        bottomValid = false;
+    }
+
+    /**
+     * Adds the given amount to the count of the given column or row of Tiles, removing it once
+     *  its count is 0.
+     *
+     * @param counts - the counts of the columns or rows
+     * @param index - the coordinate of the column or row, in Tiles
+     * @param delta - the change in the number of Tiles with living cells in it
+     */
+    private static void count(TreeMap<Integer, Integer> counts, int index, int delta)
+    {
+        Integer count = counts.get(index);
+        int updated = (count == null ? 0 : count) + delta;
+        if (updated == 0)
+        {
+            counts.remove(index);
+        }
+        else
+        {
+            counts.put(index, updated);
+        }
+    }
+
+    /**
+     * Gets the columns of the given Tile with living cells in the given phase.
+     *
+     * @param tile - a Tile, or null
+     * @param phase - the parity of the generation, 0 or 1
+     * @param scratch - an array of {@link Tile#SIZE} rows into which the rows may be read
+     * @return a mask of the columns with living cells, 0 if there is no Tile
+     */
+    private static long columns(Tile tile, int phase, long[] scratch)
+    {
+        long alive = 0;
+        if (tile != null && tile.getPopulation(phase) != 0)
+        {
+            long[] cells = tile.rows(phase, scratch);
+            for (int r = 0; r < Tile.SIZE; r++)
+            {
+                alive |= cells[r];
+            }
+        }
+        return alive;
+    }
+}
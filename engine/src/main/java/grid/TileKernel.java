@@ -0,0 +1,58 @@
+package grid;
+
+/**
+ * Computes the next generation of a single {@link Tile} from the current generation of the Tile
+ *  and its eight neighbors, under a given {@link Rule}.
+ * Kernels must be stateless, so that a single kernel may step many Tiles at once from different
+ *  threads.
+ */
+public interface TileKernel
+{
+    /**
+     * The index of the north-west (top-left) neighbor in a neighborhood.
+     */
+    public static final int NW = 0;
+    /**
+     * The index of the north (top) neighbor in a neighborhood.
+     */
+    public static final int N = 1;
+    /**
+     * The index of the north-east (top-right) neighbor in a neighborhood.
+     */
+    public static final int NE = 2;
+    /**
+     * The index of the west (left) neighbor in a neighborhood.
+     */
+    public static final int W = 3;
+    /**
+     * The index of the Tile being stepped in a neighborhood.
+     */
+    public static final int CENTER = 4;
+    /**
+     * The index of the east (right) neighbor in a neighborhood.
+     */
+    public static final int E = 5;
+    /**
+     * The index of the south-west (bottom-left) neighbor in a neighborhood.
+     */
+    public static final int SW = 6;
+    /**
+     * The index of the south (bottom) neighbor in a neighborhood.
+     */
+    public static final int S = 7;
+    /**
+     * The index of the south-east (bottom-right) neighbor in a neighborhood.
+     */
+    public static final int SE = 8;
+
+    /**
+     * Computes the next generation of the center Tile of the given neighborhood.
+     *
+     * @param neighborhood - the rows of the Tile and its neighbors, indexed by {@link #NW} through
+     *  {@link #SE}; missing neighbors are given as {@link Tile#EMPTY_ROWS}
+     * @param rule - the rule which determines the next state of each cell
+     * @param next - the array of {@link Tile#SIZE} rows into which the next generation of the
+     *  center Tile is written
+     */
+    public void step(long[][] neighborhood, Rule rule, long[] next);
+}
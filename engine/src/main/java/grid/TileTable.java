@@ -0,0 +1,309 @@
+package grid;
+
+import java.util.Arrays;
+
+/**
+ * A hash table of {@link Tile}s keyed by their coordinates.
+ * The table uses open addressing with linear probing on the Tiles' packed keys, so a lookup does
+ *  not box the key or allocate an entry object.
+ * The table is traversed by slot index:
+ * <pre>
+ * for (int i = 0; i < table.capacity(); i++)
+ * {
+ *     Tile tile = table.tile(i);
+ *     if (tile != null)
+ *     {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * The table must not be modified during such a traversal.
+ * The slots are divided into pages, which a table shares with its copies (see {@link #copy()})
+ *  until either of them modifies the page, so that a table which is copied after every few
+ *  changes (as for each {@link Snapshot} of a {@link TiledEngine}) only copies the pages which
+ *  changed.
+ */
+public class TileTable
+{
+    /**
+     * The slots of the table, by page.
+     */
+    private Tile[][] pages;
+    /**
+     * Whether each page belongs to this table alone, so that it may be modified in place; pages
+     *  which are shared with a copy are copied before they are modified.
+     */
+    private boolean[] owned;
+
+    private int size;
+    private int mask;
+    /**
+     * The base-2 logarithm of the number of slots in a page.
+     */
+    private int pageShift;
+
+    /**
+     * The smallest capacity of a TileTable; must be a power of 2.
+     */
+    private static final int MIN_CAPACITY = 16;
+    /**
+     * The largest capacity of a TileTable, beyond which the size of its arrays would overflow.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * The base-2 logarithm of the largest number of slots in a page.
+     */
+    private static final int PAGE_SHIFT = 10;
+
+    /**
+     * Creates a new, empty TileTable with enough room for the given number of Tiles before it
+     *  has to grow.
+     *
+     * @param expected - the expected number of Tiles
+     */
+    public TileTable(int expected)
+    {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2*expected && capacity < MAX_CAPACITY)
+        {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+        size = 0;
+    }
+
+    /**
+     * Creates a copy of the given table, which shares all of its pages.
+     *
+     * @param table - the table to copy
+     */
+    private TileTable(TileTable table)
+    {
+        pages = table.pages.clone();
+        owned = new boolean[pages.length];
+        size = table.size;
+        mask = table.mask;
+        pageShift = table.pageShift;
+    }
+
+    /**
+     * Creates a copy of this table.
+     * The copy shares the pages of this table until either of them modifies them, so this only
+     *  takes time in proportion to the number of pages; both tables may be modified
+     *  independently afterwards.
+     *
+     * @return a new TileTable with the same Tiles
+     */
+    public TileTable copy()
+    {
+        Arrays.fill(owned, false);
+        return new TileTable(this);
+    }
+
+    /**
+     * Gets the Tile at the given Tile coordinates.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     * @return the Tile at (x,y), or null if there is no such Tile in the table
+     */
+    public Tile get(int x, int y)
+    {
+        return get(PackedCell.pack(x, y));
+    }
+
+    /**
+     * Gets the Tile with the given packed coordinates.
+     *
+     * @param key - the packed coordinates of the Tile
+     * @return the Tile with the given key, or null if there is no such Tile in the table
+     */
+    public Tile get(long key)
+    {
+        int i = slot(key);
+        Tile tile;
+        while ((tile = tile(i)) != null)
+        {
+            if (tile.key == key)
+            {
+                return tile;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Adds the given Tile to the table, replacing any Tile with the same coordinates.
+     *
+     * @param tile - the Tile to add
+     * @throws IllegalStateException if the Tile is new and the table has reached its maximum
+     *  capacity
+     */
+    public void put(Tile tile)
+    {
+        int i = slot(tile.key);
+        Tile existing;
+        while ((existing = tile(i)) != null)
+        {
+            if (existing.key == tile.key)
+            {
+                store(i, tile);
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        // at the maximum capacity, one slot is always left empty to end the probe sequences
+        if (size == mask)
+        {
+            throw new IllegalStateException("TileTable is full: " + size + " Tiles");
+        }
+        store(i, tile);
+        if (++size > capacity()/2 && capacity() < MAX_CAPACITY)
+        {
+            grow();
+        }
+    }
+
+    /**
+     * Removes the Tile with the given packed coordinates from the table, if there is one.
+     * The following Tiles in the probe sequence are shifted back so that no tombstones are
+     *  needed.
+     *
+     * @param key - the packed coordinates of the Tile to remove
+     */
+    public void remove(long key)
+    {
+        int i = slot(key);
+        while (tile(i) != null && tile(i).key != key)
+        {
+            i = (i + 1) & mask;
+        }
+        if (tile(i) == null)
+        {
+            return;
+        }
+
+        store(i, null);
+        size--;
+
+        int j = (i + 1) & mask;
+        Tile tile;
+        while ((tile = tile(j)) != null)
+        {
+            int home = slot(tile.key);
+            // move the Tile back if its home slot is not cyclically between the hole and it
+            if (((j - home) & mask) >= ((j - i) & mask))
+            {
+                store(i, tile);
+                store(j, null);
+                i = j;
+            }
+            j = (j + 1) & mask;
+        }
+    }
+
+    /**
+     * Gets the number of Tiles in the table.
+     *
+     * @return the number of Tiles
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Gets the number of slots in the table, which is the upper bound for slot indices.
+     *
+     * @return the current capacity of the table
+     */
+    public int capacity()
+    {
+        return mask + 1;
+    }
+
+    /**
+     * Gets the Tile in the given slot.
+     *
+     * @param slot - the index of the slot
+     * @return the Tile in the slot, or null if the slot is empty
+     */
+    public Tile tile(int slot)
+    {
+        return pages[slot >>> pageShift][slot & ((1 << pageShift) - 1)];
+    }
+
+    /**
+     * Stores the given Tile in the given slot, first copying the slot's page if it is shared with
+     *  a copy of this table.
+     *
+     * @param slot - the index of the slot
+     * @param tile - the Tile to store, or null to empty the slot
+     */
+    private void store(int slot, Tile tile)
+    {
+        int page = slot >>> pageShift;
+        if (!owned[page])
+        {
+            pages[page] = pages[page].clone();
+            owned[page] = true;
+        }
+        pages[page][slot & ((1 << pageShift) - 1)] = tile;
+    }
+
+    /**
+     * Replaces the slots of this table with the given number of empty slots.
+     *
+     * @param capacity - the new capacity of the table, a power of 2
+     */
+    private void allocate(int capacity)
+    {
+        mask = capacity - 1;
+        pageShift = Math.min(PAGE_SHIFT, Integer.numberOfTrailingZeros(capacity));
+        pages = new Tile[capacity >>> pageShift][1 << pageShift];
+        owned = new boolean[pages.length];
+        Arrays.fill(owned, true);
+    }
+
+    /**
+     * Gets the home slot of the given key.
+     *
+     * @param key - the packed coordinates of a Tile
+     * @return the first slot to probe for the key
+     */
+    private int slot(long key)
+    {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    /**
+     * Doubles the capacity of the table, rehashing all of its Tiles.
+     */
+    private void grow()
+    {
+        Tile[][] old = pages;
+        allocate(2*capacity());
+
+        for (int p = 0; p < old.length; p++)
+        {
+            for (int i = 0; i < old[p].length; i++)
+            {
+                Tile tile = old[p][i];
+                if (tile != null)
+                {
+                    int j = slot(tile.key);
+                    while (tile(j) != null)
+                    {
+                        j = (j + 1) & mask;
+                    }
+                    store(j, tile);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package grid;
+
+/**
+ * A {@link Snapshot} whose cells are stored in {@link Tile}s (or in Tile-sized blocks, such as
+ *  the Nodes of a {@link HashLifeEngine}), which can be read a whole Tile at a time along with
+ *  the version of each Tile's contents.
+ * Since a Tile's version only changes when the engine modifies the Tile, whatever is derived from
+ *  a Tile (such as its rendered image) can be cached by its coordinates and reused for as long
+ *  as later Snapshots report the same version.
+ */
+public interface TileView extends Snapshot
+{
+    /**
+     * Visits the non-empty Tiles which intersect the given area.
+     * The order in which the Tiles are visited is unspecified.
+     *
+     * @param area - the area in which to visit Tiles, in cell coordinates
+     * @param visitor - the visitor to call with the coordinates, version and rows of each Tile
+     */
+    public void visitTiles(Bounds area, TileVisitor visitor);
+}
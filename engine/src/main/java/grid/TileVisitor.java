@@ -0,0 +1,23 @@
+package grid;
+
+/**
+ * A callback which is given the coordinates, version and rows of non-empty {@link Tile}s one at a
+ *  time.
+ *
+ * @see TileView#visitTiles(Bounds, TileVisitor)
+ */
+public interface TileVisitor
+{
+    /**
+     * Visits a single non-empty Tile.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     * @param version - the version of the Tile's contents, which is the same for two visits only
+     *  if the rows are also the same; see {@link Tile#getVersion(int)}
+     * @param rows - the {@link Tile#SIZE} rows of the Tile, with bit {@code c} of row {@code r}
+     *  set if the cell at {@code (Tile.SIZE*x + c, Tile.SIZE*y + r)} is alive; they must not be
+     *  modified
+     */
+    public void visit(int x, int y, long version, long[] rows);
+}
@@ -0,0 +1,1134 @@
+package grid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * An {@link Engine} which stores the universe as {@link Tile}s: 64 by 64 blocks of cells packed
+ *  into {@code long} bitboards.
+ * Only Tiles with living cells are kept, in a {@link TileTable} keyed by Tile coordinates; Tiles
+ *  are created as the pattern expands into them and freed when all of their cells die.
+ * Each living cell therefore costs a single bit (plus its share of the Tile's overhead), and
+ *  {@link #isAlive(int, int)} and {@link #setAlive(int, int, boolean)} are a Tile lookup and a bit
+ *  operation, independent of the population.
+ * New generations are computed one Tile at a time by a {@link TileKernel}; the default
+ *  {@link SwarKernel} steps a whole row of a Tile with a few dozen bitwise operations.
+ * Since each Tile's next generation depends only on the current generation, large generations
+ *  are stepped in parallel in a {@link ForkJoinPool}; see {@link #setParallelism(int)}.
+ * Only the Tiles near changes are stepped at all.
+ * Each Tile keeps both the current and the previous generation, and the engine keeps the set of
+ *  Tile positions whose current generation differs from the one two generations ago (or which
+ *  were edited recently).
+ * A Tile whose neighborhood contains none of them has a neighborhood identical to the one two
+ *  generations ago, so its next generation is its previous one: it is advanced by simply flipping
+ *  the phase, without being touched.
+ * Still lifes, period-2 oscillators (blinkers, toads, beacons...) and empty space therefore cost
+ *  nothing once they have settled.
+ * The population, births, deaths and bounding box of each generation are kept up to date as
+ *  Tiles are stepped and edited, so they too cost nothing for Tiles which are not.
+ * A {@link Snapshot} shares the current rows of each Tile, which are copied before the engine
+ *  next modifies them; consecutive Snapshots also share the Tiles which did not change between
+ *  them, so taking a Snapshot only costs in proportion to the Tiles which changed.
+ * The Tiles may instead be kept outside of the heap in a {@link TileArena} (see
+ *  {@link #TiledEngine(TileKernel, TileArena)}), rows and bookkeeping alike, so that very large
+ *  universes do not burden the garbage collector; only a small Tile object with the coordinates
+ *  of each block remains on the heap, one per 4096 cells.
+ * Snapshots then share the arena's blocks as well, so they do not copy the universe back onto the
+ *  heap either.
+ */
+public class TiledEngine implements Engine, TileActivity
+{
+    private TileTable tiles;
+
+    private TileKernel kernel;
+    private Rule rule;
+    /**
+     * The arena in which the Tiles are stored, or null if they are stored on the heap.
+     */
+    private final TileArena arena;
+
+    /**
+     * The parity of the current generation, which selects the current rows of each Tile.
+     */
+    private int phase;
+    /**
+     * The total population of the Tiles in each phase.
+     */
+    private long[] populations;
+    /**
+     * The total {@link Tile#getDifferences(int)} of the Tiles in each phase: the number of cells
+     *  alive in that phase and dead in the other.
+     */
+    private long[] differences;
+
+    /**
+     * The statistics of the last step; births and deaths are read from {@link #differences}.
+     */
+    private long births;
+    private long deaths;
+    private Bounds bounds;
+    /**
+     * The extent of the living cells in each phase, which is updated as Tiles change.
+     */
+    private TileExtent[] extents;
+
+    /**
+     * The frozen Tiles of the last Snapshot (see {@link Tile#freeze(int)}), or null if no Snapshot
+     *  has been taken since this engine was cleared; the next Snapshot is a copy of this table in
+     *  which only the Tiles which have changed since are frozen again.
+     */
+    private TileTable published;
+    /**
+     * The set of packed positions of the Tiles which have been stepped or edited since the last
+     *  Snapshot; only kept while there is a {@link #published} table.
+     */
+    private NeighborTable unpublished;
+    /**
+     * The set of packed positions of the Tiles whose two phases differed at the last Snapshot, and
+     *  whose current contents therefore change with every generation even if they are not
+     *  stepped.
+     */
+    private NeighborTable oscillating;
+
+    /**
+     * The set of packed positions of the Tiles whose last generation differs from the one before
+     *  the previous generation; only these Tiles and their neighbors are stepped in the next
+     *  generation.
+     */
+    private NeighborTable changed;
+    /**
+     * The set of packed positions of the Tiles which have been edited since the last generation.
+     * The previous generation of an edited Tile no longer follows from its current one, so these
+     *  Tiles are stepped in the next two generations.
+     */
+    private NeighborTable edited;
+    /**
+     * The number of Tile positions which were stepped in the last generation.
+     */
+    private int activeTiles;
+    /**
+     * The number of Tiles which were carried forward without being stepped in the last
+     *  generation.
+     */
+    private int dormantTiles;
+
+    /**
+     * The pool used to step Tiles in parallel, or null if stepping is single-threaded.
+     */
+    private ForkJoinPool pool;
+    private int parallelism;
+    private int parallelThreshold;
+
+    /**
+     * The default minimum number of Tiles to step before the step is done in parallel.
+     */
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 256;
+    /**
+     * The number of Tiles below which a parallel step task is not split any further.
+     */
+    private static final int PARALLEL_GRAIN = 32;
+
+    /**
+     * Creates a new, empty TiledEngine which is simulated with a {@link SwarKernel}.
+     */
+    public TiledEngine()
+    {
+        this(new SwarKernel());
+    }
+
+    /**
+     * Creates a new, empty TiledEngine which is simulated with the given kernel.
+     *
+     * @param kernel - the kernel used to compute the next generation of each Tile
+     */
+    public TiledEngine(TileKernel kernel)
+    {
+        this(kernel, null);
+    }
+
+    /**
+     * Creates a new, empty TiledEngine which is simulated with the given kernel and stores its
+     *  Tiles in the given arena.
+     * The arena should not be shared with any other engine.
+     *
+     * @param kernel - the kernel used to compute the next generation of each Tile
+     * @param arena - the arena in which to store the Tiles outside of the heap, or null to store
+     *  them on the heap
+     */
+    public TiledEngine(TileKernel kernel, TileArena arena)
+    {
+        this.kernel = kernel;
+        this.arena = arena;
+        rule = Rule.LIFE;
+        parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+        setParallelism(Runtime.getRuntime().availableProcessors());
+        clear();
+    }
+
+    /**
+     * Gets the kernel used to compute the next generation of each Tile.
+     *
+     * @return the current kernel
+     */
+    public TileKernel getKernel()
+    {
+        return kernel;
+    }
+
+    /**
+     * Sets the kernel used to compute the next generation of each Tile.
+     * The kernel only affects the speed of {@link #step()}; every kernel produces the same
+     *  generations.
+     *
+     * @param kernel - the new kernel
+     */
+    public void setKernel(TileKernel kernel)
+    {
+        this.kernel = kernel;
+    }
+
+    /**
+     * Gets the arena in which the Tiles are stored.
+     *
+     * @return the arena, or null if the Tiles are stored on the heap
+     */
+    public TileArena getArena()
+    {
+        return arena;
+    }
+
+    /**
+     * Gets the number of threads used to step large generations.
+     *
+     * @return the current parallelism, 1 if stepping is single-threaded
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of threads used to step large generations.
+     * By default this is the number of available processors.
+     *
+     * @param parallelism - the number of threads; 1 (or less) to always step on the calling thread
+     */
+    public void setParallelism(int parallelism)
+    {
+        if (pool != null)
+        {
+            pool.shutdown();
+        }
+
+        this.parallelism = Math.max(1, parallelism);
+        pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+    }
+
+    /**
+     * Gets the minimum number of Tiles in a step for it to be done in parallel.
+     *
+     * @return the current parallel threshold, in Tiles
+     */
+    public int getParallelThreshold()
+    {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the minimum number of Tiles in a step for it to be done in parallel.
+     * Smaller steps are done on the calling thread, since the cost of distributing them between
+     *  threads outweighs the gain.
+     *
+     * @param parallelThreshold - the new parallel threshold, in Tiles
+     */
+    public void setParallelThreshold(int parallelThreshold)
+    {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Gets the number of Tile positions which were stepped in the last generation; this includes
+     *  empty positions next to changed Tiles.
+     *
+     * @return the number of active Tiles in the last generation
+     */
+    public int getActiveTiles()
+    {
+        return activeTiles;
+    }
+
+    /**
+     * Gets the number of Tiles which were carried forward without being stepped in the last
+     *  generation, since their neighborhood had not changed in two generations; these are still
+     *  lifes and period-2 oscillators.
+     *
+     * @return the number of dormant Tiles in the last generation
+     */
+    public int getDormantTiles()
+    {
+        return dormantTiles;
+    }
+
+    /**
+     * Gets the number of Tiles currently allocated.
+     *
+     * @return the number of Tiles with living cells in the current or previous generation
+     */
+    public int getTileCount()
+    {
+        return tiles.size();
+    }
+
+    public Rule getRule()
+    {
+        return rule;
+    }
+
+    /**
+     * Sets the rule with which new generations are simulated.
+     * The previous generation of each Tile no longer follows from its current one under the new
+     *  rule, so every Tile is treated as edited and stepped in the next two generations.
+     *
+     * @param rule - the new rule
+     */
+    public void setRule(Rule rule)
+    {
+        if (rule.equals(this.rule))
+        {
+            return;
+        }
+        this.rule = rule;
+
+        for (int i = 0; i < tiles.capacity(); i++)
+        {
+            Tile tile = tiles.tile(i);
+            if (tile != null)
+            {
+                edited.add(tile.key, 1);
+            }
+        }
+    }
+
+    public boolean isAlive(int x, int y)
+    {
+        Tile tile = tiles.get(x >> Tile.SHIFT, y >> Tile.SHIFT);
+        return tile != null &&
+                (tile.row(phase, y & (Tile.SIZE - 1)) & (1L << (x & (Tile.SIZE - 1)))) != 0;
+    }
+
+    public void setAlive(int x, int y, boolean alive)
+    {
+        Tile tile = tiles.get(x >> Tile.SHIFT, y >> Tile.SHIFT);
+        int r = y & (Tile.SIZE - 1);
+        long bit = 1L << (x & (Tile.SIZE - 1));
+
+        if (alive)
+        {
+            if (tile == null)
+            {
+                tile = newTile(x >> Tile.SHIFT, y >> Tile.SHIFT);
+                tiles.put(tile);
+            }
+            long row = tile.row(phase, r);
+            if ((row & bit) == 0)
+            {
+                tile.setRow(phase, r, row | bit);
+                tile.touch(phase);
+                tile.addPopulation(phase, 1);
+                populations[phase]++;
+                changed(tile, phase, tile.getPopulation(phase) - 1);
+                if ((tile.row(phase ^ 1, r) & bit) == 0)
+                {
+                    addDifferences(tile, phase, 1);
+                }
+                else
+                {
+                    addDifferences(tile, phase ^ 1, -1);
+                }
+                edited.add(tile.key, 1);
+            }
+        }
+        else if (tile != null && (tile.row(phase, r) & bit) != 0)
+        {
+            tile.setRow(phase, r, tile.row(phase, r) & ~bit);
+            tile.touch(phase);
+            tile.addPopulation(phase, -1);
+            populations[phase]--;
+            changed(tile, phase, tile.getPopulation(phase) + 1);
+            if ((tile.row(phase ^ 1, r) & bit) == 0)
+            {
+                addDifferences(tile, phase, -1);
+            }
+            else
+            {
+                addDifferences(tile, phase ^ 1, 1);
+            }
+            edited.add(tile.key, 1);
+            if (tile.isEmpty())
+            {
+                remove(tile);
+            }
+        }
+    }
+
+    public void setAlive(int x, int y, boolean[][] cells)
+    {
+        for (int i = 0; i < cells.length; i++)
+        {
+            for (int j = 0; j < cells[i].length; j++)
+            {
+                setAlive(x + i, y + j, cells[i][j]);
+            }
+        }
+    }
+
+    public void setAlive(ArrayList<Cell> cells, boolean alive)
+    {
+        for (int i = 0; i < cells.size(); i++)
+        {
+            setAlive(cells.get(i).x, cells.get(i).y, alive);
+        }
+    }
+
+    public ArrayList<Cell> getAlive()
+    {
+        return getAlive(tiles, phase, null, populations[phase]);
+    }
+
+    public ArrayList<Cell> getAlive(Bounds area)
+    {
+        return getAlive(tiles, phase, area, 0);
+    }
+
+    public void visitAlive(CellVisitor visitor)
+    {
+        visit(tiles, phase, null, visitor);
+    }
+
+    public void visitAlive(Bounds area, CellVisitor visitor)
+    {
+        visit(tiles, phase, area, visitor);
+    }
+
+    public long getNumberAlive()
+    {
+        return populations[phase];
+    }
+
+    /**
+     * Creates a Snapshot which shares the current rows of every Tile; rows are copied before
+     *  this engine next modifies them in place.
+     * The table of the previous Snapshot is copied (sharing all of its Tiles), and only the Tiles
+     *  which have been stepped or edited since, or which oscillate, are frozen again.
+     *
+     * @return a Snapshot of the current generation
+     */
+    public Snapshot snapshot()
+    {
+        if (published == null)
+        {
+            published = new TileTable(tiles.size());
+            oscillating = new NeighborTable(0);
+            for (int i = 0; i < tiles.capacity(); i++)
+            {
+                Tile tile = tiles.tile(i);
+                if (tile != null)
+                {
+                    publish(tile.key, oscillating);
+                }
+            }
+        }
+        else
+        {
+            NeighborTable stillOscillating = new NeighborTable(oscillating.size());
+            publish(unpublished, stillOscillating);
+            publish(oscillating, stillOscillating);
+            oscillating = stillOscillating;
+        }
+        unpublished = new NeighborTable(0);
+        return new TiledSnapshot(published.copy(), populations[phase]);
+    }
+
+    /**
+     * Simulates the next generation.
+     * Each Tile position in the neighborhood of a changed or edited Tile is stepped (including
+     *  empty positions, since cells may be born there), and its result is stored over its
+     *  generation before the current one; all other Tiles already hold their next generation
+     *  there.
+     * The phase is then flipped, and Tiles which are empty in both phases are dropped.
+     * The births and deaths of the generation are the cells which differ between the two phases,
+     *  which are kept up to date as Tiles are stepped and edited, so dormant Tiles need not be
+     *  read to count them.
+     *
+     * @return 1, the number of generations simulated
+     */
+    public long step()
+    {
+        // the set of Tiles to step: the neighborhoods of all the changed and edited Tiles
+        NeighborTable candidates = new NeighborTable((changed.size() + edited.size())*9);
+        addNeighborhoods(changed, candidates);
+        addNeighborhoods(edited, candidates);
+
+        long[] keys = new long[candidates.size()];
+        int size = 0;
+        for (int i = 0; i < candidates.capacity(); i++)
+        {
+            if (candidates.value(i) != 0)
+            {
+                keys[size++] = candidates.key(i);
+            }
+        }
+
+        // step the candidates, in parallel if there are enough of them
+        long[][] results = new long[size][];
+        int[] born = new int[size];
+        int[] died = new int[size];
+        if (pool == null || size < parallelThreshold)
+        {
+            step(keys, results, born, died, 0, size);
+        }
+        else
+        {
+            pool.invoke(new StepTask(keys, results, born, died, 0, size));
+        }
+
+        // overwrite the previous generation of the Tiles which differ from it
+        int next = phase ^ 1;
+        changed = new NeighborTable(changed.size());
+        int evaluated = 0;
+        for (int i = 0; i < size; i++)
+        {
+            Tile tile = tiles.get(keys[i]);
+            if (results[i] != null)
+            {
+                changed.add(keys[i], 1);
+                if (tile == null)
+                {
+                    tile = newTile(PackedCell.x(keys[i]), PackedCell.y(keys[i]));
+                    tiles.put(tile);
+                }
+
+                int count = results[i] == Tile.EMPTY_ROWS ? 0 : Tile.count(results[i]);
+                int before = tile.getPopulation(next);
+                populations[next] += count - before;
+                tile.set(next, results[i], count);
+                tile.touch(next);
+                addDifferences(tile, next, born[i] - tile.getDifferences(next));
+                addDifferences(tile, phase, died[i] - tile.getDifferences(phase));
+                changed(tile, next, before);
+                if (tile.isEmpty())
+                {
+                    remove(tile);
+                    tile = null;
+                }
+            }
+            if (tile != null)
+            {
+                evaluated++;
+            }
+        }
+
+        // an edited Tile's old previous generation was not replaced, so step it once more
+        for (int i = 0; i < edited.capacity(); i++)
+        {
+            if (edited.value(i) != 0)
+            {
+                changed.add(edited.key(i), 1);
+            }
+        }
+        edited = new NeighborTable(0);
+
+        phase = next;
+        activeTiles = size;
+        dormantTiles = tiles.size() - evaluated;
+        births = differences[phase];
+        deaths = differences[phase ^ 1];
+        bounds = extents[phase].getBounds(tiles, phase);
+        return 1;
+    }
+
+    public long getBirths()
+    {
+        return births;
+    }
+
+    public long getDeaths()
+    {
+        return deaths;
+    }
+
+    public Bounds getBounds()
+    {
+        return bounds;
+    }
+
+    public void clear(Bounds area)
+    {
+        ArrayList<Tile> intersecting = getTiles(tiles, area);
+        for (int i = 0; i < intersecting.size(); i++)
+        {
+            Tile tile = intersecting.get(i);
+            int x0 = tile.x << Tile.SHIFT;
+            int y0 = tile.y << Tile.SHIFT;
+            long mask = ~columns(area.x - x0, area.x + area.width - x0);
+            int fromRow = Math.max(0, area.y - y0);
+            int toRow = Math.min(Tile.SIZE, area.y + area.height - y0);
+
+            int removed = 0;
+            int unshared = 0;
+            for (int r = fromRow; r < toRow; r++)
+            {
+                long row = tile.row(phase, r);
+                if ((row & ~mask) != 0)
+                {
+                    removed += Long.bitCount(row & ~mask);
+                    unshared += Long.bitCount(row & ~mask & ~tile.row(phase ^ 1, r));
+                    tile.setRow(phase, r, row & mask);
+                }
+            }
+            if (removed == 0)
+            {
+                continue;
+            }
+
+            populations[phase] -= removed;
+            tile.addPopulation(phase, -removed);
+            tile.touch(phase);
+            changed(tile, phase, tile.getPopulation(phase) + removed);
+            addDifferences(tile, phase, -unshared);
+            addDifferences(tile, phase ^ 1, removed - unshared);
+            edited.add(tile.key, 1);
+            if (tile.isEmpty())
+            {
+                remove(tile);
+            }
+        }
+    }
+
+    public void clear()
+    {
+        if (tiles != null)
+        {
+            for (int i = 0; i < tiles.capacity(); i++)
+            {
+                if (tiles.tile(i) != null)
+                {
+                    tiles.tile(i).free();
+                }
+            }
+        }
+        tiles = new TileTable(0);
+        changed = new NeighborTable(0);
+        edited = new NeighborTable(0);
+        phase = 0;
+        populations = new long[2];
+        differences = new long[2];
+        activeTiles = 0;
+        dormantTiles = 0;
+        births = 0;
+        deaths = 0;
+        bounds = null;
+        extents = new TileExtent[] { new TileExtent(), new TileExtent() };
+        published = null;
+        unpublished = null;
+        oscillating = null;
+    }
+
+    /**
+     * Shuts down the pool of threads used to step large generations, if there is one.
+     * Any later step is done on the calling thread.
+     */
+    public void close()
+    {
+        if (pool != null)
+        {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Returns a String representation of this TiledEngine, naming its kernel.
+     *
+     * @return a user-friendly description of this TiledEngine
+     * @see Object#toString()
+     */
+    public String toString()
+    {
+        String storage = arena == null ? "" :
+                (arena instanceof MappedTileArena ? ", mapped" : ", off-heap");
+        return "Tiled (" + kernel.getClass().getSimpleName() + storage + ")";
+    }
+
+    /**
+     * Creates a new, empty Tile at the given coordinates, stored in this engine's arena if it has
+     *  one.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     * @return the new Tile, which is not yet in the table
+     */
+    private Tile newTile(int x, int y)
+    {
+        return arena == null ? new HeapTile(x, y) : new ArenaTile(x, y, arena);
+    }
+
+    /**
+     * Adds the given amount to the {@link Tile#getDifferences(int)} of the given Tile in the given
+     *  phase, and to the total for the phase.
+     *
+     * @param tile - the Tile whose differences changed
+     * @param phase - the parity of the generation, 0 or 1
+     * @param delta - the change in the number of cells alive only in the phase
+     */
+    private void addDifferences(Tile tile, int phase, int delta)
+    {
+        tile.addDifferences(phase, delta);
+        differences[phase] += delta;
+    }
+
+    /**
+     * Records that the contents of the given Tile have changed in the given phase, in the extent
+     *  of the phase and, if Snapshots are being taken, among the Tiles to freeze for the next one.
+     *
+     * @param tile - the Tile which was stepped or edited, still in the table
+     * @param phase - the parity of the generation, 0 or 1
+     * @param before - the population of the Tile in the phase before the change
+     */
+    private void changed(Tile tile, int phase, int before)
+    {
+        int after = tile.getPopulation(phase);
+        if (before == 0 && after != 0)
+        {
+            extents[phase].add(tile.x, tile.y);
+        }
+        else if (before != 0 && after == 0)
+        {
+            extents[phase].remove(tile.x, tile.y);
+        }
+        else
+        {
+            extents[phase].change(tile.x, tile.y);
+        }
+
+        if (published != null)
+        {
+            unpublished.add(tile.key, 1);
+        }
+    }
+
+    /**
+     * Updates the {@link #published} table for each Tile position in the given set.
+     *
+     * @param positions - a set of packed positions of Tiles
+     * @param oscillating - the set to which to add the positions of Tiles whose phases differ
+     */
+    private void publish(NeighborTable positions, NeighborTable oscillating)
+    {
+        for (int i = 0; i < positions.capacity(); i++)
+        {
+            if (positions.value(i) != 0)
+            {
+                publish(positions.key(i), oscillating);
+            }
+        }
+    }
+
+    /**
+     * Updates the {@link #published} table for the given Tile position: the Tile is frozen again
+     *  if its current contents are not the ones published, and removed if it is empty.
+     *
+     * @param key - the packed position of a Tile
+     * @param oscillating - the set to which to add the position if the Tile's phases differ
+     */
+    private void publish(long key, NeighborTable oscillating)
+    {
+        Tile tile = tiles.get(key);
+        if (tile == null || tile.getPopulation(phase) == 0)
+        {
+            published.remove(key);
+        }
+        else
+        {
+            Tile frozen = published.get(key);
+            if (frozen == null || frozen.getVersion(0) != tile.getVersion(phase))
+            {
+                published.put(tile.freeze(phase));
+            }
+        }
+
+        if (tile != null && tile.getDifferences(0) + tile.getDifferences(1) != 0)
+        {
+            oscillating.add(key, 1);
+        }
+    }
+
+    /**
+     * Removes the given Tile from the table and releases its storage.
+     *
+     * @param tile - the Tile to remove
+     */
+    private void remove(Tile tile)
+    {
+        tiles.remove(tile.key);
+        tile.free();
+    }
+
+    /**
+     * Computes the next generation of the Tiles with the given keys in the given range.
+     * The current generation is only read, so disjoint ranges may be stepped concurrently.
+     *
+     * @param keys - the packed coordinates of the Tiles to step
+     * @param results - the array in which to store the next generation of the rows of each Tile:
+     *  null if it is the same as the Tile's previous generation, {@link Tile#EMPTY_ROWS} if it is
+     *  empty (and the previous generation was not), or a new array of rows otherwise
+     * @param born - the array in which to store the number of cells of each Tile which are alive
+     *  in its next generation but not its current one, where the result is not null
+     * @param died - the array in which to store the number of cells of each Tile which are alive
+     *  in its current generation but not its next one, where the result is not null
+     * @param from - the first index to step, inclusive
+     * @param to - the last index to step, exclusive
+     */
+    private void step(long[] keys, long[][] results, int[] born, int[] died, int from, int to)
+    {
+        long[][] neighborhood = new long[9][];
+        long[][] scratch = new long[10][Tile.SIZE];
+        long[] rows = new long[Tile.SIZE];
+        for (int i = from; i < to; i++)
+        {
+            gather(PackedCell.x(keys[i]), PackedCell.y(keys[i]), neighborhood, scratch);
+            kernel.step(neighborhood, rule, rows);
+
+            Tile tile = tiles.get(keys[i]);
+            long[] previous = tile == null ? Tile.EMPTY_ROWS : tile.rows(phase ^ 1, scratch[9]);
+            if (!Arrays.equals(rows, previous))
+            {
+                results[i] = Tile.count(rows) == 0 ? Tile.EMPTY_ROWS : rows.clone();
+
+                long[] current = neighborhood[TileKernel.CENTER];
+                for (int r = 0; r < Tile.SIZE; r++)
+                {
+                    born[i] += Long.bitCount(rows[r] & ~current[r]);
+                    died[i] += Long.bitCount(current[r] & ~rows[r]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the positions of the given Tiles and of their eight neighbors to the given set.
+     *
+     * @param positions - the set of packed positions of Tiles
+     * @param neighborhoods - the set to which to add the positions of their neighborhoods
+     */
+    private static void addNeighborhoods(NeighborTable positions, NeighborTable neighborhoods)
+    {
+        for (int i = 0; i < positions.capacity(); i++)
+        {
+            if (positions.value(i) != 0)
+            {
+                int x = PackedCell.x(positions.key(i));
+                int y = PackedCell.y(positions.key(i));
+                for (int dy = -1; dy <= 1; dy++)
+                {
+                    for (int dx = -1; dx <= 1; dx++)
+                    {
+                        neighborhoods.add(PackedCell.pack(x + dx, y + dy), 1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills the given neighborhood with the current rows of the Tile at the given coordinates and
+     *  its neighbors, using {@link Tile#EMPTY_ROWS} for missing Tiles.
+     *
+     * @param x - the x-coordinate of the center Tile, in Tiles
+     * @param y - the y-coordinate of the center Tile, in Tiles
+     * @param neighborhood - an array of 9 row arrays, indexed as in {@link TileKernel}
+     * @param scratch - at least 9 arrays of {@link Tile#SIZE} rows into which the rows of Tiles
+     *  which are not stored in arrays may be read
+     */
+    private void gather(int x, int y, long[][] neighborhood, long[][] scratch)
+    {
+        for (int dy = -1; dy <= 1; dy++)
+        {
+            for (int dx = -1; dx <= 1; dx++)
+            {
+                Tile tile = tiles.get(x + dx, y + dy);
+                int i = 3*(dy + 1) + dx + 1;
+                neighborhood[i] = tile == null ? Tile.EMPTY_ROWS : tile.rows(phase, scratch[i]);
+            }
+        }
+    }
+
+    /**
+     * Gets the Tiles of the given table which intersect the given area.
+     * If the area covers fewer Tile positions than there are Tiles, each position is looked up;
+     *  otherwise all the Tiles are checked for intersection.
+     *
+     * @param tiles - the table of Tiles
+     * @param area - the area of the universe, in cell coordinates
+     * @return a list of the Tiles with at least one cell within the area
+     */
+    private static ArrayList<Tile> getTiles(TileTable tiles, Bounds area)
+    {
+        ArrayList<Tile> intersecting = new ArrayList<Tile>();
+        if (area.width <= 0 || area.height <= 0)
+        {
+            return intersecting;
+        }
+
+        int minX = area.x >> Tile.SHIFT;
+        int minY = area.y >> Tile.SHIFT;
+        int maxX = (area.x + area.width - 1) >> Tile.SHIFT;
+        int maxY = (area.y + area.height - 1) >> Tile.SHIFT;
+
+        if ((long) (maxX - minX + 1)*(maxY - minY + 1) <= tiles.size())
+        {
+            for (int x = minX; x <= maxX; x++)
+            {
+                for (int y = minY; y <= maxY; y++)
+                {
+                    Tile tile = tiles.get(x, y);
+                    if (tile != null)
+                    {
+                        intersecting.add(tile);
+                    }
+                }
+            }
+        }
+        else
+        {
+            for (int i = 0; i < tiles.capacity(); i++)
+            {
+                Tile tile = tiles.tile(i);
+                if (tile != null && tile.x >= minX && tile.x <= maxX &&
+                        tile.y >= minY && tile.y <= maxY)
+                {
+                    intersecting.add(tile);
+                }
+            }
+        }
+
+        return intersecting;
+    }
+
+    /**
+     * Gets a list of the living cells in the given phase of the given Tiles within the given
+     *  area.
+     *
+     * @param tiles - the table of Tiles
+     * @param phase - the phase of the Tiles to read
+     * @param area - the area in which to find living cells, or null to find all living cells
+     * @param expected - the expected number of living cells, used as the list's initial capacity
+     * @return a new list of the living cells within the area
+     */
+    private static ArrayList<Cell> getAlive(TileTable tiles, int phase, Bounds area,
+            long expected)
+    {
+        ArrayList<Cell> alive = new ArrayList<Cell>((int) expected);
+        visit(tiles, phase, area, new CellCollector(alive));
+        return alive;
+    }
+
+    /**
+     * Visits the living cells in the given phase of the given Tiles within the given area.
+     *
+     * @param tiles - the table of Tiles
+     * @param phase - the phase of the Tiles to read
+     * @param area - the area in which to visit living cells, or null to visit all living cells
+     * @param visitor - the visitor to call with the coordinates of each living cell
+     */
+    private static void visit(TileTable tiles, int phase, Bounds area, CellVisitor visitor)
+    {
+        long[] scratch = new long[Tile.SIZE];
+        if (area == null)
+        {
+            for (int i = 0; i < tiles.capacity(); i++)
+            {
+                Tile tile = tiles.tile(i);
+                if (tile != null)
+                {
+                    visit(tile.x, tile.y, tile.rows(phase, scratch), null, visitor);
+                }
+            }
+        }
+        else
+        {
+            ArrayList<Tile> intersecting = getTiles(tiles, area);
+            for (int i = 0; i < intersecting.size(); i++)
+            {
+                Tile tile = intersecting.get(i);
+                visit(tile.x, tile.y, tile.rows(phase, scratch), area, visitor);
+            }
+        }
+    }
+
+    /**
+     * Visits the living cells in the given rows of a Tile which are within the given area.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     * @param rows - the rows of the Tile
+     * @param area - the area in which to visit cells, or null to visit all cells
+     * @param visitor - the visitor to call with the coordinates of each living cell
+     */
+    private static void visit(int x, int y, long[] rows, Bounds area, CellVisitor visitor)
+    {
+        int x0 = x << Tile.SHIFT;
+        int y0 = y << Tile.SHIFT;
+        long mask = -1L;
+        int fromRow = 0;
+        int toRow = Tile.SIZE;
+        if (area != null)
+        {
+            mask = columns(area.x - x0, area.x + area.width - x0);
+            fromRow = Math.max(0, area.y - y0);
+            toRow = Math.min(Tile.SIZE, area.y + area.height - y0);
+        }
+
+        for (int r = fromRow; r < toRow; r++)
+        {
+            long row = rows[r] & mask;
+            while (row != 0)
+            {
+                visitor.visit(x0 + Long.numberOfTrailingZeros(row), y0 + r);
+                row &= row - 1;
+            }
+        }
+    }
+
+    /**
+     * Gets a mask of the columns of a Tile in the given range.
+     *
+     * @param from - the first column, inclusive; may be outside the Tile
+     * @param to - the last column, exclusive; may be outside the Tile
+     * @return a mask with the bits for the columns in {@code [from, to)} within the Tile set
+     */
+    private static long columns(int from, int to)
+    {
+        from = Math.max(0, from);
+        to = Math.min(Tile.SIZE, to);
+        if (from >= to)
+        {
+            return 0;
+        }
+
+        long upper = to == Tile.SIZE ? -1L : (1L << to) - 1;
+        return upper & (-1L << from);
+    }
+
+    /**
+     * A Snapshot of the current rows of a TiledEngine's Tiles, which are stored as phase 0 of
+     *  frozen Tiles (see {@link Tile#freeze(int)}).
+     */
+    private static class TiledSnapshot implements TileView, TileCensus
+    {
+        private final TileTable tiles;
+        private final long population;
+
+        TiledSnapshot(TileTable tiles, long population)
+        {
+            this.tiles = tiles;
+            this.population = population;
+        }
+
+        public boolean isAlive(int x, int y)
+        {
+            Tile tile = tiles.get(x >> Tile.SHIFT, y >> Tile.SHIFT);
+            return tile != null &&
+                    (tile.row(0, y & (Tile.SIZE - 1)) & (1L << (x & (Tile.SIZE - 1)))) != 0;
+        }
+
+        public ArrayList<Cell> getAlive()
+        {
+            return TiledEngine.getAlive(tiles, 0, null, population);
+        }
+
+        public ArrayList<Cell> getAlive(Bounds area)
+        {
+            return TiledEngine.getAlive(tiles, 0, area, 0);
+        }
+
+        public void visitAlive(CellVisitor visitor)
+        {
+            visit(tiles, 0, null, visitor);
+        }
+
+        public void visitAlive(Bounds area, CellVisitor visitor)
+        {
+            visit(tiles, 0, area, visitor);
+        }
+
+        public long getNumberAlive()
+        {
+            return population;
+        }
+
+        public void visitTiles(Bounds area, TileVisitor visitor)
+        {
+            ArrayList<Tile> intersecting = getTiles(tiles, area);
+            for (int i = 0; i < intersecting.size(); i++)
+            {
+                Tile tile = intersecting.get(i);
+                visitor.visit(tile.x, tile.y, tile.getVersion(0), tile.rows(0, null));
+            }
+        }
+
+        public void countTiles(NeighborTable populations)
+        {
+            for (int i = 0; i < tiles.capacity(); i++)
+            {
+                Tile tile = tiles.tile(i);
+                if (tile != null)
+                {
+                    populations.add(tile.key, tile.getPopulation(0));
+                }
+            }
+        }
+    }
+
+    /**
+     * Steps a range of Tiles, splitting it in half between two subtasks until it is smaller than
+     *  {@link TiledEngine#PARALLEL_GRAIN}.
+     */
+    private class StepTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] keys;
+        private final long[][] results;
+        private final int[] born;
+        private final int[] died;
+        private final int from;
+        private final int to;
+
+        StepTask(long[] keys, long[][] results, int[] born, int[] died, int from, int to)
+        {
+            this.keys = keys;
+            this.results = results;
+            this.born = born;
+            this.died = died;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute()
+        {
+            if (to - from <= PARALLEL_GRAIN)
+            {
+                step(keys, results, born, died, from, to);
+            }
+            else
+            {
+                int middle = (from + to) >>> 1;
+                invokeAll(new StepTask(keys, results, born, died, from, middle),
+                        new StepTask(keys, results, born, died, middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package main;
+
+import grid.Engine;
+import grid.GenerationStatistics;
+import grid.HashLifeEngine;
+import grid.ListEngine;
+import grid.Map;
+import grid.MappedTileArena;
+import grid.Rule;
+import grid.ScalarKernel;
+import grid.Simulation;
+import grid.SwarKernel;
+import grid.TableKernel;
+import grid.TileArena;
+import grid.TileKernel;
+import grid.TiledEngine;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Random;
+
+import pattern.Pattern;
+import pattern.PatternReader;
+
+/**
+ * Runs the simulation from the command line without any user interface, for benchmarking.
+ * A pattern (built-in, read from a file, or a random soup) is placed at the origin of a
+ *  {@link Map}, which is then updated for a given number of generations with the chosen
+ *  {@link Engine}; the simulation throughput, peak heap usage and final population are then
+ *  printed to the standard output.
+ * No window is created and no images are loaded, so this may be run on a headless machine with:
+ * <pre>
+ * java -jar engine.jar --pattern "Gosper Glider Gun" --generations 10000
+ * </pre>
+ * Run with no arguments (or with --help) for a description of the options.
+ */
+public class BatchRunner
+{
+    private String patternName;
+    private String patternFile;
+    private int randomWidth;
+    private int randomHeight;
+    private double density;
+    private long seed;
+
+    private String engineName;
+    private Rule rule;
+    private String kernelName;
+    private String arenaName;
+    private int threads;
+    private int stepExponent;
+
+    private long generations;
+    private long warmup;
+
+    private static final String usage =
+            "Usage: java main.BatchRunner [options]\n" +
+            "  --pattern NAME      the full or short name of a built-in pattern\n" +
+            "  --file PATH         a file of rows of cells, where '1' or 't' is alive\n" +
+            "  --random WxH        a random soup of the given size\n" +
+            "  --density D         the fraction of living cells in a random soup (default 0.5)\n" +
+            "  --seed S            the seed of a random soup (default 0)\n" +
+            "  --engine E          list, hashed, tiled or hashlife (default list)\n" +
+            "  --rule R            the rule in B/S notation, such as B36/S23 (default B3/S23)\n" +
+            "  --kernel K          swar, scalar or table, for the tiled engine (default swar)\n" +
+            "  --arena A           heap, offheap or mapped (a temporary file): where the\n" +
+            "                       tiled engine stores its tiles (default heap)\n" +
+            "  --threads N         the number of threads used by the tiled engine\n" +
+            "                       (default: the number of processors)\n" +
+            "  --step K            simulate 2^K generations per hashlife step (default 0)\n" +
+            "  --generations N     the number of generations to time (default 1000)\n" +
+            "  --warmup N          the number of generations to simulate first (default 0)";
+
+    /**
+     * The main method of the batch runner.
+     * The options are parsed and the simulation is run; if the options are invalid, the usage is
+     *  printed to the standard error stream instead.
+     *
+     * @param args - the command-line options, as described by the usage
+     */
+    public static void main(String[] args)
+    {
+        if (args.length == 0 || args[0].equals("--help"))
+        {
+            System.out.println(usage);
+            return;
+        }
+
+        BatchRunner runner = new BatchRunner();
+        try
+        {
+            runner.parse(args);
+        }
+        catch (IllegalArgumentException ex)
+        {
+            System.err.println(ex.getMessage());
+            System.err.println(usage);
+            System.exit(1);
+        }
+
+        try
+        {
+            runner.run();
+        }
+        catch (IOException ex)
+        {
+            System.err.println("I/O Error loading the pattern or creating the arena: ");
+            ex.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Creates a new BatchRunner with the default options, which simulates 1000 generations of
+     *  a ListEngine; a pattern must still be chosen.
+     */
+    public BatchRunner()
+    {
+        density = 0.5;
+        seed = 0;
+        engineName = "list";
+        rule = Rule.LIFE;
+        kernelName = "swar";
+        arenaName = "heap";
+        threads = Runtime.getRuntime().availableProcessors();
+        stepExponent = 0;
+        generations = 1000;
+        warmup = 0;
+    }
+
+    /**
+     * Sets the options of this BatchRunner from the given command-line arguments.
+     *
+     * @param args - the command-line options, as described by the usage
+     * @throws IllegalArgumentException if an option is unknown, is missing its value or has an
+     *  invalid value, or if no pattern was chosen
+     */
+    public void parse(String[] args)
+    {
+        for (int i = 0; i < args.length; i++)
+        {
+            String option = args[i];
+            if (i + 1 == args.length)
+            {
+                throw new IllegalArgumentException("Missing value for option " + option);
+            }
+            String value = args[++i];
+
+            try
+            {
+                if (option.equals("--pattern"))
+                {
+                    patternName = value;
+                }
+                else if (option.equals("--file"))
+                {
+                    patternFile = value;
+                }
+                else if (option.equals("--random"))
+                {
+                    String[] size = value.toLowerCase().split("x");
+                    if (size.length != 2)
+                    {
+                        throw new IllegalArgumentException("Invalid soup size: " + value);
+                    }
+                    randomWidth = Integer.parseInt(size[0]);
+                    randomHeight = Integer.parseInt(size[1]);
+                }
+                else if (option.equals("--density"))
+                {
+                    density = Double.parseDouble(value);
+                }
+                else if (option.equals("--seed"))
+                {
+                    seed = Long.parseLong(value);
+                }
+                else if (option.equals("--engine"))
+                {
+                    engineName = value.toLowerCase();
+                    if (!engineName.equals("list") && !engineName.equals("hashed") &&
+                            !engineName.equals("tiled") && !engineName.equals("hashlife"))
+                    {
+                        throw new IllegalArgumentException("Unknown engine: " + value);
+                    }
+                }
+                else if (option.equals("--rule"))
+                {
+                    rule = Rule.parse(value);
+                }
+                else if (option.equals("--kernel"))
+                {
+                    kernelName = value.toLowerCase();
+                    if (!kernelName.equals("swar") && !kernelName.equals("scalar") &&
+                            !kernelName.equals("table"))
+                    {
+                        throw new IllegalArgumentException("Unknown kernel: " + value);
+                    }
+                }
+                else if (option.equals("--arena"))
+                {
+                    arenaName = value.toLowerCase();
+                    if (!arenaName.equals("heap") && !arenaName.equals("offheap") &&
+                            !arenaName.equals("mapped"))
+                    {
+                        throw new IllegalArgumentException("Unknown arena: " + value);
+                    }
+                }
+                else if (option.equals("--threads"))
+                {
+                    threads = Integer.parseInt(value);
+                }
+                else if (option.equals("--step"))
+                {
+                    stepExponent = Integer.parseInt(value);
+                }
+                else if (option.equals("--generations"))
+                {
+                    generations = Long.parseLong(value);
+                }
+                else if (option.equals("--warmup"))
+                {
+                    warmup = Long.parseLong(value);
+                }
+                else
+                {
+                    throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            }
+            catch (NumberFormatException ex)
+            {
+                throw new IllegalArgumentException("Invalid value for option " + option + ": " +
+                        value);
+            }
+        }
+
+        if (patternName == null && patternFile == null && randomWidth <= 0)
+        {
+            throw new IllegalArgumentException("No pattern was chosen.");
+        }
+    }
+
+    /**
+     * Runs the simulation with the current options and prints its results.
+     * The warmup generations are simulated first and are not included in the results; the peak
+     *  heap usage is measured from the start of the timed generations.
+     *
+     * @throws IOException if the pattern could not be loaded, or the file of a mapped arena
+     *  could not be created or closed
+     */
+    public void run() throws IOException
+    {
+        Pattern pattern = loadPattern();
+        Map map = new Map(createEngine());
+        map.setRule(rule);
+        map.setAlive(-pattern.getWidth()/2, -pattern.getHeight()/2, pattern.pattern);
+
+        System.out.println("Pattern: " + pattern.fullName + " (" + pattern.getWidth() + "x" +
+                pattern.getHeight() + ", " + map.getNumberAlive() + " cells)");
+        System.out.println("Engine: " + map.getEngine());
+        System.out.println("Rule: " + map.getRule());
+
+        while (map.getGeneration() < warmup)
+        {
+            map.update();
+        }
+
+        ArrayList<MemoryPoolMXBean> heap = new ArrayList<MemoryPoolMXBean>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+        {
+            if (pool.getType() == MemoryType.HEAP)
+            {
+                pool.resetPeakUsage();
+                heap.add(pool);
+            }
+        }
+
+        // the number of cells processed: the population of each generation stepped from, times
+        //  the number of generations it was stepped by
+        double cells = 0;
+        long start = map.getGeneration();
+        long startTime = System.nanoTime();
+        while (map.getGeneration() - start < generations)
+        {
+            long population = map.getNumberAlive();
+            long before = map.getGeneration();
+            map.update();
+            cells += (double) population*(map.getGeneration() - before);
+        }
+        double seconds = (System.nanoTime() - startTime)/1000000000.0;
+
+        long peakHeap = 0;
+        for (int i = 0; i < heap.size(); i++)
+        {
+            peakHeap += heap.get(i).getPeakUsage().getUsed();
+        }
+
+        GenerationStatistics statistics = map.getStatistics();
+        System.out.println("Generations: " + (map.getGeneration() - start) + " in " + seconds +
+                " s");
+        System.out.println("Generations/second: " + (map.getGeneration() - start)/seconds);
+        System.out.println("Cells/second: " + cells/seconds);
+        System.out.println("Peak heap: " + peakHeap/(1024*1024) + " MB");
+        if (map.getEngine() instanceof TiledEngine &&
+                ((TiledEngine) map.getEngine()).getArena() != null)
+        {
+            TileArena arena = ((TiledEngine) map.getEngine()).getArena();
+            System.out.println("Off-heap: " + arena.getReservedBytes()/(1024*1024) + " MB (" +
+                    arena.getBlockCount() + " blocks)");
+        }
+        System.out.println("Final generation: " + map.getGeneration());
+        System.out.println("Final population: " + map.getNumberAlive());
+        if (statistics != null && statistics.getBounds() != null)
+        {
+            System.out.println("Final bounds: " + statistics.getBounds().width + "x" +
+                    statistics.getBounds().height);
+        }
+
+        map.close();
+        if (map.getEngine() instanceof TiledEngine &&
+                ((TiledEngine) map.getEngine()).getArena() instanceof MappedTileArena)
+        {
+            ((MappedTileArena) ((TiledEngine) map.getEngine()).getArena()).close();
+        }
+    }
+
+    /**
+     * Creates a new Engine of the chosen kind.
+     *
+     * @return a new, empty Engine
+     * @throws IOException if the file of a mapped arena could not be created
+     */
+    private Engine createEngine() throws IOException
+    {
+        if (engineName.equals("list"))
+        {
+            return new ListEngine(Simulation.Algorithm.SORTED_LIST);
+        }
+        else if (engineName.equals("hashed"))
+        {
+            return new ListEngine(Simulation.Algorithm.HASHED);
+        }
+        else if (engineName.equals("tiled"))
+        {
+            TiledEngine engine = new TiledEngine(createKernel(), createArena());
+            engine.setParallelism(threads);
+            return engine;
+        }
+        else
+        {
+            HashLifeEngine engine = new HashLifeEngine();
+            engine.setStepExponent(stepExponent);
+            return engine;
+        }
+    }
+
+    /**
+     * Creates a new kernel of the chosen kind for a TiledEngine.
+     *
+     * @return a new TileKernel
+     */
+    private TileKernel createKernel()
+    {
+        if (kernelName.equals("scalar"))
+        {
+            return new ScalarKernel();
+        }
+        else if (kernelName.equals("table"))
+        {
+            return new TableKernel(rule);
+        }
+        return new SwarKernel();
+    }
+
+    /**
+     * Creates a new arena of the chosen kind for a TiledEngine.
+     *
+     * @return a new TileArena, or null if the Tiles are to be stored on the heap
+     * @throws IOException if the file of a mapped arena could not be created
+     */
+    private TileArena createArena() throws IOException
+    {
+        if (arenaName.equals("offheap"))
+        {
+            return new TileArena();
+        }
+        else if (arenaName.equals("mapped"))
+        {
+            return MappedTileArena.createTemporary();
+        }
+        return null;
+    }
+
+    /**
+     * Loads the chosen pattern: a random soup if a size was given, otherwise the given file, and
+     *  otherwise the built-in pattern with the given name.
+     *
+     * @return the pattern to simulate
+     * @throws IOException if the pattern could not be read
+     */
+    private Pattern loadPattern() throws IOException
+    {
+        if (randomWidth > 0)
+        {
+            Random random = new Random(seed);
+            boolean[][] cells = new boolean[randomWidth][randomHeight];
+            for (int x = 0; x < randomWidth; x++)
+            {
+                for (int y = 0; y < randomHeight; y++)
+                {
+                    cells[x][y] = random.nextDouble() < density;
+                }
+            }
+            return new Pattern(cells, "Random " + randomWidth + "x" + randomHeight + " soup");
+        }
+
+        if (patternFile != null)
+        {
+            PatternReader in = new PatternReader(new FileInputStream(patternFile));
+            Pattern pattern = in.readRows(patternFile);
+            in.close();
+            return pattern;
+        }
+
+        PatternReader in = PatternReader.builtIn();
+        ArrayList<Pattern> patterns = in.readAll();
+        in.close();
+        for (int i = 0; i < patterns.size(); i++)
+        {
+            if (patterns.get(i).fullName.equalsIgnoreCase(patternName) ||
+                    patterns.get(i).shortName.equalsIgnoreCase(patternName))
+            {
+                return patterns.get(i);
+            }
+        }
+        throw new IOException("No built-in pattern named " + patternName);
+    }
+}
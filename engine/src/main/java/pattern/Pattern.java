@@ -1,24 +1,15 @@
 package pattern;
 
-import java.awt.Color;
-import java.awt.Graphics2D;
-import java.awt.RenderingHints;
-import java.awt.geom.Rectangle2D;
-
-import image.ImageLoader;
-import graphics.AcceleratedImage;
-import grid.Grid;
-
 /**
  * Defines a single pattern as a rectangular area of cells.
  * Patterns have a full name, which is typically displayed in a tooltip, and a short name, which
  *  is shown on the screen, where space may be limited.
  * The pattern acts a non-writeable holder for the full name, short name, and pattern array.
+ * Patterns are part of the simulation engine and do not depend on the user interface; their
+ *  thumbnails are drawn by the pattern folders of the user interface.
  */
 public class Pattern implements Comparable<Pattern>
 {
-    private static AcceleratedImage alive;
-
     /**
      * Holds the pattern's data.
      * Each cell is a single element of the array; true is customarily used for living cells and
@@ -40,8 +31,6 @@ public class Pattern implements Comparable<Pattern>
      */
     public final boolean[][] pattern;
 
-    private static final Color thumbBackground = Color.black;
-
     /**
      * The full name of this Pattern.
      * This name is typically displayed as a tooltip.
@@ -53,11 +42,6 @@ public class Pattern implements Comparable<Pattern>
      */
     public final String shortName;
 
-    static
-    {
-        alive = ImageLoader.load("alive");
-    }
-
     /**
      * Creates a new Pattern with the given map and names.
      *
@@ -110,46 +94,6 @@ public class Pattern implements Comparable<Pattern>
         return pattern[0].length;
     }
 
-    /**
-     * Generates a thumbnail image of this Pattern with the given size.
-     *
-     * @param width - the width of the desired image, in pixels
-     * @param height - the height of the desired image, in pixels
-     * @return an AcceleratedImage of the requested size which visually depicts this Pattern
-     */
-    public AcceleratedImage generateThumb(int width, int height)
-    {
-        AcceleratedImage thumb = new AcceleratedImage(width, height);
-        Graphics2D g = (Graphics2D) thumb.getContents().getGraphics();
-
-        g.setColor(thumbBackground);
-        g.fillRect(0, 0, width, height);
-
-        // the size of a single cell in the thumb
-        double cellSize = Math.min((double)width/getWidth(), (double)height/getHeight());
-        // scale the alive image
-        alive.setScale(cellSize/alive.getWidth(), cellSize/alive.getHeight());
-        // compensate for the fact that the given size may not have proportions equal to the
-        //  proportions of this pattern
-        double xShift = (width - cellSize*getWidth())/2;
-        double yShift = (height - cellSize*getHeight())/2;
-        g.setColor(Grid.aliveColor);
-        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        for (int x = 0; x < getWidth(); x++)
-        {
-            for (int y = 0; y < getHeight(); y++)
-            {
-                if (pattern[x][y])
-                {
-                    g.fill(new Rectangle2D.Double(x*cellSize + xShift, y*cellSize + yShift,
-                            cellSize, cellSize));
-                }
-            }
-        }
-
-        return thumb;
-    }
-
     /**
      * Determines whether this Pattern is equal to the given Object.
      * They are equal if any only if the given Object is a pattern with identical full names, short
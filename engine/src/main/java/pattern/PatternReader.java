@@ -0,0 +1,177 @@
+package pattern;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+
+/**
+ * Reads {@link Pattern}s from a stream in the format of the built-in patterns file.
+ * The file is a sequence of folders, each of which is a line with the name of the folder followed
+ *  by its patterns and terminated by a line starting with "=====".
+ * Each pattern is a line with its full name, a line with its short name, and then its rows,
+ *  terminated by a line starting with "###"; in each row, a '1' or 't' is a living cell and any
+ *  other character is a dead cell.
+ * Reading patterns does not require a display, so they may be loaded without the user interface.
+ */
+public class PatternReader
+{
+    private final BufferedReader in;
+
+    /**
+     * The name of the built-in patterns file, a resource of this class.
+     */
+    private static final String patternsFile = "patterns.txt";
+
+    /**
+     * Creates a new PatternReader which reads from the given stream.
+     *
+     * @param in - the stream from which to read patterns
+     */
+    public PatternReader(InputStream in)
+    {
+        this.in = new BufferedReader(new InputStreamReader(in));
+    }
+
+    /**
+     * Creates a new PatternReader which reads the built-in patterns.
+     *
+     * @return a PatternReader positioned at the start of the built-in patterns file
+     */
+    public static PatternReader builtIn()
+    {
+        return new PatternReader(PatternReader.class.getResourceAsStream(patternsFile));
+    }
+
+    /**
+     * Reads the name of the next folder.
+     *
+     * @return the name of the folder, or null if there are no more folders
+     * @throws IOException if the stream could not be read
+     */
+    public String readFolder() throws IOException
+    {
+        return in.readLine();
+    }
+
+    /**
+     * Reads the next pattern of the current folder.
+     *
+     * @return the next Pattern, or null if the end of the folder has been reached
+     * @throws IOException if the stream could not be read or ends within a folder
+     */
+    public Pattern readPattern() throws IOException
+    {
+        String fullName = readLine();
+        if (fullName.startsWith("====="))
+        {
+            return null;
+        }
+        String shortName = readLine();
+
+        ArrayList<String> lines = new ArrayList<String>();
+        int maxLength = 0;
+        while (true)
+        {
+            String line = readLine();
+            if (line.startsWith("###"))
+            {
+                break;
+            }
+
+            maxLength = Math.max(maxLength, line.length());
+            lines.add(line);
+        }
+
+        return new Pattern(parse(lines, maxLength), fullName, shortName);
+    }
+
+    /**
+     * Reads all the remaining patterns, from every folder.
+     *
+     * @return a list of the patterns, in the order in which they were read
+     * @throws IOException if the stream could not be read
+     */
+    public ArrayList<Pattern> readAll() throws IOException
+    {
+        ArrayList<Pattern> patterns = new ArrayList<Pattern>();
+        while (readFolder() != null)
+        {
+            Pattern pattern;
+            while ((pattern = readPattern()) != null)
+            {
+                patterns.add(pattern);
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Reads the rest of the stream as the rows of a single pattern, without names or
+     *  terminators.
+     *
+     * @param name - the name of the pattern
+     * @return the Pattern made up of the remaining rows
+     * @throws IOException if the stream could not be read
+     */
+    public Pattern readRows(String name) throws IOException
+    {
+        ArrayList<String> lines = new ArrayList<String>();
+        int maxLength = 0;
+        String line;
+        while ((line = in.readLine()) != null)
+        {
+            maxLength = Math.max(maxLength, line.length());
+            lines.add(line);
+        }
+
+        return new Pattern(parse(lines, maxLength), name);
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws IOException if the stream could not be closed
+     */
+    public void close() throws IOException
+    {
+        in.close();
+    }
+
+    /**
+     * Reads a line which must exist.
+     *
+     * @return the next line
+     * @throws IOException if the stream could not be read or has ended
+     */
+    private String readLine() throws IOException
+    {
+        String line = in.readLine();
+        if (line == null)
+        {
+            throw new IOException("Unexpected end of the patterns file.");
+        }
+        return line;
+    }
+
+    /**
+     * Converts the given rows into a pattern array.
+     *
+     * @param lines - the rows of the pattern, from top to bottom
+     * @param width - the length of the longest row
+     * @return the cells of the pattern, indexed by column and then row
+     */
+    private static boolean[][] parse(ArrayList<String> lines, int width)
+    {
+        boolean[][] pattern = new boolean[width][lines.size()];
+        for (int i = 0; i < lines.size(); i++)
+        {
+            for (int j = 0; j < lines.get(i).length(); j++)
+            {
+                pattern[j][i] = lines.get(i).charAt(j) == '1' || lines.get(i).charAt(j) == 't';
+            }
+        }
+        return pattern;
+    }
+}
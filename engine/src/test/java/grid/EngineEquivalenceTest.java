@@ -0,0 +1,480 @@
+package grid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Checks that every kind of {@link Engine} produces exactly the same universe as the reference,
+ *  a {@link ListEngine} simulated with {@link Simulation.Algorithm#SORTED_LIST}.
+ * Each engine is run side by side with the reference from the same random soups, under several
+ *  rules and through edits and clears, and after every step their cells, populations, births,
+ *  deaths and bounds are compared.
+ * The soups are centered on the origin and span several Tiles, so that Tile boundaries and
+ *  negative coordinates are crossed.
+ * A few patterns whose evolution is known are also checked against their expected cells, so
+ *  that the reference itself is tested.
+ */
+@RunWith(Parameterized.class)
+public class EngineEquivalenceTest
+{
+    /**
+     * The rules under which the engines are compared: Life, HighLife, Day &amp; Night and Seeds.
+     */
+    private static final String[] RULES = { "B3/S23", "B36/S23", "B3678/S34678", "B2/S" };
+
+    /**
+     * The width and height of the soups.
+     */
+    private static final int SOUP_SIZE = 150;
+
+    /**
+     * The name of the engine under test: an {@link EngineType}, or a TiledEngine with another
+     *  kernel or arena.
+     */
+    private final String name;
+
+    private Engine reference;
+    private Engine engine;
+    private Random random;
+
+    /**
+     * Gets the engines to compare with the reference.
+     *
+     * @return the name of each engine, as the single parameter of a test
+     */
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> engines()
+    {
+        ArrayList<Object[]> engines = new ArrayList<Object[]>();
+        for (EngineType type : EngineType.values())
+        {
+            if (type != EngineType.LIST)
+            {
+                engines.add(new Object[] { type.name() });
+            }
+        }
+        engines.add(new Object[] { "TILED_SCALAR" });
+        engines.add(new Object[] { "TILED_PARALLEL" });
+        engines.add(new Object[] { "TILED_MAPPED" });
+        return engines;
+    }
+
+    /**
+     * Creates a test of the engine with the given name.
+     *
+     * @param name - the name of the engine, from {@link #engines()}
+     */
+    public EngineEquivalenceTest(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Creates the reference and the engine under test, both empty.
+     *
+     * @throws IOException if the file of a mapped arena cannot be created
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        reference = new ListEngine(Simulation.Algorithm.SORTED_LIST);
+        if (name.equals("TILED_SCALAR"))
+        {
+            engine = new TiledEngine(new ScalarKernel());
+        }
+        else if (name.equals("TILED_PARALLEL"))
+        {
+            // every step with any Tile to step is split between the threads
+            TiledEngine tiled = new TiledEngine();
+            tiled.setParallelism(4);
+            tiled.setParallelThreshold(1);
+            engine = tiled;
+        }
+        else if (name.equals("TILED_MAPPED"))
+        {
+            engine = new TiledEngine(new SwarKernel(), MappedTileArena.createTemporary());
+        }
+        else
+        {
+            engine = EngineType.valueOf(name).create();
+        }
+        random = new Random(0);
+    }
+
+    /**
+     * Releases the engine under test, and closes its file if it has a mapped arena.
+     *
+     * @throws IOException if the file of a mapped arena cannot be closed
+     */
+    @After
+    public void tearDown() throws IOException
+    {
+        engine.close();
+        if (engine instanceof TiledEngine &&
+                ((TiledEngine) engine).getArena() instanceof MappedTileArena)
+        {
+            ((MappedTileArena) ((TiledEngine) engine).getArena()).close();
+        }
+    }
+
+    /**
+     * Checks that a blinker crossing the corner of four Tiles oscillates with period 2.
+     */
+    @Test
+    public void testBlinker()
+    {
+        ArrayList<Cell> horizontal = cells(-1, 0, 0, 0, 1, 0);
+        ArrayList<Cell> vertical = cells(0, -1, 0, 0, 0, 1);
+        engine.setAlive(horizontal, true);
+
+        for (int generation = 1; generation <= 4; generation++)
+        {
+            assertEquals(1, engine.step());
+            assertEquals("generation " + generation, generation % 2 == 0 ? horizontal : vertical,
+                    sorted(engine.getAlive()));
+        }
+    }
+
+    /**
+     * Checks that a glider crossing the corner of four Tiles moves one cell diagonally every 4
+     *  generations.
+     */
+    @Test
+    public void testGlider()
+    {
+        ArrayList<Cell> glider = cells(-1, -2, 0, -1, -2, 0, -1, 0, 0, 0);
+        engine.setAlive(glider, true);
+
+        for (int period = 1; period <= 3; period++)
+        {
+            for (int generation = 0; generation < 4; generation++)
+            {
+                assertEquals(1, engine.step());
+            }
+            ArrayList<Cell> moved = new ArrayList<Cell>();
+            for (Cell cell : glider)
+            {
+                moved.add(new Cell(cell.x + period, cell.y + period));
+            }
+            assertEquals("period " + period, moved, sorted(engine.getAlive()));
+            assertEquals("period " + period, new Bounds(period - 2, period - 2, 3, 3),
+                    engine.getBounds());
+        }
+    }
+
+    /**
+     * Steps a soup under each rule.
+     */
+    @Test
+    public void testRules()
+    {
+        for (String rule : RULES)
+        {
+            reference.clear();
+            engine.clear();
+            reference.setRule(Rule.parse(rule));
+            engine.setRule(Rule.parse(rule));
+            addSoup(0.4);
+            assertSameCells(rule + " soup");
+
+            for (int generation = 1; generation <= 40; generation++)
+            {
+                step(rule + " generation " + generation);
+            }
+        }
+    }
+
+    /**
+     * Edits the universe between steps: single cells, whole patterns and lists of cells.
+     */
+    @Test
+    public void testEdits()
+    {
+        addSoup(0.3);
+        for (int generation = 1; generation <= 60; generation++)
+        {
+            if (generation % 5 == 0)
+            {
+                for (int i = 0; i < 50; i++)
+                {
+                    int x = random.nextInt(2*SOUP_SIZE) - SOUP_SIZE;
+                    int y = random.nextInt(2*SOUP_SIZE) - SOUP_SIZE;
+                    boolean alive = random.nextBoolean();
+                    reference.setAlive(x, y, alive);
+                    engine.setAlive(x, y, alive);
+                }
+
+                boolean[][] cells = soup(20, 30, 0.5);
+                int x = random.nextInt(SOUP_SIZE) - SOUP_SIZE/2;
+                int y = random.nextInt(SOUP_SIZE) - SOUP_SIZE/2;
+                reference.setAlive(x, y, cells);
+                engine.setAlive(x, y, cells);
+
+                ArrayList<Cell> removed = reference.getAlive(new Bounds(x, y, 10, 10));
+                reference.setAlive(removed, false);
+                engine.setAlive(removed, false);
+                assertSameCells("edits before generation " + generation);
+            }
+            step("generation " + generation);
+        }
+    }
+
+    /**
+     * Clears areas of the universe between steps, then the whole universe.
+     */
+    @Test
+    public void testClear()
+    {
+        addSoup(0.5);
+        for (int generation = 1; generation <= 30; generation++)
+        {
+            if (generation % 3 == 0)
+            {
+                Bounds area = new Bounds(random.nextInt(SOUP_SIZE) - SOUP_SIZE,
+                        random.nextInt(SOUP_SIZE) - SOUP_SIZE, 1 + random.nextInt(100),
+                        1 + random.nextInt(100));
+                reference.clear(area);
+                engine.clear(area);
+                assertSameCells("clear " + area + " before generation " + generation);
+            }
+            step("generation " + generation);
+        }
+
+        reference.clear();
+        engine.clear();
+        assertSameCells("clear");
+        addSoup(0.5);
+        for (int generation = 1; generation <= 10; generation++)
+        {
+            step("generation " + generation + " after clearing");
+        }
+    }
+
+    /**
+     * Checks that a Snapshot keeps the generation in which it was taken, while the engine is
+     *  stepped and edited further.
+     */
+    @Test
+    public void testSnapshot()
+    {
+        addSoup(0.4);
+        step("generation 1");
+        ArrayList<Cell> expected = sorted(reference.getAlive());
+        Snapshot snapshot = engine.snapshot();
+
+        for (int generation = 2; generation <= 5; generation++)
+        {
+            step("generation " + generation);
+        }
+        engine.setAlive(0, 0, !engine.isAlive(0, 0));
+        engine.clear(new Bounds(-20, -20, 40, 40));
+
+        assertEquals(expected.size(), snapshot.getNumberAlive());
+        assertEquals(expected, sorted(snapshot.getAlive()));
+    }
+
+    /**
+     * Publishes a Snapshot after every generation and edit, as a double-buffered {@link Map}
+     *  does, keeping some of them, and checks that each kept Snapshot still holds its generation
+     *  once the others have been garbage collected and the engine has gone on.
+     */
+    @Test
+    public void testSnapshots()
+    {
+        ArrayList<Snapshot> snapshots = new ArrayList<Snapshot>();
+        ArrayList<ArrayList<Cell>> expected = new ArrayList<ArrayList<Cell>>();
+        addSoup(0.4);
+        for (int generation = 1; generation <= 40; generation++)
+        {
+            step("generation " + generation);
+            if (generation % 4 == 0)
+            {
+                engine.clear(new Bounds(generation - 40, -30, 20, 60));
+                reference.clear(new Bounds(generation - 40, -30, 20, 60));
+            }
+
+            Snapshot snapshot = engine.snapshot();
+            assertEquals("generation " + generation, sorted(reference.getAlive()),
+                    sorted(snapshot.getAlive()));
+            if (generation % 5 == 0)
+            {
+                snapshots.add(snapshot);
+                expected.add(sorted(reference.getAlive()));
+            }
+            if (generation % 10 == 0)
+            {
+                // let the Snapshots which were not kept be collected, and their storage reused
+                System.gc();
+            }
+        }
+
+        for (int i = 0; i < snapshots.size(); i++)
+        {
+            assertEquals("snapshot " + i, expected.get(i).size(),
+                    snapshots.get(i).getNumberAlive());
+            assertEquals("snapshot " + i, expected.get(i), sorted(snapshots.get(i).getAlive()));
+        }
+    }
+
+    /**
+     * Checks that a {@link HashLifeEngine} which simulates {@code 2^k} generations per step
+     *  reaches the same generation as the reference stepped {@code 2^k} times.
+     */
+    @Test
+    public void testStepExponents()
+    {
+        assumeTrue(engine instanceof HashLifeEngine);
+        addSoup(0.4);
+        for (int exponent = 1; exponent <= 6; exponent++)
+        {
+            ((HashLifeEngine) engine).setStepExponent(exponent);
+            assertEquals("exponent " + exponent, 1L << exponent, engine.step());
+            for (int generation = 0; generation < 1 << exponent; generation++)
+            {
+                reference.step();
+            }
+            assertSameCells("exponent " + exponent);
+            assertEquals("exponent " + exponent, reference.getBounds(), engine.getBounds());
+        }
+    }
+
+    /**
+     * Checks that a field of still lifes is not stepped at all once it has settled: after the two
+     *  steps which follow the edits, no Tile is active and every Tile is dormant.
+     */
+    @Test
+    public void testStillLife()
+    {
+        assumeTrue(engine instanceof TileActivity);
+        TileActivity activity = (TileActivity) engine;
+        for (int x = -200; x < 200; x += 4)
+        {
+            for (int y = -200; y < 200; y += 4)
+            {
+                reference.setAlive(cells(x, y, x + 1, y, x, y + 1, x + 1, y + 1), true);
+                engine.setAlive(cells(x, y, x + 1, y, x, y + 1, x + 1, y + 1), true);
+            }
+        }
+
+        step("generation 1");
+        step("generation 2");
+        for (int generation = 3; generation <= 5; generation++)
+        {
+            step("generation " + generation);
+            assertEquals("generation " + generation, 0, activity.getActiveTiles());
+            assertEquals("generation " + generation, activity.getTileCount(),
+                    activity.getDormantTiles());
+        }
+    }
+
+    /**
+     * Adds a random soup of {@link #SOUP_SIZE} cells square, centered on the origin, to both
+     *  engines.
+     *
+     * @param density - the probability that each cell of the soup is alive
+     */
+    private void addSoup(double density)
+    {
+        boolean[][] cells = soup(SOUP_SIZE, SOUP_SIZE, density);
+        reference.setAlive(-SOUP_SIZE/2, -SOUP_SIZE/2, cells);
+        engine.setAlive(-SOUP_SIZE/2, -SOUP_SIZE/2, cells);
+    }
+
+    /**
+     * Creates a random soup.
+     *
+     * @param width - the width of the soup
+     * @param height - the height of the soup
+     * @param density - the probability that each cell is alive
+     * @return the cells of the soup, indexed by x and then y
+     */
+    private boolean[][] soup(int width, int height, double density)
+    {
+        boolean[][] cells = new boolean[width][height];
+        for (int x = 0; x < width; x++)
+        {
+            for (int y = 0; y < height; y++)
+            {
+                cells[x][y] = random.nextDouble() < density;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Steps both engines by a generation and compares them, including the statistics of the
+     *  step.
+     *
+     * @param message - the description of the generation, for failures
+     */
+    private void step(String message)
+    {
+        assertEquals(message, 1, reference.step());
+        assertEquals(message, 1, engine.step());
+        assertSameCells(message);
+
+        if (engine.getBirths() != GenerationStatistics.UNKNOWN)
+        {
+            assertEquals(message + " births", reference.getBirths(), engine.getBirths());
+        }
+        if (engine.getDeaths() != GenerationStatistics.UNKNOWN)
+        {
+            assertEquals(message + " deaths", reference.getDeaths(), engine.getDeaths());
+        }
+        assertEquals(message + " bounds", reference.getBounds(), engine.getBounds());
+    }
+
+    /**
+     * Compares the living cells and population of the engine under test with the reference.
+     *
+     * @param message - the description of the comparison, for failures
+     */
+    private void assertSameCells(String message)
+    {
+        assertEquals(message + " population", reference.getNumberAlive(),
+                engine.getNumberAlive());
+        assertEquals(message + " cells", sorted(reference.getAlive()),
+                sorted(engine.getAlive()));
+    }
+
+    /**
+     * Creates a sorted list of cells.
+     *
+     * @param coordinates - the x- and y-coordinates of each cell, in turn
+     * @return a new list of the cells, in their natural order
+     */
+    private static ArrayList<Cell> cells(int... coordinates)
+    {
+        ArrayList<Cell> cells = new ArrayList<Cell>();
+        for (int i = 0; i < coordinates.length; i += 2)
+        {
+            cells.add(new Cell(coordinates[i], coordinates[i + 1]));
+        }
+        return sorted(cells);
+    }
+
+    /**
+     * Sorts the given cells in their natural order, since engines may list them in any order.
+     *
+     * @param cells - a list of cells, which is sorted in place
+     * @return the sorted list
+     */
+    private static ArrayList<Cell> sorted(ArrayList<Cell> cells)
+    {
+        Collections.sort(cells);
+        return cells;
+    }
+}
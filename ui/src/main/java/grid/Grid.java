@@ -0,0 +1,1398 @@
+package grid;
+
+import graphics.AcceleratedImage;
+import graphics.DisplayMonitor;
+import image.ImageLoader;
+import io.Listener;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import pattern.Pattern;
+
+import main.Animator;
+import main.Diagnostics;
+import main.GameOfLife;
+
+/**
+ * Handles the interface between the user and a Map object.
+ * The Grid is drawn as the background of the full-screen window and it handles all access to the
+ *  Map, including:
+ * <ul>
+ * <li>Creation and destruction of cells with the mouse</li>
+ * <li>Zooming and movement of the Grid</li>
+ * <li>Rendering the Grid at the current position and zoom</li>
+ * </ul>
+ */
+public class Grid implements Animator.Animated
+{
+    private AcceleratedImage aliveImage;
+    private ArrayList<Long> simulationTimes;
+
+    /**
+     * Whether the cells are drawn by writing their pixels directly into {@link #raster}, which is
+     *  then drawn once per frame, rather than with a drawing operation per cell.
+     */
+    private boolean rasterized;
+    /**
+     * The image the size of the screen into which cells are drawn when rasterized, and its pixels.
+     */
+    private BufferedImage raster;
+    private int[] pixels;
+    /**
+     * The pixels of the alive image scaled to {@link #spriteZoom}, cropped to a square of
+     *  {@code (int) spriteZoom} pixels, or null if it has not been scaled yet.
+     */
+    private int[] sprite;
+    private double spriteZoom;
+    /**
+     * The rendered images of the Tiles of a {@link TileView}, copied into the raster instead of
+     *  drawing their cells while the zoom stays the same; see {@link #drawTiles(TileView, int,
+     *  int, double)}.
+     */
+    private TileImageCache tileImages;
+    /**
+     * The zoom at which the raster was last drawn, so that Tile images are only rendered once
+     *  the zoom has settled.
+     */
+    private double rasterZoom;
+    /**
+     * Whether the last frame was drawn from {@link #tileImages}.
+     */
+    private boolean tilesCached;
+    /**
+     * The number of living cells counted in each pixel of the raster when zoomed out below one
+     *  pixel per cell, or null if it has not been needed yet.
+     */
+    private int[] counts;
+    /**
+     * The level of the {@link PopulationPyramid} drawn in the last frame when zoomed out below one
+     *  pixel per cell, or -1 if its cells were counted individually.
+     */
+    private int densityLevel;
+
+    /**
+     * Whether the user is currently dragging to either create or destroy cells.
+     */
+    private boolean dragging;
+    /**
+     * Whether the user is currently creating cells with the mouse drag.
+     * Note: this can be true even after the user has released the mouse.
+     */
+    private boolean creating;
+    private boolean upHeld;
+    private boolean downHeld;
+    private boolean rightHeld;
+    private boolean leftHeld;
+    private boolean plusHeld;
+    private boolean minusHeld;
+    private boolean[][] clipboard;
+
+    private static final Color backgroundColor = Color.black;
+    /**
+     * The color used for living cells when zoomed out, typically green.
+     */
+    public static final Color aliveColor = new Color(0, 215, 10);
+    /**
+     * The color of the dividers between the cells, typically gray.
+     */
+    private static final Color dividerColor = new Color(50, 50, 50);
+    private static final Color simulationTimesColor = Color.red;
+    private static final Color populationColor = aliveColor;
+
+    /**
+     * The far left coordinate of the screen's view of the grid, in cell coordinates.
+     */
+    protected double x;
+    /**
+     * The top coordinate of the screen's view of the grid, in cell coordinates.
+     */
+    protected double y;
+    /**
+     * The current zoom: the size (width and height) of a single cell in pixels.
+     */
+    double zoom;
+    /**
+     * The speed of movement from the arrow keys in pixels/millisecond: the amount moved (in
+     *  pixels) in 1 millisecond is {@code MOVE_SPEED/zoom}.
+     */
+    private static final double MOVE_SPEED = 0.6;
+    /**
+     * The maximum ("closest") zoom: the maximum size (width and height) of a single cell in
+     *  pixels.
+     */
+    private static final double MAX_ZOOM = 70;
+    /**
+     * The minimum ("farthest") zoom: the minimum size (width and height) of a single cell in
+     *  pixels.
+     * Below a zoom of 1, the cells are drawn as a map of their density.
+     */
+    private static final double MIN_ZOOM = 1.0/1024;
+    /**
+     * The minimum zoom (width and height of cells in pixels) for which grid lines appear at all.
+     */
+    private static final double GRID_ZOOM = 5;
+    /**
+     * The largest zoom (width and height of cells in pixels) for which the grid lines begin to
+     *  fade.
+     */
+    private static final double FADE_START = 25;
+    /**
+     * The speed of zooming from the plus/minus keys in pixels/millisecond: the change (in the zoom
+     *  in pixels) in 1 millisecond is {@code ZOOM_SPEED_KEY*zoom} while plus/minus are held.
+     */
+    private static final double ZOOM_SPEED_KEY = 0.003;
+    /**
+     * The speed of zooming from the mouse wheel: the change (in the zoom in pixels) from a single
+     *  mouse wheel "tick" is {@code ZOOM_SPEED_MOUSE*zoom}.
+     */
+    private static final double ZOOM_SPEED_MOUSE = 0.1;
+
+    /**
+     * The largest estimated number of living cells on the screen for which the density map is
+     *  counted from the cells themselves; above this it is drawn from the blocks of the Map's
+     *  {@link PopulationPyramid}.
+     */
+    private static final long DENSITY_CELL_LIMIT = 1 << 21;
+    /**
+     * The largest zoom (width and height of cells in pixels) at which Tiles are drawn from cached
+     *  images; above it so few cells fit on the screen that drawing them is already cheap, while
+     *  the image of a whole Tile would be large.
+     */
+    private static final double TILE_CACHE_ZOOM = 8;
+    /**
+     * The greatest number of bytes of pixels held by the cached Tile images.
+     */
+    private static final long TILE_CACHE_SIZE = 64 << 20;
+    /**
+     * The colors of the density map, indexed by {@code 256*density}, where density is the
+     *  fraction of living cells in the area of a pixel.
+     */
+    private static final int[] densityColors = createDensityColors();
+
+    /**
+     * The maximum simulation time labeled in the diagnostic view.
+     * Simulation times above this are shown outside (above) the diagnostic view.
+     */
+    private static final long maxSimulationTime = 50;
+
+    private Map map;
+    /**
+     * The kind of Engine which stores and simulates the Map.
+     */
+    private EngineType engineType;
+
+    private Pattern selectedPattern;
+    private Point lastDrag;
+
+    private Selection selection;
+
+    /**
+     * Creates a new, empty Grid.
+     * The Grid's position is initialize to a standard zoom and the top-left of the screen to be
+     *  the origin.
+     * The Grid's Map is also created, and empty; it is stored in a {@link TiledEngine}, and it is
+     *  double-buffered, so that drawing never waits for the simulation.
+     */
+    public Grid()
+    {
+        x = 0;
+        y = 0;
+        zoom = 20;
+        upHeld = false;
+        downHeld = false;
+        rightHeld = false;
+        leftHeld = false;
+
+        dragging = false;
+        creating = false;
+        lastDrag = new Point();
+        simulationTimes = new ArrayList<Long>();
+        selection = new Selection(this);
+        selectedPattern = null;
+
+        engineType = EngineType.TILED;
+        map = new Map(engineType.create());
+        map.setDoubleBuffered(true);
+        clipboard = null;
+
+        aliveImage = ImageLoader.load("alive", AcceleratedImage.OPAQUE);
+        rasterized = true;
+        densityLevel = -1;
+        tileImages = new TileImageCache(TILE_CACHE_SIZE, backgroundColor.getRGB(),
+                aliveColor.getRGB());
+
+        Listener.requestNotification(this, "keyPressed", Listener.TYPE_KEY_PRESSED);
+        Listener.requestNotification(this, "keyReleased", Listener.TYPE_KEY_RELEASED);
+        Listener.requestNotification(this, "mousePressed", Listener.TYPE_MOUSE_PRESSED);
+        Listener.requestNotification(this, "mouseReleased",
+                Listener.TYPE_MOUSE_RELEASED, Listener.CODE_BUTTON1);
+        Listener.requestNotification(this, "mouseDragged",
+                Listener.TYPE_MOUSE_DRAGGED, Listener.CODE_BUTTON1);
+        Listener.requestNotification(this, "mouseWheel",
+                Listener.TYPE_MOUSE_WHEEL, Listener.CODE_SCROLL_BOTH);
+
+        Animator.register(this);
+    }
+
+    /**
+     * Determines whether any of the keys which move or zoom the Grid are held.
+     *
+     * @return true if the position or zoom of the Grid is changing, false otherwise
+     * @see Animator.Animated#isAnimating()
+     */
+    public boolean isAnimating()
+    {
+        return upHeld || downHeld || rightHeld || leftHeld || plusHeld || minusHeld;
+    }
+
+    /**
+     * Updates the position and zoom of the Grid based on the states of relevant keys such as the
+     *  arrow and plus/minus keys.
+     *
+     * @param elapsed - the time since the last update, in milliseconds
+     * @see Animator.Animated#animate(long)
+     */
+    public void animate(long elapsed)
+    {
+        if (upHeld && !downHeld)
+        {
+            y -= toCell(MOVE_SPEED*elapsed);
+        }
+        else if (downHeld && !upHeld)
+        {
+            y += toCell(MOVE_SPEED*elapsed);
+        }
+        if (rightHeld && !leftHeld)
+        {
+            x += toCell(MOVE_SPEED*elapsed);
+        }
+        else if (leftHeld && !rightHeld)
+        {
+            x -= toCell(MOVE_SPEED*elapsed);
+        }
+        if (plusHeld && !minusHeld)
+        {
+            zoom(ZOOM_SPEED_KEY*elapsed*zoom);
+        }
+        else if (minusHeld && !plusHeld)
+        {
+            zoom(-ZOOM_SPEED_KEY*elapsed*zoom);
+        }
+    }
+
+    /**
+     * Gets the current generation of the Grid's Map.
+     * The generation is a counter which is incremented every time the Grid is updated and reset
+     *  (to 0) whenever the Grid is cleared.
+     *
+     * @return the current generation of the Map
+     */
+    public long getGeneration()
+    {
+        return map.getGeneration();
+    }
+
+    /**
+     * Gets the Map displayed by this Grid.
+     *
+     * @return the Grid's Map
+     */
+    Map getMap()
+    {
+        return map;
+    }
+
+    /**
+     * Gets the Engine which stores and simulates the cells of the Grid's Map.
+     *
+     * @return the Engine of the Map
+     * @see Map#getEngine()
+     */
+    public Engine getEngine()
+    {
+        return map.getEngine();
+    }
+
+    /**
+     * Gets the kind of Engine which stores and simulates the cells of the Grid's Map.
+     *
+     * @return the current type of Engine, {@link EngineType#TILED} unless it has been changed
+     */
+    public EngineType getEngineType()
+    {
+        return engineType;
+    }
+
+    /**
+     * Replaces the Engine which stores and simulates the cells of the Grid's Map with a new Engine
+     *  of the given type, keeping the current living cells.
+     *
+     * @param engineType - the type of the new Engine for the Map
+     * @see Map#setEngine(Engine)
+     */
+    public void setEngineType(EngineType engineType)
+    {
+        map.setEngine(engineType.create());
+        this.engineType = engineType;
+    }
+
+    /**
+     * Determines whether the cells are drawn by writing their pixels directly into an image the
+     *  size of the screen.
+     *
+     * @return true if the cells are rasterized, false if each is drawn with the graphics context
+     * @see #setRasterized(boolean)
+     */
+    public boolean isRasterized()
+    {
+        return rasterized;
+    }
+
+    /**
+     * Sets whether the cells are drawn by writing their pixels directly into an image the size of
+     *  the screen, which is then drawn with a single operation.
+     * Rasterizing makes the time taken to draw a frame depend mostly on the number of pixels on
+     *  the screen rather than the number of visible cells, which is much faster once there are
+     *  many thousands of cells on the screen.
+     *
+     * @param rasterized - true to rasterize the cells, false to draw each with the graphics context
+     */
+    public void setRasterized(boolean rasterized)
+    {
+        this.rasterized = rasterized;
+    }
+
+    /**
+     * Sets the pattern currently "held" by the user.
+     * This pattern is shown on the screen as if it is dragged by the mouse, and is placed onto the
+     *  grid when the user clicks the mouse (or removed when the user right-clicks).
+     *
+     * @param pattern - the currently selected pattern, or null for no pattern
+     */
+    public void setSelectedPattern(Pattern pattern)
+    {
+        selectedPattern = pattern;
+    }
+
+    /**
+     * Updates the Grid's Map, which simulates the next generation and replaces the Map's contents
+     *  with the next generation.
+     *
+     * @see Map#update()
+     */
+    public void update()
+    {
+        update(1);
+    }
+
+    /**
+     * Updates the Grid's Map by simulating at least the given number of generations, of which only
+     *  the last is published for drawing.
+     * The time taken is recorded for the diagnostics as a single update.
+     * A {@link HashLifeEngine} is set to simulate the largest power of 2 which is at most the given
+     *  number of generations in each of its steps, so that a whole stride of the
+     *  {@link main.SimulationScheduler} is a single superspeed step; only then is the Map locked
+     *  for a whole stride, and otherwise it is locked for one generation at a time.
+     *
+     * @param generations - the number of generations to simulate, at least 1
+     * @see Map#update(int)
+     */
+    public void update(int generations)
+    {
+        long before = System.nanoTime();
+        synchronized (map)
+        {
+            Engine engine = map.getEngine();
+            if (engine instanceof HashLifeEngine)
+            {
+                ((HashLifeEngine) engine).setStepExponent(
+                        31 - Integer.numberOfLeadingZeros(generations));
+            }
+        }
+        map.update(generations);
+        synchronized (simulationTimes)
+        {
+            // the simulation may run much faster than the diagnostics are drawn (or they may not
+            //  be drawn at all), so no more times are kept than fit across the screen
+            if (simulationTimes.size() >= DisplayMonitor.screen.width)
+            {
+                simulationTimes.remove(0);
+            }
+            simulationTimes.add((System.nanoTime() - before)/1000000);
+        }
+    }
+
+    /**
+     * Clears the Grid's Map, which removes all living cells from the Map and resets the generation
+     *  counter.
+     *
+     * @see Map#clear()
+     */
+    public void clear()
+    {
+        map.clear();
+        synchronized (simulationTimes)
+        {
+            simulationTimes.clear();
+        }
+    }
+
+    /**
+     * Clears the given area.
+     *
+     * @param area - the area of the grid to clear, in cell coordinates
+     * @see Map#clear(Bounds)
+     */
+    public void clear(Rectangle area)
+    {
+        map.clear(toBounds(area));
+    }
+
+    /**
+     * Copies the given area onto the Grid's clipboard.
+     *
+     * @param area - the area of the grid to copy, in cell coordinates
+     */
+    public void copy(final Rectangle area)
+    {
+        final boolean[][] copied = new boolean[area.width][area.height];
+        map.visitAlive(toBounds(area), new CellVisitor()
+        {
+            public void visit(int x, int y)
+            {
+                copied[x - area.x][y - area.y] = true;
+            }
+        });
+        clipboard = copied;
+    }
+
+    /**
+     * Creates a rectangular border around the interior of the given area.
+     *
+     * @param area - the area of the grid to "square", in cell coordinates
+     * @see Map#square(Bounds)
+     */
+    public void square(Rectangle area)
+    {
+        map.square(toBounds(area));
+    }
+
+    /**
+     * Creates an ellipse contained in the given area.
+     *
+     * @param area - the area of the grid in which to create an oval, in cell coordinates
+     * @see Map#oval(Bounds)
+     */
+    public void oval(Rectangle area)
+    {
+        map.oval(toBounds(area));
+    }
+
+    /**
+     * Rotates the given area of the Grid clockwise 90 degrees.
+     *
+     * @param area - the area of the grid to rotate, in cell coordinates
+     * @return the transformed area
+     * @see Map#rotateCW(Bounds)
+     */
+    public Rectangle rotateCW(Rectangle area)
+    {
+        return toRectangle(map.rotateCW(toBounds(area)));
+    }
+
+    /**
+     * Rotates the given area of the Grid counterclockwise 90 degrees.
+     *
+     * @param area - the area of the grid to rotate, in cell coordinates
+     * @return the transformed area
+     * @see Map#rotateCCW(Bounds)
+     */
+    public Rectangle rotateCCW(Rectangle area)
+    {
+        return toRectangle(map.rotateCCW(toBounds(area)));
+    }
+
+    /**
+     * Converts the given area of the screen's toolkit to the engine's Bounds.
+     *
+     * @param area - an area of the grid, in cell coordinates
+     * @return Bounds of the same cells
+     */
+    private static Bounds toBounds(Rectangle area)
+    {
+        return new Bounds(area.x, area.y, area.width, area.height);
+    }
+
+    /**
+     * Converts the given Bounds of the engine to a Rectangle of the screen's toolkit.
+     *
+     * @param bounds - an area of the grid, in cell coordinates
+     * @return a Rectangle of the same cells
+     */
+    private static Rectangle toRectangle(Bounds bounds)
+    {
+        return new Rectangle(bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    /**
+     * Pastes the current contents of the clipboard at the current location of the mouse.
+     */
+    private void pasteClipboard()
+    {
+        if (clipboard != null)
+        {
+            Cell mouse = getMouseCell();
+            map.setAlive(mouse.x, mouse.y, clipboard);
+        }
+    }
+
+    /**
+     * Invoked when a key is pressed.
+     * The states of movement and zooming keys are updated.
+     *
+     * @param e - the triggering event
+     */
+    public void keyPressed(KeyEvent e)
+    {
+        switch (e.getKeyCode())
+        {
+        case KeyEvent.VK_RIGHT:
+            rightHeld = true;
+            break;
+        case KeyEvent.VK_LEFT:
+            leftHeld = true;
+            break;
+        case KeyEvent.VK_UP:
+            upHeld = true;
+            break;
+        case KeyEvent.VK_DOWN:
+            downHeld = true;
+            break;
+        case KeyEvent.VK_PLUS:
+        case KeyEvent.VK_EQUALS:
+            plusHeld = true;
+            break;
+        case KeyEvent.VK_MINUS:
+            minusHeld = true;
+            break;
+        case KeyEvent.VK_V:
+            if (Listener.controlHeld())
+            {
+                pasteClipboard();
+            }
+            break;
+        case KeyEvent.VK_A:
+            if (Listener.controlHeld())
+            {
+                if (Listener.shiftHeld())
+                {
+                    selection.close();
+                }
+                else
+                {
+                    selection.setSelection(new Rectangle((int)Math.ceil(x), (int)Math.ceil(y),
+                            (int)(DisplayMonitor.screen.width/zoom - Math.abs(x - (int)x)),
+                            (int)(DisplayMonitor.screen.height/zoom - Math.abs(y - (int)y))));
+                }
+            }
+            break;
+        }
+    }
+
+    /**
+     * Invoked when a key is released.
+     * The states of movement and zooming keys are updated and "V" with the control key held pastes
+     *  the current clipboard.
+     *
+     * @param e - the triggering event
+     */
+    public void keyReleased(KeyEvent e)
+    {
+        switch (e.getKeyCode())
+        {
+        case KeyEvent.VK_RIGHT:
+            rightHeld = false;
+            break;
+        case KeyEvent.VK_LEFT:
+            leftHeld = false;
+            break;
+        case KeyEvent.VK_UP:
+            upHeld = false;
+            break;
+        case KeyEvent.VK_DOWN:
+            downHeld = false;
+            break;
+        case KeyEvent.VK_PLUS:
+        case KeyEvent.VK_EQUALS:
+            plusHeld = false;
+            break;
+        case KeyEvent.VK_MINUS:
+            minusHeld = false;
+            break;
+        }
+    }
+
+    /**
+     * Invoked when the mouse is pressed.
+     *
+     * @param e - the triggering event
+     */
+    public void mousePressed(MouseEvent e)
+    {
+        if (!GameOfLife.consumed(e, this))
+        {
+            if (e.getButton() == MouseEvent.BUTTON1)
+            {
+                if (!selection.mousePressed(e))
+                {
+                    Cell mouseCell = getMouseCell();
+                    if (selectedPattern == null)
+                    {
+                        dragging = true;
+
+                        if (map.isAlive(mouseCell.x, mouseCell.y))
+                        {
+                            map.setAlive(mouseCell.x, mouseCell.y, false);
+                            creating = false;
+                        }
+                        else
+                        {
+                            map.setAlive(mouseCell.x, mouseCell.y, true);
+                            creating = true;
+                        }
+                    }
+                    else
+                    {
+                        map.setAlive(mouseCell.x, mouseCell.y, selectedPattern.pattern);
+                    }
+                }
+            }
+            else if (e.getButton() == MouseEvent.BUTTON3)
+            {
+                selectedPattern = null;
+            }
+        }
+
+        lastDrag = e.getLocationOnScreen();
+    }
+
+    /**
+     * Invoked when the mouse is released.
+     *
+     * @param e - the triggering event
+     */
+    public void mouseReleased(MouseEvent e)
+    {
+        selection.mouseReleased(e);
+        dragging = false;
+    }
+
+    /**
+     * Invoked when the mouse is dragged.
+     *
+     * @param e - the triggering event
+     */
+    public void mouseDragged(MouseEvent e)
+    {
+        if (!GameOfLife.consumed(e, this))
+        {
+            if (dragging)
+            {
+                Cell mouseCell = getMouseCell();
+                map.setAlive(mouseCell.x, mouseCell.y, creating);
+            }
+            else
+            {
+                selection.mouseDragged(e);
+            }
+        }
+
+        lastDrag = e.getLocationOnScreen();
+    }
+
+    /**
+     * Invoked when the mouse wheel is scrolled.
+     *
+     * @param e - the triggering event
+     */
+    public void mouseWheel(MouseWheelEvent e)
+    {
+        zoom(-ZOOM_SPEED_MOUSE * zoom * e.getWheelRotation());
+    }
+
+    /**
+     * Zooms by the given amount.
+     * The zoom is adjusted by the given amount and kept between {@link #MIN_ZOOM} and
+     *  {@link #MAX_ZOOM}.
+     * The x- and y-coordinates of the Grid are also adjusted so that the cursor is kept over the
+     *  same cell before and after the zoom change.
+     *
+     * @param amount - the amount to change the zoom, in pixels
+     */
+    protected void zoom(double amount)
+    {
+        double prevZoom = zoom;
+        zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom + amount));
+
+        x -= (DisplayMonitor.screen.width - zoom/prevZoom*DisplayMonitor.screen.width)/zoom
+                *Listener.getMouse().x/DisplayMonitor.screen.width;
+        y -= (DisplayMonitor.screen.height - zoom/prevZoom*DisplayMonitor.screen.height)/zoom
+                *Listener.getMouse().y/DisplayMonitor.screen.height;
+    }
+
+    /**
+     * Converts the given pixel value to a cell location.
+     * That is, the value scaled by the current zoom is returned, so that this method is equivalent
+     *  to the statement {@code pixel/zoom}.
+     * Examples:
+     * <ul>
+     * <li>{@code toCell(0) = 0}</li>
+     * <li>{@code toCell(screen_width)} is the number of cell shown on the screen</li>
+     * <li>{@code toCell(mouse_x)} is the x-coordinate of the cell that the mouse is currently
+     *  hovering over, shifted by -{@link #x}.</li>
+     * </ul>
+     *
+     * @param pixel - the pixel value to be converted to the cell scale
+     * @return the cell equivalent of the given pixel value
+     * @see #toPixel(double)
+     */
+    protected double toCell(double pixel)
+    {
+        return pixel / zoom;
+    }
+
+    /**
+     * Converts the given cell value to a pixel location.
+     * That is, the value is scaled by the current zoom is returned, so this method is equivalent
+     *  to the statement {@code cell*zoom}.
+     * Examples:
+     * <ul>
+     * <li>{@code toPixel(0) = 0}</li>
+     * <li>{@code toPixel(1) = zoom}</li>
+     * </ul>
+     *
+     * @param cell - the cell value to be converted to the pixel scale
+     * @return the pixel equivalent of the given cell value
+     * @see #toCell(double)
+     */
+    protected double toPixel(double cell)
+    {
+        return cell * zoom;
+    }
+
+    /**
+     * Gets the Cell over which the mouse is currently hovering.
+     *
+     * @return the Cell whose coordinates are the coordinates of the cell currently below the mouse
+     */
+    private Cell getMouseCell()
+    {
+        return new Cell(roundToward0(x + toCell(Listener.getMouse().x)),
+                roundToward0(y + toCell(Listener.getMouse().y)));
+    }
+
+    /**
+     * Gets the area of the Grid which is currently visible on the screen.
+     * The area includes any cells which are partially visible.
+     *
+     * @return the visible area, in cell coordinates
+     */
+    private Bounds getViewport()
+    {
+        return new Bounds((int) Math.floor(x) - 1, (int) Math.floor(y) - 1,
+                (int) Math.ceil(toCell(DisplayMonitor.screen.width)) + 2,
+                (int) Math.ceil(toCell(DisplayMonitor.screen.height)) + 2);
+    }
+
+    /**
+     * Gets the integer farthest from 0 that is closer to 0 (or the same distance)than the given
+     *  double.
+     * That is, if the given value is less than 0, it is truncated and decremented, and if it is
+     *  greater than or equal to 0 it is simply truncated.
+     *
+     * @param a - the value to which to round towards 0
+     * @return the given value, rounded (truncated) "towards" 0
+     */
+    private static int roundToward0(double a)
+    {
+        if (a < 0)
+        {
+            return (int) a - 1;
+        }
+        return (int) a;
+    }
+
+    /**
+     * Draws the Grid on the screen.
+     * Note that any drawing operations before this will be erased because the entire screen is
+     *  filled with the background color of the Grid.
+     * The cells are read from the last generation published by the Map, so drawing does not wait
+     *  for a generation which is being simulated.
+     *
+     * @param g - the graphics context
+     */
+    public void draw(Graphics2D g)
+    {
+        if (zoom < 1)
+        {
+            drawDensity(g);
+        }
+        else if (rasterized)
+        {
+            drawRaster(g);
+        }
+        else
+        {
+            g.setColor(backgroundColor);
+            g.fillRect(0, 0, DisplayMonitor.screen.width, DisplayMonitor.screen.height);
+
+            CellPainter painter;
+            if (zoom <= FADE_START)
+            {
+                g.setColor(aliveColor);
+                painter = new CellPainter(g, false);
+            }
+            else
+            {
+                aliveImage.setScale(zoom / aliveImage.getWidth(), zoom / aliveImage.getHeight());
+                painter = new CellPainter(g, true);
+            }
+
+            map.getSnapshot().visitAlive(getViewport(), painter);
+            visitSelectedPattern(painter);
+            g.setClip(null);
+        }
+
+        Composite c = g.getComposite();
+        if (zoom >= GRID_ZOOM)
+        {
+            g.setColor(dividerColor);
+
+            if (zoom <= FADE_START)
+            {
+                g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC,
+                        (float) (zoom/FADE_START)));
+            }
+
+            for (double x0 = Math.floor(x) - x; x0 < DisplayMonitor.screen.width / zoom + 1; x0++)
+            {
+                g.drawLine((int) toPixel(x0), 0, (int) toPixel(x0), DisplayMonitor.screen.height);
+            }
+            for (double y0 = Math.floor(y) - y; y0 < DisplayMonitor.screen.height / zoom + 1; y0++)
+            {
+                g.drawLine(0, (int) toPixel(y0), DisplayMonitor.screen.width, (int) toPixel(y0));
+            }
+        }
+        g.setComposite(c);
+
+        selection.draw(g);
+    }
+
+    /**
+     * Draws the living cells (and the selected pattern) by writing their pixels into the raster
+     *  image and then drawing it on the screen.
+     * The raster is recreated if the size of the screen has changed.
+     * If the Map's Snapshot is a {@link TileView}, the zoom is at most {@link #TILE_CACHE_ZOOM}
+     *  and it has not changed since the last frame, the cells are copied from cached images of
+     *  their Tiles; while zooming, the images would be discarded every frame, so the cells are
+     *  drawn one at a time instead.
+     *
+     * @param g - the graphics context
+     */
+    private void drawRaster(Graphics2D g)
+    {
+        int width = DisplayMonitor.screen.width;
+        int height = DisplayMonitor.screen.height;
+        clearRaster(width, height);
+
+        // the zoom may be changed while drawing, so the size of a cell is taken from the sprite
+        double zoom = this.zoom;
+        int[] sprite = zoom > FADE_START ? getSprite() : null;
+        int size = sprite == null ? (int) zoom : (int) spriteZoom;
+        RasterPainter painter = new RasterPainter(width, height, size, sprite);
+
+        Snapshot snapshot = map.getSnapshot();
+        tilesCached = snapshot instanceof TileView && zoom <= TILE_CACHE_ZOOM &&
+                zoom == rasterZoom;
+        rasterZoom = zoom;
+        if (tilesCached)
+        {
+            drawTiles((TileView) snapshot, width, height, zoom);
+        }
+        else
+        {
+            snapshot.visitAlive(getViewport(), painter);
+        }
+        visitSelectedPattern(painter);
+
+        g.drawImage(raster, 0, 0, null);
+    }
+
+    /**
+     * Copies the cached image of each Tile on the screen into the raster, rendering only the
+     *  images of Tiles which have changed since they were last drawn.
+     * Each Tile is placed where its top left cell would be drawn by a {@link RasterPainter}, and
+     *  its other cells are placed relative to it, so they may be up to a pixel away from where
+     *  they would be drawn one at a time.
+     *
+     * @param snapshot - the Snapshot whose Tiles to draw
+     * @param width - the width of the raster, in pixels
+     * @param height - the height of the raster, in pixels
+     * @param zoom - the zoom at which to draw, read once since it may change while drawing
+     */
+    private void drawTiles(TileView snapshot, final int width, final int height, final double zoom)
+    {
+        tileImages.setZoom(zoom);
+        tileImages.resetCounts();
+        final int size = tileImages.getWidth();
+        final double x = this.x;
+        final double y = this.y;
+
+        snapshot.visitTiles(getViewport(), new TileVisitor()
+        {
+            public void visit(int tx, int ty, long version, long[] rows)
+            {
+                int cx = tx << Tile.SHIFT;
+                int cy = ty << Tile.SHIFT;
+                int px = (int) ((cx - x)*zoom) + (cx > x ? 1 : 0);
+                int py = (int) ((cy - y)*zoom) + (cy > y ? 1 : 0);
+                int left = Math.max(px, 0);
+                int right = Math.min(px + size, width);
+                int top = Math.max(py, 0);
+                int bottom = Math.min(py + size, height);
+                if (left >= right || top >= bottom)
+                {
+                    return;
+                }
+
+                int[] image = tileImages.getImage(tx, ty, version, rows);
+                for (int row = top; row < bottom; row++)
+                {
+                    System.arraycopy(image, (row - py)*size + left - px, pixels,
+                            row*width + left, right - left);
+                }
+            }
+        });
+    }
+
+    /**
+     * Draws the living cells when zoomed out below one pixel per cell, as a map of their density
+     *  written into the raster image.
+     * If few enough cells are on the screen, the cells within each pixel are counted exactly;
+     *  otherwise the blocks of the coarsest level of the Map's {@link PopulationPyramid} which are
+     *  still at least one pixel wide are drawn, so that the time taken depends on the number of
+     *  pixels rather than the number of cells, however large the universe.
+     * The cells of the selected pattern are drawn as single pixels.
+     *
+     * @param g - the graphics context
+     */
+    private void drawDensity(Graphics2D g)
+    {
+        final int width = DisplayMonitor.screen.width;
+        final int height = DisplayMonitor.screen.height;
+        clearRaster(width, height);
+
+        // the view may be changed while drawing, so it is read once
+        final double zoom = this.zoom;
+        final double x = this.x;
+        final double y = this.y;
+        Bounds viewport = getViewport();
+
+        PopulationPyramid pyramid = map.getPopulationPyramid();
+        if (pyramid.estimateNumberAlive(viewport) <= DENSITY_CELL_LIMIT)
+        {
+            densityLevel = -1;
+            if (counts == null || counts.length != pixels.length)
+            {
+                counts = new int[pixels.length];
+            }
+            else
+            {
+                Arrays.fill(counts, 0);
+            }
+
+            map.getSnapshot().visitAlive(viewport, new CellVisitor()
+            {
+                public void visit(int cx, int cy)
+                {
+                    int px = (int) Math.floor((cx - x)*zoom);
+                    int py = (int) Math.floor((cy - y)*zoom);
+                    if (px >= 0 && py >= 0 && px < width && py < height)
+                    {
+                        counts[py*width + px]++;
+                    }
+                }
+            });
+
+            // each pixel covers an area of 1/zoom^2 cells
+            double scale = 256*zoom*zoom;
+            for (int i = 0; i < counts.length; i++)
+            {
+                if (counts[i] != 0)
+                {
+                    pixels[i] = densityColors[Math.min(256, (int) Math.ceil(counts[i]*scale))];
+                }
+            }
+        }
+        else
+        {
+            // the finest level whose blocks are at least a pixel wide
+            int level = 0;
+            while (level + 1 < pyramid.getLevels() &&
+                    PopulationPyramid.getBlockSize(level)*zoom < 1)
+            {
+                level++;
+            }
+            densityLevel = level;
+
+            final int size = PopulationPyramid.getBlockSize(level);
+            pyramid.visitBlocks(level, viewport, new PopulationPyramid.BlockVisitor()
+            {
+                public void visit(int bx, int by, int density)
+                {
+                    int left = Math.max(0, (int) Math.floor(((double) bx*size - x)*zoom));
+                    int top = Math.max(0, (int) Math.floor(((double) by*size - y)*zoom));
+                    int right = Math.min(width, Math.max(left + 1,
+                            (int) Math.floor(((double) (bx + 1)*size - x)*zoom)));
+                    int bottom = Math.min(height, Math.max(top + 1,
+                            (int) Math.floor(((double) (by + 1)*size - y)*zoom)));
+
+                    int color = densityColors[(int) Math.ceil(256.0*density/
+                            PopulationPyramid.MAX_DENSITY)];
+                    for (int row = top; row < bottom; row++)
+                    {
+                        Arrays.fill(pixels, row*width + left, row*width + right, color);
+                    }
+                }
+            });
+        }
+
+        visitSelectedPattern(new CellVisitor()
+        {
+            public void visit(int cx, int cy)
+            {
+                int px = (int) Math.floor((cx - x)*zoom);
+                int py = (int) Math.floor((cy - y)*zoom);
+                if (px >= 0 && py >= 0 && px < width && py < height)
+                {
+                    pixels[py*width + px] = aliveColor.getRGB();
+                }
+            }
+        });
+
+        g.drawImage(raster, 0, 0, null);
+    }
+
+    /**
+     * Fills the raster image with the background color, first recreating it if it does not have
+     *  the given size.
+     *
+     * @param width - the width of the screen, in pixels
+     * @param height - the height of the screen, in pixels
+     */
+    private void clearRaster(int width, int height)
+    {
+        if (raster == null || raster.getWidth() != width || raster.getHeight() != height)
+        {
+            raster = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) raster.getRaster().getDataBuffer()).getData();
+        }
+        Arrays.fill(pixels, backgroundColor.getRGB());
+    }
+
+    /**
+     * Creates the colors of the density map.
+     * Any pixel with a living cell is drawn at least a quarter as bright as the alive color, so
+     *  that sparse patterns remain visible; brighter pixels are denser, up to the full alive color
+     *  for a density of one half (about the densest a pattern stays for long).
+     *
+     * @return the colors of the density map, indexed by {@code 256*density} from 0 to 256
+     */
+    private static int[] createDensityColors()
+    {
+        int[] colors = new int[257];
+        colors[0] = backgroundColor.getRGB();
+        for (int i = 1; i <= 256; i++)
+        {
+            double brightness = 0.25 + 0.75*Math.sqrt(Math.min(1, i/128.0));
+            colors[i] = new Color((int) (aliveColor.getRed()*brightness),
+                    (int) (aliveColor.getGreen()*brightness),
+                    (int) (aliveColor.getBlue()*brightness)).getRGB();
+        }
+        return colors;
+    }
+
+    /**
+     * Gets the pixels of the alive image scaled to the current zoom, scaling it again only if the
+     *  zoom has changed.
+     *
+     * @return the rows of pixels of a single cell, {@code (int) spriteZoom} pixels wide and high
+     */
+    private int[] getSprite()
+    {
+        double zoom = this.zoom;
+        if (sprite == null || spriteZoom != zoom)
+        {
+            int size = (int) zoom;
+            BufferedImage scaled = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            g.scale(zoom / aliveImage.getWidth(), zoom / aliveImage.getHeight());
+            g.drawImage(aliveImage.getContents(), 0, 0, null);
+            g.dispose();
+
+            sprite = ((DataBufferInt) scaled.getRaster().getDataBuffer()).getData();
+            spriteZoom = zoom;
+        }
+        return sprite;
+    }
+
+    /**
+     * Visits each living cell of the selected pattern at its position below the mouse, if there
+     *  is a selected pattern.
+     *
+     * @param visitor - the visitor to call with the coordinates of each cell of the pattern
+     */
+    private void visitSelectedPattern(CellVisitor visitor)
+    {
+        if (selectedPattern != null)
+        {
+            Cell mouse = getMouseCell();
+            for (int i = 0; i < selectedPattern.getWidth(); i++)
+            {
+                for (int j = 0; j < selectedPattern.getHeight(); j++)
+                {
+                    if (selectedPattern.pattern[i][j])
+                    {
+                        visitor.visit(mouse.x + i, mouse.y + j);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws diagnostics information in the given rectangular area.
+     * Note that the information is not guaranteed (or clipped) to the given area, in fact, some
+     *  text is guaranteed to be drawn to the left and above the area.
+     * The text inside the area is also not shortened or cropped if the area is small.
+     * The font currently used by the graphics context is used to draw the diagnostic text.
+     *
+     * @param g - the graphics context
+     * @param area - the area in which diagnostic information should be drawn
+     */
+    public synchronized void drawDiagnostics(Graphics2D g, Rectangle area)
+    {
+        g.setColor(Diagnostics.border);
+        g.drawRect(area.x, area.y, area.width, area.height);
+        g.drawString("Grid Information", area.x, area.y - 2);
+
+        g.drawString("x: " + Diagnostics.df.format(x) + " [tile] " +
+                Diagnostics.df.format(toPixel(x)) + " [px]",
+                area.x + 5, area.y + 20);
+        g.drawString("y: " + Diagnostics.df.format(y) + " [tile] " +
+                Diagnostics.df.format(toPixel(y)) + " [px]",
+                area.x + 5, area.y + 40);
+
+        String rendering = rasterized ? " (rasterized)" : "";
+        if (rasterized && tilesCached)
+        {
+            rendering = " (rasterized from " + tileImages.getCount() + " cached tile images, " +
+                    tileImages.getSize()/(1 << 20) + " MB; " + tileImages.getMisses() + " of " +
+                    (tileImages.getHits() + tileImages.getMisses()) + " rendered)";
+        }
+        if (zoom < 1)
+        {
+            rendering = densityLevel < 0 ? " (density of cells)" : " (density of " +
+                    PopulationPyramid.getBlockSize(densityLevel) + "-cell blocks)";
+        }
+        g.drawString("Zoom: " + Diagnostics.df.format(zoom) + rendering, area.x + 5, area.y + 60);
+        g.drawString("Dragging: " + dragging, area.x + 5, area.y + 80);
+        g.drawString("Creating: " + creating, area.x + 5, area.y + 100);
+
+        g.drawString("Last Drag:", area.x + 5, area.y + 120);
+        g.drawString(Diagnostics.df.format(lastDrag.x) + " [px] " +
+        Diagnostics.df.format(toCell(lastDrag.x)) + " [tile]",
+                area.x + 20, area.y + 140);
+        g.drawString(Diagnostics.df.format(lastDrag.y) + " [px] " +
+                Diagnostics.df.format(toCell(lastDrag.y)) + " [tile]",
+                area.x + 20, area.y + 160);
+        g.drawString("Living cells: " + map.getSnapshot().getNumberAlive(), area.x + 20, area.y + 180);
+        Engine engine = map.getEngine();
+        g.drawString("Engine: " + engine + ", rule " + engine.getRule(),
+                area.x + 20, area.y + 200);
+        if (engine instanceof TileActivity)
+        {
+            TileActivity tiles = (TileActivity) engine;
+            g.drawString("Tiles: " + tiles.getTileCount() + " (" + tiles.getActiveTiles() +
+                    " active, " + tiles.getDormantTiles() + " dormant)",
+                    area.x + 20, area.y + 220);
+        }
+
+        GenerationStatistics statistics = map.getStatistics();
+        if (statistics != null)
+        {
+            g.drawString("Generation " + statistics.getGeneration() + ":",
+                    area.x + 230, area.y + 20);
+            g.drawString("Births: " + format(statistics.getBirths()), area.x + 245, area.y + 40);
+            g.drawString("Deaths: " + format(statistics.getDeaths()), area.x + 245, area.y + 60);
+            Bounds bounds = statistics.getBounds();
+            g.drawString("Bounds: " + (bounds == null ? "none" : bounds.width + "x" +
+                    bounds.height + " at (" + bounds.x + ", " + bounds.y + ")"),
+                    area.x + 245, area.y + 80);
+        }
+
+        for (int i = 0; i <= 10; i++)
+        {
+            g.drawLine(area.x - 4, area.y + area.height - i*area.height/10,
+                    area.x, area.y + area.height - i*area.height/10);
+            g.drawString(String.valueOf(maxSimulationTime * i/10),
+                    area.x - 30, area.y + area.height - i*area.height/10 + 5);
+        }
+
+        g.setColor(simulationTimesColor);
+        synchronized (simulationTimes)
+        {
+            while (simulationTimes.size() > area.width - 1)
+            {
+                simulationTimes.remove(0);
+            }
+
+            for (int i = 0; i < simulationTimes.size(); i++)
+            {
+                g.drawRect(area.x + simulationTimes.size() - i - 1,
+                        (int) (area.y + area.height -
+                                area.height*simulationTimes.get(i)/maxSimulationTime - 2),
+                        1, 1);
+            }
+        }
+
+        // the population of the recent generations, scaled to the largest of them
+        ArrayList<GenerationStatistics> history = map.getHistory();
+        int start = Math.max(0, history.size() - (area.width - 1));
+        long maxPopulation = 1;
+        for (int i = start; i < history.size(); i++)
+        {
+            maxPopulation = Math.max(maxPopulation, history.get(i).getPopulation());
+        }
+
+        g.setColor(populationColor);
+        for (int i = start; i < history.size(); i++)
+        {
+            g.drawRect(area.x + history.size() - i - 1,
+                    (int) (area.y + area.height -
+                            area.height*history.get(i).getPopulation()/maxPopulation - 2),
+                    1, 1);
+        }
+    }
+
+    /**
+     * Formats a birth or death count from {@link GenerationStatistics} for the diagnostics.
+     *
+     * @param count - the count, or {@link GenerationStatistics#UNKNOWN}
+     * @return the formatted count, or "unknown"
+     */
+    private static String format(long count)
+    {
+        return count == GenerationStatistics.UNKNOWN ? "unknown" : String.valueOf(count);
+    }
+
+    /**
+     * Draws each visited cell which is on the screen, either as a filled square in the current
+     *  color or, when zoomed in past {@link Grid#FADE_START}, as the alive image.
+     */
+    private class CellPainter implements CellVisitor
+    {
+        private final Graphics2D g;
+        private final boolean image;
+
+        CellPainter(Graphics2D g, boolean image)
+        {
+            this.g = g;
+            this.image = image;
+        }
+
+        public void visit(int cx, int cy)
+        {
+            if (cx >= x - 1 && cy >= y - 1 && cx < x + toCell(DisplayMonitor.screen.width)
+                    && cy < y + toCell(DisplayMonitor.screen.height))
+            {
+                int px = (int) toPixel(cx - x) + (cx > x ? 1 : 0);
+                int py = (int) toPixel(cy - y) + (cy > y ? 1 : 0);
+                if (image)
+                {
+                    g.setClip(px, py, (int) zoom, (int) zoom);
+                    aliveImage.draw(px, py, g);
+                }
+                else
+                {
+                    g.fillRect(px, py, (int) zoom, (int) zoom);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the pixels of each visited cell which is on the screen into the raster, either in
+     *  the alive color or, when zoomed in past {@link Grid#FADE_START}, as the scaled alive image.
+     * Cells are placed exactly as by {@link CellPainter}, but clipped to the raster by hand.
+     */
+    private class RasterPainter implements CellVisitor
+    {
+        private final int width;
+        private final int height;
+        private final int size;
+        private final int color;
+        private final int[] sprite;
+
+        RasterPainter(int width, int height, int size, int[] sprite)
+        {
+            this.width = width;
+            this.height = height;
+            this.size = size;
+            this.sprite = sprite;
+            color = aliveColor.getRGB();
+        }
+
+        public void visit(int cx, int cy)
+        {
+            if (cx >= x - 1 && cy >= y - 1 && cx < x + toCell(width) && cy < y + toCell(height))
+            {
+                int px = (int) toPixel(cx - x) + (cx > x ? 1 : 0);
+                int py = (int) toPixel(cy - y) + (cy > y ? 1 : 0);
+                int left = Math.max(px, 0);
+                int right = Math.min(px + size, width);
+                int top = Math.max(py, 0);
+                int bottom = Math.min(py + size, height);
+                if (left >= right)
+                {
+                    return;
+                }
+
+                for (int row = top; row < bottom; row++)
+                {
+                    if (sprite == null)
+                    {
+                        Arrays.fill(pixels, row*width + left, row*width + right, color);
+                    }
+                    else
+                    {
+                        System.arraycopy(sprite, (row - py)*size + left - px, pixels,
+                                row*width + left, right - left);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -21,6 +21,8 @@ import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
 
+import main.Animator;
+
 /**
  * Implements a Selection pane on top of a {@link Grid} object.
  * That is, this class contains the ability for the user to create selections on the {@link Grid}
@@ -28,7 +30,7 @@ import java.awt.geom.RoundRectangle2D;
  * A selection keeps track of the area selected and also contains a toolbar shown to the right of
  *  the selection which allows the user to manipulate the selection.
  */
-public class Selection implements Runnable
+public class Selection implements Animator.Animated
 {
     private static AcceleratedImage saveImg;
     private static AcceleratedImage copyImg;
@@ -82,6 +84,11 @@ public class Selection implements Runnable
     private static final Rectangle closePos     = new Rectangle(270, 30, 15, 15);
 
     private ToolbarState toolbarState;
+    /**
+     * The boundaries of the toolbar on the screen when its buttons were last placed, or null if
+     *  they have not been placed yet.
+     */
+    private Rectangle toolbarBounds;
     private Tooltip saveTooltip;
     private Tooltip copyTooltip;
     private Tooltip rotateCWTooltip;
@@ -153,109 +160,128 @@ public class Selection implements Runnable
 
         Listener.requestNotification(this, "keyPressed", Listener.TYPE_KEY_PRESSED);
 
-        new Thread(this).start();
+        Animator.register(this);
+    }
+
+    /**
+     * Determines whether the toolbar of the Selection is sliding in or out, or has moved (with
+     *  the selection or the Grid) since its buttons were last placed.
+     *
+     * @return true if the toolbar needs to be updated, false otherwise
+     * @see Animator.Animated#isAnimating()
+     */
+    public boolean isAnimating()
+    {
+        if (selection == null)
+        {
+            return false;
+        }
+        if (!selecting && (toolbarState == ToolbarState.MOVING_IN ||
+                toolbarState == ToolbarState.MOVING_OUT))
+        {
+            return true;
+        }
+
+        try
+        {
+            return !getToolbar().equals(toolbarBounds);
+        }
+        catch (NullPointerException ex)
+        {
+            return false;
+        }
     }
 
     /**
-     * Runs the Selection in its own thread by constantly updating the toolbar.
+     * Updates the toolbar of the Selection: slides it in or out and places its buttons.
      *
-     * @see Runnable#run()
+     * @param elapsed - the time since the last update, in milliseconds
+     * @see Animator.Animated#animate(long)
      */
-    public void run()
+    public void animate(long elapsed)
     {
-        long lastUpdate = System.nanoTime();
-        while (true)
+        if (selection != null && !selecting)
         {
-            long elapsed = (System.nanoTime() - lastUpdate)/1000000;
-            if (selection != null && !selecting)
+            if (toolbarState == ToolbarState.MOVING_IN)
             {
-                if (toolbarState == ToolbarState.MOVING_IN)
+                toolbarPos -= (double)elapsed/toolbarSlideTime;
+                if (toolbarPos <= (double)minToolbarPos/toolbarWidth)
                 {
-                    toolbarPos -= (double)elapsed/toolbarSlideTime;
-                    if (toolbarPos <= (double)minToolbarPos/toolbarWidth)
-                    {
-                        toolbarPos = (double)minToolbarPos/toolbarWidth;
-                        toolbarState = ToolbarState.IN;
-
-                        save.setOn(false);
-                        copy.setOn(false);
-                        rotateCW.setOn(false);
-                        rotateCCW.setOn(false);
-                        clear.setOn(false);
-                        square.setOn(false);
-                        circle.setOn(false);
-                    }
-                }
-                else if (toolbarState == ToolbarState.MOVING_OUT)
-                {
-                    toolbarPos += (double)elapsed/toolbarSlideTime;
-                    if (toolbarPos >= 1)
-                    {
-                        toolbarPos = 1;
-                        toolbarState = ToolbarState.OUT;
-
-                        save.setOn(true);
-                        copy.setOn(true);
-                        rotateCW.setOn(true);
-                        rotateCCW.setOn(true);
-                        clear.setOn(true);
-                        square.setOn(true);
-                        circle.setOn(true);
-                    }
+                    toolbarPos = (double)minToolbarPos/toolbarWidth;
+                    toolbarState = ToolbarState.IN;
+
+                    save.setOn(false);
+                    copy.setOn(false);
+                    rotateCW.setOn(false);
+                    rotateCCW.setOn(false);
+                    clear.setOn(false);
+                    square.setOn(false);
+                    circle.setOn(false);
                 }
             }
-
-            try
+            else if (toolbarState == ToolbarState.MOVING_OUT)
             {
-                Rectangle toolbar = getToolbar();
-
-                save.setButton(new Rectangle(
-                        toolbar.x + savePos.x - toolbarWidth + toolbar.width,
-                        toolbar.y + savePos.y, savePos.width, savePos.height));
-                copy.setButton(new Rectangle(
-                        toolbar.x + copyPos.x - toolbarWidth + toolbar.width,
-                        toolbar.y + copyPos.y, copyPos.width, copyPos.height));
-                rotateCW.setButton(new Rectangle(
-                        toolbar.x + rotateCWPos.x - toolbarWidth + toolbar.width,
-                        toolbar.y + rotateCWPos.y, rotateCWPos.width, rotateCWPos.height));
-                rotateCCW.setButton(new Rectangle(
-                        toolbar.x + rotateCCWPos.x - toolbarWidth + toolbar.width,
-                        toolbar.y + rotateCCWPos.y, rotateCCWPos.width, rotateCCWPos.height));
-                clear.setButton(new Rectangle(
-                        toolbar.x + clearPos.x - toolbarWidth + toolbar.width,
-                        toolbar.y + clearPos.y, clearPos.width, clearPos.height));
-                square.setButton(new Rectangle(
-                        toolbar.x + squarePos.x - toolbarWidth + toolbar.width,
-                        toolbar.y + squarePos.y, squarePos.width, squarePos.height));
-                circle.setButton(new Rectangle(
-                        toolbar.x + circlePos.x - toolbarWidth + toolbar.width,
-                        toolbar.y + circlePos.y, circlePos.width, circlePos.height));
-                minimize.setButton(new Rectangle(
-                        toolbar.x + minimizePos.x - toolbarWidth + toolbar.width,
-                        toolbar.y + minimizePos.y, minimizePos.width, minimizePos.height));
-                close.setButton(new Rectangle(
-                        toolbar.x + closePos.x - toolbarWidth + toolbar.width,
-                        toolbar.y + closePos.y, closePos.width, closePos.height));
-
-                saveTooltip.setHoverArea(save.getButton());
-                copyTooltip.setHoverArea(copy.getButton());
-                rotateCWTooltip.setHoverArea(rotateCW.getButton());
-                rotateCCWTooltip.setHoverArea(rotateCCW.getButton());
-                clearTooltip.setHoverArea(clear.getButton());
-                squareTooltip.setHoverArea(square.getButton());
-                circleTooltip.setHoverArea(circle.getButton());
-                minimizeTooltip.setHoverArea(minimize.getButton());
-                closeTooltip.setHoverArea(close.getButton());
+                toolbarPos += (double)elapsed/toolbarSlideTime;
+                if (toolbarPos >= 1)
+                {
+                    toolbarPos = 1;
+                    toolbarState = ToolbarState.OUT;
+
+                    save.setOn(true);
+                    copy.setOn(true);
+                    rotateCW.setOn(true);
+                    rotateCCW.setOn(true);
+                    clear.setOn(true);
+                    square.setOn(true);
+                    circle.setOn(true);
+                }
             }
-            catch (NullPointerException ex) { }
+        }
 
-            lastUpdate = System.nanoTime();
-            try
-            {
-                Thread.sleep(20);
-            }
-            catch (InterruptedException ex) { }
+        try
+        {
+            Rectangle toolbar = getToolbar();
+
+            save.setButton(new Rectangle(
+                    toolbar.x + savePos.x - toolbarWidth + toolbar.width,
+                    toolbar.y + savePos.y, savePos.width, savePos.height));
+            copy.setButton(new Rectangle(
+                    toolbar.x + copyPos.x - toolbarWidth + toolbar.width,
+                    toolbar.y + copyPos.y, copyPos.width, copyPos.height));
+            rotateCW.setButton(new Rectangle(
+                    toolbar.x + rotateCWPos.x - toolbarWidth + toolbar.width,
+                    toolbar.y + rotateCWPos.y, rotateCWPos.width, rotateCWPos.height));
+            rotateCCW.setButton(new Rectangle(
+                    toolbar.x + rotateCCWPos.x - toolbarWidth + toolbar.width,
+                    toolbar.y + rotateCCWPos.y, rotateCCWPos.width, rotateCCWPos.height));
+            clear.setButton(new Rectangle(
+                    toolbar.x + clearPos.x - toolbarWidth + toolbar.width,
+                    toolbar.y + clearPos.y, clearPos.width, clearPos.height));
+            square.setButton(new Rectangle(
+                    toolbar.x + squarePos.x - toolbarWidth + toolbar.width,
+                    toolbar.y + squarePos.y, squarePos.width, squarePos.height));
+            circle.setButton(new Rectangle(
+                    toolbar.x + circlePos.x - toolbarWidth + toolbar.width,
+                    toolbar.y + circlePos.y, circlePos.width, circlePos.height));
+            minimize.setButton(new Rectangle(
+                    toolbar.x + minimizePos.x - toolbarWidth + toolbar.width,
+                    toolbar.y + minimizePos.y, minimizePos.width, minimizePos.height));
+            close.setButton(new Rectangle(
+                    toolbar.x + closePos.x - toolbarWidth + toolbar.width,
+                    toolbar.y + closePos.y, closePos.width, closePos.height));
+
+            saveTooltip.setHoverArea(save.getButton());
+            copyTooltip.setHoverArea(copy.getButton());
+            rotateCWTooltip.setHoverArea(rotateCW.getButton());
+            rotateCCWTooltip.setHoverArea(rotateCCW.getButton());
+            clearTooltip.setHoverArea(clear.getButton());
+            squareTooltip.setHoverArea(square.getButton());
+            circleTooltip.setHoverArea(circle.getButton());
+            minimizeTooltip.setHoverArea(minimize.getButton());
+            closeTooltip.setHoverArea(close.getButton());
+            toolbarBounds = toolbar;
         }
+        catch (NullPointerException ex) { }
     }
 
     /**
@@ -0,0 +1,239 @@
+package grid;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A cache of the images of {@link Tile}s, rendered at a single zoom, from which the Grid draws a
+ *  {@link TileView} by copying whole images rather than drawing each cell.
+ * Each image is kept with the version of the Tile it was rendered from, and is rendered again
+ *  only when the Tile is visited with a different version, that is, when the engine has modified
+ *  it; so drawing a board which is not changing (while it is moved around, for example) only
+ *  copies pixels.
+ * The images are evicted in least-recently-used order once they take up more than the capacity
+ *  of the cache, and are all discarded when the zoom changes.
+ */
+class TileImageCache
+{
+    /**
+     * The greatest number of bytes of pixels held by the images of the cache.
+     */
+    private final long capacity;
+    private final int background;
+    private final int color;
+    /**
+     * The images of the cache by the packed coordinates of their Tiles, in access order.
+     */
+    private final LinkedHashMap<Long, TileImage> images;
+    /**
+     * The number of bytes of pixels held by the images.
+     */
+    private long size;
+
+    /**
+     * The zoom at which the images are rendered, or 0 if none has been set.
+     */
+    private double zoom;
+    /**
+     * The width and height of each image, in pixels.
+     */
+    private int width;
+
+    /**
+     * The number of images drawn from the cache and rendered since the counts were last reset.
+     */
+    private int hits;
+    private int misses;
+
+    /**
+     * Creates a new empty TileImageCache.
+     *
+     * @param capacity - the greatest number of bytes of pixels held by the images of the cache
+     * @param background - the RGB color of dead cells
+     * @param color - the RGB color of living cells
+     */
+    TileImageCache(long capacity, int background, int color)
+    {
+        this.capacity = capacity;
+        this.background = background;
+        this.color = color;
+        images = new LinkedHashMap<Long, TileImage>(16, 0.75f, true);
+    }
+
+    /**
+     * Sets the zoom at which the images are rendered, discarding every image if it has changed.
+     * Each image is {@code (int) (Tile.SIZE*zoom)} pixels wide and high, with the cell in column
+     *  {@code c} and row {@code r} of the Tile drawn as a square of {@code (int) zoom} pixels at
+     *  {@code ((int) (c*zoom), (int) (r*zoom))}, so the images of neighboring Tiles placed
+     *  {@code Tile.SIZE*zoom} pixels apart (rounded down) never overlap.
+     *
+     * @param zoom - the width and height of a single cell in pixels, at least 1
+     */
+    void setZoom(double zoom)
+    {
+        if (zoom != this.zoom)
+        {
+            clear();
+            this.zoom = zoom;
+            width = (int) (Tile.SIZE*zoom);
+        }
+    }
+
+    /**
+     * Gets the width and height of each image at the current zoom.
+     *
+     * @return the width and height of each image, in pixels
+     */
+    int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Gets the image of the given Tile, rendering it if the cache does not hold an image of the
+     *  given version of the Tile.
+     * When an image of an earlier version is held, its pixels are rendered over in place.
+     *
+     * @param x - the x-coordinate of the Tile, in Tiles
+     * @param y - the y-coordinate of the Tile, in Tiles
+     * @param version - the version of the Tile's contents
+     * @param rows - the rows of the Tile
+     * @return the rows of pixels of the image, {@link #getWidth()} pixels wide and high, which
+     *  must not be modified
+     */
+    int[] getImage(int x, int y, long version, long[] rows)
+    {
+        Long key = PackedCell.pack(x, y);
+        TileImage image = images.get(key);
+        if (image != null && image.version == version)
+        {
+            hits++;
+            return image.pixels;
+        }
+
+        misses++;
+        if (image == null)
+        {
+            image = new TileImage(new int[width*width]);
+            images.put(key, image);
+            size += 4L*image.pixels.length;
+            evict();
+        }
+        image.version = version;
+        render(rows, image.pixels);
+        return image.pixels;
+    }
+
+    /**
+     * Discards every image.
+     */
+    void clear()
+    {
+        images.clear();
+        size = 0;
+    }
+
+    /**
+     * Gets the number of images held by the cache.
+     *
+     * @return the number of images
+     */
+    int getCount()
+    {
+        return images.size();
+    }
+
+    /**
+     * Gets the number of bytes of pixels held by the images of the cache.
+     *
+     * @return the size of the cache, in bytes
+     */
+    long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Gets the number of images drawn from the cache since the counts were last reset.
+     *
+     * @return the number of cache hits
+     */
+    int getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Gets the number of images rendered since the counts were last reset.
+     *
+     * @return the number of cache misses
+     */
+    int getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Resets the number of hits and misses, at the start of a frame.
+     */
+    void resetCounts()
+    {
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Evicts the least recently used images until the images fit within the capacity, always
+     *  keeping the most recently used one.
+     */
+    private void evict()
+    {
+        Iterator<TileImage> eldest = images.values().iterator();
+        while (size > capacity && images.size() > 1)
+        {
+            size -= 4L*eldest.next().pixels.length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Renders the given rows of a Tile into the given pixels at the current zoom.
+     *
+     * @param rows - the rows of the Tile
+     * @param pixels - the rows of pixels of the image, {@link #width} pixels wide and high
+     */
+    private void render(long[] rows, int[] pixels)
+    {
+        Arrays.fill(pixels, background);
+        int cell = (int) zoom;
+        for (int r = 0; r < Tile.SIZE; r++)
+        {
+            long row = rows[r];
+            int top = (int) (r*zoom);
+            while (row != 0)
+            {
+                int left = (int) (Long.numberOfTrailingZeros(row)*zoom);
+                for (int py = top; py < top + cell; py++)
+                {
+                    Arrays.fill(pixels, py*width + left, py*width + left + cell, color);
+                }
+                row &= row - 1;
+            }
+        }
+    }
+
+    /**
+     * The image of a single Tile and the version of the Tile it was rendered from.
+     */
+    private static class TileImage
+    {
+        private final int[] pixels;
+        private long version;
+
+        TileImage(int[] pixels)
+        {
+            this.pixels = pixels;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package main;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Animates every component of the interface (fades, slides, movement of the {@link grid.Grid}
+ *  and so on) from a single Thread, instead of each component running its own.
+ * Components register themselves with {@link #register(Animated)}; every {@link #PERIOD}
+ *  milliseconds the Animator asks each one whether it is animating, and advances only those that
+ *  are by the time elapsed since they were last advanced.
+ * Components which are not animating (the vast majority, most of the time) are skipped, so the
+ *  cost of an idle interface is a single short tick per period.
+ */
+public class Animator
+{
+    /**
+     * The registered components, in the order in which they registered.
+     */
+    private static final CopyOnWriteArrayList<Entry> entries = new CopyOnWriteArrayList<Entry>();
+
+    /**
+     * The time between ticks of the Animator, in milliseconds.
+     */
+    public static final long PERIOD = 15;
+
+    static
+    {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactory()
+                {
+                    public Thread newThread(Runnable r)
+                    {
+                        Thread thread = new Thread(r, "Animator");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.scheduleAtFixedRate(new Runnable()
+        {
+            public void run()
+            {
+                tick();
+            }
+        }, PERIOD, PERIOD, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A component of the interface which is animated by the {@link Animator}.
+     */
+    public interface Animated
+    {
+        /**
+         * Determines whether this component has anything to animate, that is whether
+         *  {@link #animate(long)} would change anything.
+         * This is called on every tick, so it should be cheap.
+         *
+         * @return true if this component should be advanced on this tick, false if it should be
+         *  skipped
+         */
+        public boolean isAnimating();
+
+        /**
+         * Advances the animations of this component by the given amount of time.
+         *
+         * @param elapsed - the time since this component was last advanced (or since it stopped
+         *  being skipped), in milliseconds
+         */
+        public void animate(long elapsed);
+    }
+
+    /**
+     * The Animator cannot be instantiated; it is used through its static methods.
+     */
+    private Animator()
+    {
+    }
+
+    /**
+     * Registers the given component, which will be advanced on every tick on which it is
+     *  animating from now on.
+     *
+     * @param animated - the component to animate
+     */
+    public static void register(Animated animated)
+    {
+        entries.add(new Entry(animated));
+    }
+
+    /**
+     * Gets the number of registered components.
+     *
+     * @return the number of components registered with the Animator
+     */
+    public static int getCount()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of components which were animating on the last tick.
+     *
+     * @return the number of components advanced by the last tick
+     */
+    public static int getAnimating()
+    {
+        int animating = 0;
+        for (Entry entry : entries)
+        {
+            if (entry.animating)
+            {
+                animating++;
+            }
+        }
+        return animating;
+    }
+
+    /**
+     * Advances each registered component which is animating.
+     * The time elapsed is carried over in nanoseconds, so that no time is lost to rounding;
+     *  components which are skipped have their clocks reset, so they do not jump when they start
+     *  animating again.
+     * An exception thrown by one component is printed, and does not stop the others (or later
+     *  ticks) from running.
+     */
+    private static void tick()
+    {
+        long now = System.nanoTime();
+        for (Entry entry : entries)
+        {
+            try
+            {
+                entry.animating = entry.animated.isAnimating();
+                if (entry.animating)
+                {
+                    long elapsed = (now - entry.lastUpdate)/1000000;
+                    entry.lastUpdate += elapsed*1000000;
+                    entry.animated.animate(elapsed);
+                }
+                else
+                {
+                    entry.lastUpdate = now;
+                }
+            }
+            catch (RuntimeException ex)
+            {
+                ex.printStackTrace();
+                entry.lastUpdate = now;
+            }
+        }
+    }
+
+    /**
+     * A registered component and the time at which it was last advanced.
+     */
+    private static class Entry
+    {
+        private final Animated animated;
+        private long lastUpdate;
+        private volatile boolean animating;
+
+        Entry(Animated animated)
+        {
+            this.animated = animated;
+            lastUpdate = System.nanoTime();
+            animating = false;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package main;
 
 import graphics.DisplayMonitor;
+import grid.Engine;
+import grid.TileArena;
+import grid.TiledEngine;
 import io.Listener;
 
 import java.awt.BasicStroke;
@@ -69,10 +72,10 @@ public class Diagnostics
     private static final Font font = new Font(Font.MONOSPACED, Font.PLAIN, 15);
 
     private static final Rectangle graphArea = new Rectangle(50, 450, 1200, 400);
-    private static final Rectangle gridArea = new Rectangle(50, 185, 450, 200);
-    private static final Rectangle toolbarArea = new Rectangle(550, 185, 450, 200);
+    private static final Rectangle gridArea = new Rectangle(50, 185, 450, 240);
+    private static final Rectangle toolbarArea = new Rectangle(550, 185, 450, 240);
     private static final Rectangle generalArea = new Rectangle(50, 50, 250, 110);
-    private static final Rectangle memoryArea = new Rectangle(1150, 100, 350, 120);
+    private static final Rectangle memoryArea = new Rectangle(1150, 100, 350, 150);
 
     /**
      * Creates a new, empty Diagnostics.
@@ -237,6 +240,15 @@ public class Diagnostics
         g.drawString("Mem. Used: " + heapUsed/1048576 + " [MB] " + heapUsed + " [B]",
                 area.x + 25, area.y
                 + heapHeight + 80);
+
+        Engine engine = GameOfLife.getGrid().getEngine();
+        if (engine instanceof TiledEngine && ((TiledEngine) engine).getArena() != null)
+        {
+            TileArena arena = ((TiledEngine) engine).getArena();
+            g.drawString("Off-Heap:  " + arena.getReservedBytes()/1048576 + " [MB] " +
+                    arena.getBlockCount() + " [blocks]",
+                    area.x + 25, area.y + heapHeight + 110);
+        }
         g.setClip(null);
     }
 
@@ -20,6 +20,8 @@ import javax.swing.JPanel;
  * Handles launching the Game of Life simulation, running it in a rendering loop, and exiting.
  * This class also contains the main components of the game, such as the {@link Grid} that holds
  *  the state of the simulation and {@link Toolbar} that contains most of the interface.
+ * The simulation is run by a {@link SimulationScheduler} in its own Thread at its own rate; the
+ *  rendering loop only draws the most recently published generation.
  */
 public class GameOfLife
 {
@@ -29,6 +31,7 @@ public class GameOfLife
 
     private static GameOfLife GoL;
     private Grid grid;
+    private SimulationScheduler scheduler;
 
     private JFrame frame;
 
@@ -66,6 +69,7 @@ public class GameOfLife
 
         diagnostics = new Diagnostics();
         grid = new Grid();
+        scheduler = new SimulationScheduler(grid);
         toolbar = new Toolbar();
         controlBar = new ControlBar();
 
@@ -91,6 +95,7 @@ public class GameOfLife
             Toolkit.getDefaultToolkit().sync();
             // end "render"
             renderEnd = System.nanoTime();
+            scheduler.frameDrawn();
 
             sleepTime = period - (System.nanoTime() - drawStart)/1000000;
             if (sleepTime <= 0)
@@ -125,6 +130,16 @@ public class GameOfLife
         return GoL.grid;
     }
 
+    /**
+     * Gets the {@link SimulationScheduler} which runs the simulation of the {@link Grid}.
+     *
+     * @return the {@link SimulationScheduler} used by this Game of Life
+     */
+    public static SimulationScheduler getScheduler()
+    {
+        return GoL.scheduler;
+    }
+
     /**
      * Gets the {@link Toolbar} object responsible for the majority of the interface.
      *
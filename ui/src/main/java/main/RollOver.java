@@ -15,7 +15,7 @@ import java.awt.Rectangle;
  *  without the user of the mouse (for example, if a key is pressed that does the same action as
  *  clicking the icon).
  */
-public class RollOver implements Runnable
+public class RollOver implements Animator.Animated
 {
     private AcceleratedImage selection;
 
@@ -23,7 +23,6 @@ public class RollOver implements Runnable
 
     private int buffer;
 
-    private static final long period = 25;
     /**
      * The time to completely fade in or out (i.e. from alpha of 0 to 1) in milliseconds.
      */
@@ -48,7 +47,7 @@ public class RollOver implements Runnable
 
         setBounds(bounds);
 
-        new Thread(this).start();
+        Animator.register(this);
     }
 
     /**
@@ -80,56 +79,56 @@ public class RollOver implements Runnable
     }
 
     /**
-     * Runs this RollOver in its own Thread.
-     * The RollOver continually updates its transparency based on the splashing state and mouse
-     *  position.
+     * Determines whether this RollOver is splashing or fading towards the state given by the
+     *  mouse position.
      *
-     * @see Runnable#run()
+     * @return true if the transparency of this RollOver is changing, false otherwise
+     * @see Animator.Animated#isAnimating()
      */
-    public void run()
+    public boolean isAnimating()
     {
-        long lastUpdate = System.nanoTime();
-        float elapsed;
-        while (true)
+        if (splashing != SplashState.NO_SPLASH)
         {
-            elapsed = (System.nanoTime() - lastUpdate) / 1000000;
-            if (splashing == SplashState.NO_SPLASH)
-            {
-                if (bounds.contains(Listener.getMouse()))
-                {
-                    alpha = Math.min(alpha + elapsed / fadeTime, 1f);
-                }
-                else
-                {
-                    alpha = Math.max(alpha - elapsed / fadeTime, 0f);
-                }
-            }
-            else if (splashing == SplashState.SPLASH_IN)
+            return true;
+        }
+        return bounds.contains(Listener.getMouse()) ? alpha < 1 : alpha > 0;
+    }
+
+    /**
+     * Updates the transparency of this RollOver based on the splashing state and mouse position.
+     *
+     * @param elapsed - the time since the last update, in milliseconds
+     * @see Animator.Animated#animate(long)
+     */
+    public void animate(long elapsed)
+    {
+        if (splashing == SplashState.NO_SPLASH)
+        {
+            if (bounds.contains(Listener.getMouse()))
             {
-                alpha += elapsed / fadeTime;
-                if (alpha >= 1)
-                {
-                    alpha = 1;
-                    splashing = SplashState.SPLASH_OUT;
-                }
+                alpha = Math.min(alpha + (float) elapsed / fadeTime, 1f);
             }
-            else if (splashing == SplashState.SPLASH_OUT)
+            else
             {
-                alpha -= elapsed / fadeTime;
-                if (alpha <= 0)
-                {
-                    alpha = 0;
-                    splashing = SplashState.NO_SPLASH;
-                }
+                alpha = Math.max(alpha - (float) elapsed / fadeTime, 0f);
             }
-
-            lastUpdate = System.nanoTime();
-            try
+        }
+        else if (splashing == SplashState.SPLASH_IN)
+        {
+            alpha += (float) elapsed / fadeTime;
+            if (alpha >= 1)
             {
-                Thread.sleep(period);
+                alpha = 1;
+                splashing = SplashState.SPLASH_OUT;
             }
-            catch (InterruptedException e)
+        }
+        else if (splashing == SplashState.SPLASH_OUT)
+        {
+            alpha -= (float) elapsed / fadeTime;
+            if (alpha <= 0)
             {
+                alpha = 0;
+                splashing = SplashState.NO_SPLASH;
             }
         }
     }
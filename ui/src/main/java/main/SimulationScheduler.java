@@ -0,0 +1,217 @@
+package main;
+
+import grid.Grid;
+
+/**
+ * Runs the simulation of a {@link Grid} in its own Thread, independently of the rendering loop.
+ * The simulation is either paused, paced with a period between the starts of its updates, or
+ *  unlimited, in which case each update starts as soon as the last has finished.
+ * Each update simulates a stride of {@code 2^k} generations and publishes only the last of them
+ *  (see {@link grid.Map#update(int)}), so that generations which could never be displayed are not
+ *  published at all.
+ * The rendering loop draws whichever generation was published last, never waiting for the
+ *  simulation, and reports each frame it displays with {@link #frameDrawn()}, from which the
+ *  number of generations per displayed frame is measured.
+ */
+public class SimulationScheduler implements Runnable
+{
+    private final Grid grid;
+
+    private boolean paused;
+    /**
+     * The time between the starts of updates in nanoseconds, or 0 if the simulation is unlimited.
+     */
+    private long period;
+    /**
+     * The base-2 logarithm of the number of generations simulated by each update.
+     */
+    private int strideShift;
+
+    /**
+     * The generation of the Grid when the last frame was displayed.
+     */
+    private long frameGeneration;
+    /**
+     * The number of generations simulated per displayed frame, averaged over recent frames.
+     */
+    private double generationsPerFrame;
+
+    /**
+     * The largest base-2 logarithm of the stride, so that a single update (which holds the lock of
+     *  the Grid's Map throughout) does not take too long.
+     */
+    public static final int MAX_STRIDE_SHIFT = 12;
+    /**
+     * The weight of the last frame in the average number of generations per frame.
+     */
+    private static final double FRAME_SMOOTHING = 0.1;
+
+    /**
+     * Creates a new, paused SimulationScheduler and starts its Thread.
+     *
+     * @param grid - the Grid whose simulation to run
+     */
+    public SimulationScheduler(Grid grid)
+    {
+        this.grid = grid;
+        paused = true;
+        period = 1000000000;
+        strideShift = 0;
+        frameGeneration = grid.getGeneration();
+        generationsPerFrame = 0;
+
+        new Thread(this).start();
+    }
+
+    /**
+     * Runs the simulation: waits while paused or until the period since the start of the last
+     *  update has passed, then updates the Grid by a single stride.
+     * When unlimited, the Thread yields between updates so that edits to the Map are not starved.
+     *
+     * @see Runnable#run()
+     */
+    public void run()
+    {
+        long lastUpdate = System.nanoTime();
+        while (true)
+        {
+            int stride;
+            boolean unlimited;
+            synchronized (this)
+            {
+                try
+                {
+                    if (paused)
+                    {
+                        wait();
+                        continue;
+                    }
+
+                    long remaining = lastUpdate + period - System.nanoTime();
+                    if (period > 0 && remaining > 0)
+                    {
+                        wait(remaining/1000000, (int) (remaining%1000000));
+                        continue;
+                    }
+                }
+                catch (InterruptedException ex)
+                {
+                    ex.printStackTrace();
+                }
+                stride = getStride();
+                unlimited = period == 0;
+            }
+
+            lastUpdate = System.nanoTime();
+            grid.update(stride);
+            if (unlimited)
+            {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Determines whether the simulation is paused.
+     *
+     * @return true if no updates are being run, false otherwise
+     */
+    public synchronized boolean isPaused()
+    {
+        return paused;
+    }
+
+    /**
+     * Pauses or resumes the simulation.
+     *
+     * @param paused - true to stop running updates, false to run them
+     */
+    public synchronized void setPaused(boolean paused)
+    {
+        this.paused = paused;
+        notifyAll();
+    }
+
+    /**
+     * Gets the time between the starts of updates.
+     *
+     * @return the period of the updates in nanoseconds, or 0 if the simulation is unlimited
+     */
+    public synchronized long getPeriod()
+    {
+        return period;
+    }
+
+    /**
+     * Sets the time between the starts of updates.
+     * If an update takes longer than the period, the next starts as soon as it has finished.
+     *
+     * @param period - the period of the updates in nanoseconds, or 0 to run each update as soon
+     *  as the last has finished
+     */
+    public synchronized void setPeriod(long period)
+    {
+        if (period != this.period)
+        {
+            this.period = Math.max(0, period);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Gets the number of generations simulated by each update.
+     *
+     * @return {@code 2^k}, the stride of the updates
+     */
+    public synchronized int getStride()
+    {
+        return 1 << strideShift;
+    }
+
+    /**
+     * Gets the base-2 logarithm of the number of generations simulated by each update.
+     *
+     * @return the exponent {@code k} of the stride
+     */
+    public synchronized int getStrideShift()
+    {
+        return strideShift;
+    }
+
+    /**
+     * Sets the number of generations simulated by each update to {@code 2^strideShift}.
+     *
+     * @param strideShift - the exponent of the stride, trimmed to the interval
+     *  [0, {@link #MAX_STRIDE_SHIFT}]
+     */
+    public synchronized void setStrideShift(int strideShift)
+    {
+        this.strideShift = Math.max(0, Math.min(MAX_STRIDE_SHIFT, strideShift));
+    }
+
+    /**
+     * Records that a frame has been displayed, sampling the generation of the Grid.
+     * This should be called by the rendering loop once for every frame.
+     * A generation counter which has gone backwards (since the Grid was cleared) counts as no
+     *  generations.
+     */
+    public synchronized void frameDrawn()
+    {
+        long generation = grid.getGeneration();
+        long simulated = Math.max(0, generation - frameGeneration);
+        frameGeneration = generation;
+        generationsPerFrame += FRAME_SMOOTHING*(simulated - generationsPerFrame);
+    }
+
+    /**
+     * Gets the number of generations simulated per displayed frame, averaged over recent frames.
+     * A value above 1 means generations are simulated which are never displayed; below 1, some
+     *  generations are displayed for several frames.
+     *
+     * @return the average number of generations per displayed frame
+     */
+    public synchronized double getGenerationsPerFrame()
+    {
+        return generationsPerFrame;
+    }
+}
@@ -5,6 +5,8 @@ import graphics.ButtonListener;
 import graphics.DisplayMonitor;
 import graphics.Tooltip;
 import graphics.Tooltip.TooltipTheme;
+import grid.EngineType;
+import grid.Grid;
 import image.ImageLoader;
 import io.Listener;
 
@@ -31,7 +33,7 @@ import pattern.PatternSelector;
  * Represents the on-screen toolbar that allows the user to play/pause the simulation, go to the
  *  next generation, clear the simulation, etc.
  */
-public class Toolbar implements Runnable
+public class Toolbar implements Animator.Animated
 {
     private AcceleratedImage play;
     private AcceleratedImage pause;
@@ -87,7 +89,6 @@ public class Toolbar implements Runnable
     private static final int width = 400;
     private static final int height = 100;
 
-    private static final long period = 25;
     /**
      * The time to fade the play/pause button entirely from play to pause or vice versa in
      *  milliseconds.
@@ -169,8 +170,8 @@ public class Toolbar implements Runnable
         clearTooltip = new Tooltip("Clear the Grid [S]", clearButton.getButton(), tooltipTheme);
         tooltipTheme.delay = 1750;
         moveTooltip = new Tooltip("Drag to Move the Toolbar", dotsBounds, tooltipTheme);
-        speedSlider.setTooltip(new Tooltip("Adjust the speed of the simulation",
-                null, tooltipTheme));
+        speedSlider.setTooltip(new Tooltip("Adjust the speed of the simulation " +
+                "(far right: unlimited)", null, tooltipTheme));
 
         playRO = new RollOver(new Rectangle(), 3);
         nextRO = new RollOver(new Rectangle(), 3);
@@ -181,8 +182,7 @@ public class Toolbar implements Runnable
 
         patterns = new PatternSelector(this);
 
-        new Thread(this).start();
-        new Thread(new GridUpdater()).start();
+        Animator.register(this);
     }
 
     /**
@@ -234,46 +234,53 @@ public class Toolbar implements Runnable
     }
 
     /**
-     * Runs the Toolbar; simply updates the alpha faders.
+     * Determines whether any of the alpha faders has not reached its target, or the period chosen
+     *  with the speed slider has not yet been passed on to the {@link SimulationScheduler}.
      *
-     * @see Runnable#run()
+     * @return true if the Toolbar needs to be updated, false otherwise
+     * @see Animator.Animated#isAnimating()
      */
-    public void run()
+    public boolean isAnimating()
     {
-        long lastUpdate = System.nanoTime();
-        while (true)
+        if (paused ? pauseAlpha > 0 || playAlpha < 1 : playAlpha > 0 || pauseAlpha < 1)
         {
-            long elapsed = (System.nanoTime() - lastUpdate)/1000000;
-
-            if (paused)
-            {
-                pauseAlpha = Math.max(pauseAlpha - (float) elapsed/playFadeTime, 0f);
-                playAlpha = Math.min(playAlpha + (float) elapsed/playFadeTime, 1f);
-            }
-            else
-            {
-                playAlpha = Math.max(playAlpha - (float) elapsed/playFadeTime, 0f);
-                pauseAlpha = Math.min(pauseAlpha + (float) elapsed/playFadeTime, 1f);
-            }
-            if (dragging)
-            {
-                paneAlpha = Math.max(paneAlpha - (float) elapsed/paneFadeTime, paneAlphaMin);
-            }
-            else
-            {
-                paneAlpha = Math.min(paneAlpha + (float) elapsed/paneFadeTime, 1f);
-            }
+            return true;
+        }
+        if (dragging ? paneAlpha > paneAlphaMin : paneAlpha < 1)
+        {
+            return true;
+        }
+        return GameOfLife.getScheduler().getPeriod() != getSchedulerPeriod();
+    }
 
-            lastUpdate = System.nanoTime();
-            try
-            {
-                Thread.sleep(period);
-            }
-            catch (InterruptedException ex)
-            {
-                ex.printStackTrace();
-            }
+    /**
+     * Updates the alpha faders and passes the period chosen with the speed slider on to the
+     *  {@link SimulationScheduler}.
+     *
+     * @param elapsed - the time since the last update, in milliseconds
+     * @see Animator.Animated#animate(long)
+     */
+    public void animate(long elapsed)
+    {
+        if (paused)
+        {
+            pauseAlpha = Math.max(pauseAlpha - (float) elapsed/playFadeTime, 0f);
+            playAlpha = Math.min(playAlpha + (float) elapsed/playFadeTime, 1f);
+        }
+        else
+        {
+            playAlpha = Math.max(playAlpha - (float) elapsed/playFadeTime, 0f);
+            pauseAlpha = Math.min(pauseAlpha + (float) elapsed/playFadeTime, 1f);
         }
+        if (dragging)
+        {
+            paneAlpha = Math.max(paneAlpha - (float) elapsed/paneFadeTime, paneAlphaMin);
+        }
+        else
+        {
+            paneAlpha = Math.min(paneAlpha + (float) elapsed/paneFadeTime, 1f);
+        }
+        GameOfLife.getScheduler().setPeriod(getSchedulerPeriod());
     }
 
     /**
@@ -282,18 +289,20 @@ public class Toolbar implements Runnable
     public void pause()
     {
         paused = !paused;
+        GameOfLife.getScheduler().setPaused(paused);
     }
 
     /**
-     * Moves to the next generation.
+     * Moves to the next generation, or by a whole stride of generations if the
+     *  {@link SimulationScheduler}'s stride is larger than 1.
      * Equivalent to the statement
      * <pre>
-     * GameOfLife.getGrid().update();
+     * GameOfLife.getGrid().update(GameOfLife.getScheduler().getStride());
      * </pre>
      */
     public void next()
     {
-        GameOfLife.getGrid().update();
+        GameOfLife.getGrid().update(GameOfLife.getScheduler().getStride());
     }
 
     /**
@@ -303,6 +312,7 @@ public class Toolbar implements Runnable
     {
         GameOfLife.getGrid().clear();
         paused = true;
+        GameOfLife.getScheduler().setPaused(true);
     }
 
     /**
@@ -404,6 +414,21 @@ public class Toolbar implements Runnable
             {
                 speedSlider.adjustPosition(0.1);
             }
+            else if (e.getKeyCode() == KeyEvent.VK_OPEN_BRACKET)
+            {
+                SimulationScheduler scheduler = GameOfLife.getScheduler();
+                scheduler.setStrideShift(scheduler.getStrideShift() - 1);
+            }
+            else if (e.getKeyCode() == KeyEvent.VK_CLOSE_BRACKET)
+            {
+                SimulationScheduler scheduler = GameOfLife.getScheduler();
+                scheduler.setStrideShift(scheduler.getStrideShift() + 1);
+            }
+            else if (e.getKeyCode() == KeyEvent.VK_E)
+            {
+                Grid grid = GameOfLife.getGrid();
+                grid.setEngineType(grid.getEngineType().next());
+            }
         }
     }
 
@@ -494,10 +519,10 @@ public class Toolbar implements Runnable
 
         gImg.setColor(generationShadowColor);
         gImg.setFont(generationFont);
-        gImg.drawString(new Integer(GameOfLife.getGrid().getGeneration()).toString(),
+        gImg.drawString(String.valueOf(GameOfLife.getGrid().getGeneration()),
                 genPos.x + 1, genPos.y + 1);
         gImg.setColor(generationColor);
-        gImg.drawString(new Integer(GameOfLife.getGrid().getGeneration()).toString(),
+        gImg.drawString(String.valueOf(GameOfLife.getGrid().getGeneration()),
                 genPos.x, genPos.y);
 
         gImg.dispose();
@@ -535,9 +560,29 @@ public class Toolbar implements Runnable
         g.drawString("Playing:  " + !paused, area.x + 5, area.y + 60);
         g.drawString("Dragging: " + dragging, area.x + 5, area.y + 80);
 
-        g.drawString("Speed:  " + Diagnostics.df.format(getSpeed()) + " [updates/s]",
-                area.x + 5, area.y + 100);
-        g.drawString("Period: " + getPeriod() + " [ms]", area.x + 5, area.y + 120);
+        SimulationScheduler scheduler = GameOfLife.getScheduler();
+        if (isUnlimited())
+        {
+            g.drawString("Speed:  unlimited", area.x + 5, area.y + 100);
+            g.drawString("Period: none", area.x + 5, area.y + 120);
+        }
+        else
+        {
+            g.drawString("Speed:  " + Diagnostics.df.format(getSpeed()) + " [updates/s]",
+                    area.x + 5, area.y + 100);
+            g.drawString("Period: " + getPeriod() + " [ms]", area.x + 5, area.y + 120);
+        }
+        g.drawString("Stride: 2^" + scheduler.getStrideShift() + " = " + scheduler.getStride() +
+                " [generations/update]", area.x + 5, area.y + 140);
+        g.drawString("Generations/frame: " +
+                Diagnostics.df.format(scheduler.getGenerationsPerFrame()),
+                area.x + 5, area.y + 160);
+        g.drawString("Animating: " + Animator.getAnimating() + " of " + Animator.getCount() +
+                " [components]", area.x + 5, area.y + 180);
+
+        EngineType engineType = GameOfLife.getGrid().getEngineType();
+        g.drawString("Engine: " + engineType + " (E: " + engineType.next() + ")",
+                area.x + 5, area.y + 200);
     }
 
     /**
@@ -560,6 +605,27 @@ public class Toolbar implements Runnable
                 (speedSlider.getPosition() + 1)/2) - 1;
     }
 
+    /**
+     * Determines whether the simulation should run as fast as possible, which it does when the
+     *  speed slider is at its far right.
+     *
+     * @return true if the simulation is unlimited, false if it is paced by {@link #getPeriod()}
+     */
+    private boolean isUnlimited()
+    {
+        return speedSlider.getPosition() >= 1;
+    }
+
+    /**
+     * Gets the period for the {@link SimulationScheduler} based on the speed slider.
+     *
+     * @return the time between updates in nanoseconds, or 0 if the simulation is unlimited
+     */
+    private long getSchedulerPeriod()
+    {
+        return isUnlimited() ? 0 : getPeriod()*1000000;
+    }
+
     /**
      * Gets the current period for the simulation updates based on the current speed.
      * This is simply the inverse of the current speed, converted to milliseconds:
@@ -574,33 +640,4 @@ public class Toolbar implements Runnable
     {
         return (long) (1000.0/getSpeed());
     }
-
-    /**
-     * Updates the {@link Grid} continuously while the simulation is playing.
-     * A GridUpdater should be run in a separated Thread and will automatically update the Grid.
-     */
-    private class GridUpdater implements Runnable
-    {
-        public void run()
-        {
-            long lastUpdate = System.nanoTime();
-            while (true)
-            {
-                if (!paused && System.nanoTime() - lastUpdate > getPeriod()*1000000)
-                {
-                    lastUpdate = System.nanoTime();
-                    GameOfLife.getGrid().update();
-                }
-
-                try
-                {
-                    Thread.sleep(1);
-                }
-                catch (InterruptedException ex)
-                {
-                    ex.printStackTrace();
-                }
-            }
-        }
-    }
 }
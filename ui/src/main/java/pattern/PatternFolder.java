@@ -14,11 +14,14 @@ import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.event.MouseEvent;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 
 import utils.ListUtil;
 
+import main.Animator;
 import main.GameOfLife;
+import grid.Grid;
 
 /**
  * Represents a folder of {@link Pattern}s.
@@ -26,7 +29,7 @@ import main.GameOfLife;
  *  and is primarily responsible for drawing a visual pattern and allowing the user to select
  *  patterns via mouse input, in conjunction with a {@link PatternSelector}.
  */
-public class PatternFolder implements Runnable
+public class PatternFolder implements Animator.Animated
 {
     private AcceleratedImage folderBack;
     private AcceleratedImage folderFront;
@@ -45,6 +48,7 @@ public class PatternFolder implements Runnable
     private static final Color patternNameColor = new Color(10, 10, 10);
     private static final Color patternBoxBorder = new Color(12, 12, 12);
     private static final Color patternBoxBackground = new Color(50, 50, 50);
+    private static final Color thumbBackground = Color.black;
 
     private Dimension size;
     /**
@@ -102,7 +106,6 @@ public class PatternFolder implements Runnable
      */
     private static final int largeThumbSize = 28;
 
-    private static final long period = 15;
     /**
      * The time it takes to go from completely closed to completely open, in milliseconds
      */
@@ -174,64 +177,70 @@ public class PatternFolder implements Runnable
         Listener.requestNotification(this, "mouseMoved", Listener.TYPE_MOUSE_MOVED);
         Listener.requestNotification(this, "mousePressed", Listener.TYPE_MOUSE_PRESSED);
 
-        new Thread(this).start();
+        Animator.register(this);
     }
 
     /**
-     * Runs this PatternFolder in a separate thread.
+     * Determines whether this PatternFolder is opening or closing, or the folder image is not yet
+     *  shown as open as it should be (since the mouse has moved onto or off of it).
      *
-     * @see Runnable#run()
+     * @return true if this PatternFolder needs to be updated, false otherwise
+     * @see Animator.Animated#isAnimating()
      */
-    public void run()
+    public boolean isAnimating()
     {
-        long lastUpdate = System.nanoTime(), elapsed;
-        while (true)
-        {
-            elapsed = (System.nanoTime() - lastUpdate)/1000000;
+        return state == FolderState.OPENING || state == FolderState.CLOSING ||
+                folderOpenAmount != getFolderOpenTarget();
+    }
 
-            if (state == FolderState.OPENING)
-            {
-                openAmount += (double)elapsed/openTime;
+    /**
+     * Updates this PatternFolder: opens or closes it and shows the folder image as open or not.
+     *
+     * @param elapsed - the time since the last update, in milliseconds
+     * @see Animator.Animated#animate(long)
+     */
+    public void animate(long elapsed)
+    {
+        if (state == FolderState.OPENING)
+        {
+            openAmount += (double)elapsed/openTime;
 
-                if (openAmount >= 1)
-                {
-                    openAmount = 1;
-                    state = FolderState.OPEN;
-                    findSize();
-                }
-            }
-            else if (state == FolderState.CLOSING)
+            if (openAmount >= 1)
             {
-                openAmount -= (double)elapsed/openTime;
-
-                if (openAmount <= 0)
-                {
-                    openAmount = 0;
-                    state = FolderState.CLOSED;
-                    findSize();
-                }
+                openAmount = 1;
+                state = FolderState.OPEN;
+                findSize();
             }
-            folderLocation.x = (int) (openAmount*openFolderLocation.x + (1 - openAmount)*closedFolderLocation.x);
+        }
+        else if (state == FolderState.CLOSING)
+        {
+            openAmount -= (double)elapsed/openTime;
 
-            if (hoveringFolder || state == FolderState.OPEN || state == FolderState.OPENING)
+            if (openAmount <= 0)
             {
-                folderOpenAmount = maxFolderOpenAmount;
-            }
-            else
-            {
-                folderOpenAmount = 0;
+                openAmount = 0;
+                state = FolderState.CLOSED;
+                findSize();
             }
+        }
+        folderLocation.x = (int) (openAmount*openFolderLocation.x + (1 - openAmount)*closedFolderLocation.x);
 
-            lastUpdate = System.nanoTime();
-            try
-            {
-                Thread.sleep(period);
-            }
-            catch (InterruptedException ex)
-            {
-                ex.printStackTrace();
-            }
+        folderOpenAmount = getFolderOpenTarget();
+    }
+
+    /**
+     * Gets the amount that the folder image should be shown as open: fully while the mouse is
+     *  over it or the PatternFolder is open or opening, and not at all otherwise.
+     *
+     * @return the target of {@link #folderOpenAmount}
+     */
+    private double getFolderOpenTarget()
+    {
+        if (hoveringFolder || state == FolderState.OPEN || state == FolderState.OPENING)
+        {
+            return maxFolderOpenAmount;
         }
+        return 0;
     }
 
     /**
@@ -274,8 +283,8 @@ public class PatternFolder implements Runnable
         largeThumbs = new ArrayList<AcceleratedImage>();
         for (int i = 0; i < this.patterns.size(); i++)
         {
-            thumbs.add(this.patterns.get(i).generateThumb(patternHeight - 2, patternHeight - 2));
-            largeThumbs.add(this.patterns.get(i).generateThumb(largeThumbSize, largeThumbSize));
+            thumbs.add(generateThumb(this.patterns.get(i), patternHeight - 2, patternHeight - 2));
+            largeThumbs.add(generateThumb(this.patterns.get(i), largeThumbSize, largeThumbSize));
         }
         openHeight = Math.max(closedHeight,
                 bottomBuffer + this.patterns.size()*patternHeight + topBuffer);
@@ -498,6 +507,46 @@ public class PatternFolder implements Runnable
         img.draw(location.x, location.y, g);
     }
 
+    /**
+     * Generates a thumbnail image of the given Pattern with the given size.
+     *
+     * @param pattern - the Pattern to depict
+     * @param width - the width of the desired image, in pixels
+     * @param height - the height of the desired image, in pixels
+     * @return an AcceleratedImage of the requested size which visually depicts the Pattern
+     */
+    private static AcceleratedImage generateThumb(Pattern pattern, int width, int height)
+    {
+        AcceleratedImage thumb = new AcceleratedImage(width, height);
+        Graphics2D g = (Graphics2D) thumb.getContents().getGraphics();
+
+        g.setColor(thumbBackground);
+        g.fillRect(0, 0, width, height);
+
+        // the size of a single cell in the thumb
+        double cellSize = Math.min((double)width/pattern.getWidth(),
+                (double)height/pattern.getHeight());
+        // compensate for the fact that the given size may not have proportions equal to the
+        //  proportions of the pattern
+        double xShift = (width - cellSize*pattern.getWidth())/2;
+        double yShift = (height - cellSize*pattern.getHeight())/2;
+        g.setColor(Grid.aliveColor);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        for (int x = 0; x < pattern.getWidth(); x++)
+        {
+            for (int y = 0; y < pattern.getHeight(); y++)
+            {
+                if (pattern.pattern[x][y])
+                {
+                    g.fill(new Rectangle2D.Double(x*cellSize + xShift, y*cellSize + yShift,
+                            cellSize, cellSize));
+                }
+            }
+        }
+
+        return thumb;
+    }
+
     /**
      * Draws the box giving information regarding the pattern at the given index.
      * The drawing is done relative to location, as given by {@link #getPatternBox(int)}.
@@ -13,11 +13,10 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Point2D;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 
+import main.Animator;
 import main.Toolbar;
 
 /**
@@ -25,7 +24,7 @@ import main.Toolbar;
  *  user to pick them and place them on the grid.
  * A PatternSelector accomplishes this by holding and managing a list of {@link PatternSelector}s.
  */
-public class PatternSelector implements Runnable
+public class PatternSelector implements Animator.Animated
 {
     private AcceleratedImage cap;
     private ArrayList<PatternFolder> folders;
@@ -65,7 +64,11 @@ public class PatternSelector implements Runnable
     private static final long fadeTime = 75;
 
     private SelectorState state;
-    private static final String patternsFile = "patterns.txt";
+    /**
+     * The boundaries of the enclosing Toolbar when the slide buttons were last placed, or null if
+     *  they have not been placed yet.
+     */
+    private Rectangle toolbarBounds;
 
     private Toolbar toolbar;
 
@@ -104,111 +107,111 @@ public class PatternSelector implements Runnable
             ex.printStackTrace();
         }
 
-        new Thread(this).start();
+        Animator.register(this);
     }
 
     /**
-     * Runs this PatternSelector in its own Thread.
+     * Determines whether this PatternSelector is sliding or fading in or out, or the enclosing
+     *  Toolbar has moved since the slide buttons were last placed.
      *
-     * @see Runnable#run()
+     * @return true if this PatternSelector needs to be updated, false otherwise
+     * @see Animator.Animated#isAnimating()
      */
-    public void run()
+    public boolean isAnimating()
     {
-        long lastUpdate = System.nanoTime(), elapsed;
-        while (true)
+        return (state != SelectorState.IN && state != SelectorState.OUT) ||
+                !toolbar.getBounds().equals(toolbarBounds);
+    }
+
+    /**
+     * Updates this PatternSelector: slides or fades it in or out and places its slide buttons.
+     *
+     * @param elapsed - the time since the last update, in milliseconds
+     * @see Animator.Animated#animate(long)
+     */
+    public void animate(long elapsed)
+    {
+        onResize();
+        if (state == SelectorState.MOVING_OUT)
         {
-            elapsed = (System.nanoTime() - lastUpdate)/1000000;
-            onResize();
-            if (state == SelectorState.MOVING_OUT)
+            slidePos += (double)elapsed/slideTime;
+
+            if (slidePos >= 1)
             {
-                slidePos += (double)elapsed/slideTime;
+                slidePos = 1;
+                state = SelectorState.FADING_IN;
 
-                if (slidePos >= 1)
+                for (int i = 0; i < folders.size(); i++)
                 {
-                    slidePos = 1;
-                    state = SelectorState.FADING_IN;
-
-                    for (int i = 0; i < folders.size(); i++)
-                    {
-                        folders.get(i).setOn(true);
-                    }
+                    folders.get(i).setOn(true);
                 }
-
-                width = slidePos*maxWidth;
             }
-            else if (state == SelectorState.MOVING_IN)
-            {
-                slidePos -= (double)elapsed/slideTime;
 
-                if (slidePos <= minSlidePos)
-                {
-                    slidePos = minSlidePos;
-                    state = SelectorState.IN;
-                }
+            width = slidePos*maxWidth;
+        }
+        else if (state == SelectorState.MOVING_IN)
+        {
+            slidePos -= (double)elapsed/slideTime;
 
-                width = slidePos*maxWidth;
-            }
-            else if (state == SelectorState.FADING_IN)
+            if (slidePos <= minSlidePos)
             {
-                fadePos += (double)elapsed/fadeTime;
-
-                if (fadePos >= 1)
-                {
-                    fadePos = 1;
-                    state = SelectorState.OUT;
-                }
+                slidePos = minSlidePos;
+                state = SelectorState.IN;
             }
-            else if (state == SelectorState.FADING_OUT)
-            {
-                fadePos -= (double)elapsed/fadeTime;
 
-                if (fadePos <= 0)
-                {
-                    fadePos = 0;
-                    state = SelectorState.MOVING_IN;
-
-                    for (int i = 0; i < folders.size(); i++)
-                    {
-                        folders.get(i).setOn(false);
-                    }
-                }
-            }
+            width = slidePos*maxWidth;
+        }
+        else if (state == SelectorState.FADING_IN)
+        {
+            fadePos += (double)elapsed/fadeTime;
 
-            Rectangle toolbarBounds = toolbar.getBounds();
-            if (state == SelectorState.IN)
-            {
-                inSlideButton.setOn(true);
-                inSlideButton.setButton(new Rectangle(
-                        toolbarBounds.x - (int)width - cap.getWidth(), toolbarBounds.y,
-                        cap.getWidth(), cap.getHeight()));
-            }
-            else
+            if (fadePos >= 1)
             {
-                inSlideButton.setOn(false);
+                fadePos = 1;
+                state = SelectorState.OUT;
             }
+        }
+        else if (state == SelectorState.FADING_OUT)
+        {
+            fadePos -= (double)elapsed/fadeTime;
 
-            if (state == SelectorState.OUT)
-            {
-                outSlideButton.setOn(true);
-                outSlideButton.setButton(new Rectangle(
-                        toolbarBounds.x - (int)width - cap.getWidth(), toolbarBounds.y,
-                        cap.getWidth(), cap.getHeight()));
-            }
-            else
+            if (fadePos <= 0)
             {
-                outSlideButton.setOn(false);
-            }
+                fadePos = 0;
+                state = SelectorState.MOVING_IN;
 
-            lastUpdate = System.nanoTime();
-            try
-            {
-                Thread.sleep(20);
-            }
-            catch (InterruptedException ex)
-            {
-                ex.printStackTrace();
+                for (int i = 0; i < folders.size(); i++)
+                {
+                    folders.get(i).setOn(false);
+                }
             }
         }
+
+        Rectangle toolbarBounds = toolbar.getBounds();
+        if (state == SelectorState.IN)
+        {
+            inSlideButton.setOn(true);
+            inSlideButton.setButton(new Rectangle(
+                    toolbarBounds.x - (int)width - cap.getWidth(), toolbarBounds.y,
+                    cap.getWidth(), cap.getHeight()));
+        }
+        else
+        {
+            inSlideButton.setOn(false);
+        }
+
+        if (state == SelectorState.OUT)
+        {
+            outSlideButton.setOn(true);
+            outSlideButton.setButton(new Rectangle(
+                    toolbarBounds.x - (int)width - cap.getWidth(), toolbarBounds.y,
+                    cap.getWidth(), cap.getHeight()));
+        }
+        else
+        {
+            outSlideButton.setOn(false);
+        }
+        this.toolbarBounds = toolbarBounds;
     }
 
     /**
@@ -220,57 +223,15 @@ public class PatternSelector implements Runnable
     {
         folders = new ArrayList<PatternFolder>();
 
-        BufferedReader in = new BufferedReader(new InputStreamReader(
-                getClass().getResourceAsStream(patternsFile)));
-
-        String line;
-        while (true)
+        PatternReader in = PatternReader.builtIn();
+        String name;
+        while ((name = in.readFolder()) != null)
         {
-            String name = in.readLine();
-
-            if (name == null)
-            {
-                break;
-            }
-
             ArrayList<Pattern> patterns = new ArrayList<Pattern>();
-
-            while (true)
+            Pattern pattern;
+            while ((pattern = in.readPattern()) != null)
             {
-                String fullName = in.readLine();
-
-                if (fullName.startsWith("====="))
-                {
-                    break;
-                }
-                String shortName = in.readLine();
-
-                ArrayList<String> lines = new ArrayList<String>();
-                int maxLength = 0;
-                while (true)
-                {
-                    line = in.readLine();
-                    if (line.startsWith("###"))
-                    {
-                        break;
-                    }
-
-                    maxLength = Math.max(maxLength, line.length());
-                    lines.add(line);
-                }
-
-                boolean[][] pattern = new boolean[maxLength][lines.size()];
-
-                for (int i = 0; i < lines.size(); i++)
-                {
-                    for (int j = 0; j < lines.get(i).length(); j++)
-                    {
-                        pattern[j][i] = lines.get(i).charAt(j) == '1' ||
-                                lines.get(i).charAt(j) == 't';
-                    }
-                }
-
-                patterns.add(new Pattern(pattern, fullName, shortName));
+                patterns.add(pattern);
             }
 
             folders.add(new PatternFolder(this, name, patterns));